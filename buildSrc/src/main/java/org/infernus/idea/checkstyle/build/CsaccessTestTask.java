@@ -76,14 +76,7 @@ public abstract class CsaccessTestTask extends Test {
 
     private @NotNull FileCollection setClassPathForVersion(final String checkstyleVersion, final Project project) {
         final JavaPluginExtension jpc = project.getExtensions().getByType(JavaPluginExtension.class);
-        final Dependency csDep = CheckstyleVersions.createCheckstyleDependency(project, checkstyleVersion);
-        final ConfigurationContainer configurations = project.getConfigurations();
-        final Configuration detachedConfiguration = configurations.detachedConfiguration(csDep);
-        // workaround for Checkstyle#14123
-        detachedConfiguration
-                .getResolutionStrategy()
-                .getCapabilitiesResolution()
-                .withCapability("com.google.collections", "google-collections", resolutionDetails -> resolutionDetails.select("com.google.guava:guava:0"));
+        final Configuration detachedConfiguration = detachedCheckstyleConfiguration(checkstyleVersion, project);
 
         final SourceSetContainer sourceSets = jpc.getSourceSets();
         final SourceSet mainSourceSet = sourceSets.getByName(SourceSet.MAIN_SOURCE_SET_NAME);
@@ -105,6 +98,23 @@ public abstract class CsaccessTestTask extends Test {
                 .minus(project.files(testSourceSet.getOutput().getResourcesDir()));
     }
 
+    /**
+     * Create a configuration holding the given Checkstyle version and its dependencies, outside the project's
+     * configurations, as Checkstyle is only a compile-time dependency of the plugin.
+     */
+    static @NotNull Configuration detachedCheckstyleConfiguration(final String checkstyleVersion,
+                                                                  final Project project) {
+        final Dependency csDep = CheckstyleVersions.createCheckstyleDependency(project, checkstyleVersion);
+        final ConfigurationContainer configurations = project.getConfigurations();
+        final Configuration detachedConfiguration = configurations.detachedConfiguration(csDep);
+        // workaround for Checkstyle#14123
+        detachedConfiguration
+                .getResolutionStrategy()
+                .getCapabilitiesResolution()
+                .withCapability("com.google.collections", "google-collections", resolutionDetails -> resolutionDetails.select("com.google.guava:guava:0"));
+        return detachedConfiguration;
+    }
+
     /**
      * Overriding getClasspath() in order to set the final classpath is an unusual solution, but it was the only
      * solution which included the classpath entries generated by the IntelliJ plugin creation plugin (which, in my
@@ -24,6 +24,7 @@ import java.util.stream.Collectors;
 public class CustomSourceSetCreator {
     static final String CSACCESS_SOURCESET_NAME = "csaccess";
     public static final String CSACCESSTEST_SOURCESET_NAME = "csaccessTest";
+    public static final String JMH_SOURCESET_NAME = "jmh";
 
     private static final double MINIMUM_CSACCESS_COVERAGE = 0.60d;
 
@@ -124,6 +125,46 @@ public class CustomSourceSetCreator {
                 .dependsOn(tasks.getByName(csaccessSourceSet.getClassesTaskName()));
     }
 
+    public void establishJmhSourceSet() {
+        final SourceSetContainer sourceSets = (SourceSetContainer) project.getProperties().get("sourceSets");
+        final SourceSet mainSourceSet = sourceSets.getByName(SourceSet.MAIN_SOURCE_SET_NAME);
+        final SourceSet csaccessSourceSet = sourceSets.getByName(CSACCESS_SOURCESET_NAME);
+        final SourceSet csaccessTestSourceSet = sourceSets.getByName(CSACCESSTEST_SOURCESET_NAME);
+
+        // Create the 'jmh' source set, which builds on 'csaccessTest' so that the benchmarks can share its fixtures
+        final SourceSet jmhSourceSet = sourceSets.create(JMH_SOURCESET_NAME);
+        jmhSourceSet.setCompileClasspath(jmhSourceSet.getCompileClasspath()
+                .plus(mainSourceSet.getOutput())
+                .plus(mainSourceSet.getCompileClasspath())
+                .plus(csaccessSourceSet.getOutput())
+                .plus(csaccessTestSourceSet.getOutput()));
+        jmhSourceSet.setRuntimeClasspath(jmhSourceSet.getRuntimeClasspath()
+                .plus(mainSourceSet.getOutput())
+                .plus(mainSourceSet.getRuntimeClasspath())
+                .plus(csaccessSourceSet.getOutput())
+                .plus(csaccessTestSourceSet.getOutput()));
+
+        // Derive all its configurations from 'csaccessTest'
+        final ConfigurationContainer configurations = project.getConfigurations();
+        configurations.getByName(jmhSourceSet.getImplementationConfigurationName()).extendsFrom(
+                configurations.getByName(csaccessTestSourceSet.getImplementationConfigurationName()));
+        configurations.getByName(jmhSourceSet.getCompileOnlyConfigurationName()).extendsFrom(
+                configurations.getByName(csaccessTestSourceSet.getCompileOnlyConfigurationName()));
+        configurations.getByName(jmhSourceSet.getCompileClasspathConfigurationName()).extendsFrom(
+                configurations.getByName(csaccessTestSourceSet.getCompileClasspathConfigurationName()));
+        configurations.getByName(jmhSourceSet.getRuntimeOnlyConfigurationName()).extendsFrom(
+                configurations.getByName(csaccessTestSourceSet.getRuntimeOnlyConfigurationName()));
+
+        // Wire task dependencies to match the classpath dependencies (arrow means "depends on"):
+        //    - compileJmhJava -> compileCsaccessTestJava
+        //    - jmhClasses     -> csaccessTestClasses
+        final TaskContainer tasks = project.getTasks();
+        tasks.getByName(jmhSourceSet.getCompileJavaTaskName())
+                .dependsOn(tasks.getByName(csaccessTestSourceSet.getCompileJavaTaskName()));
+        tasks.getByName(jmhSourceSet.getClassesTaskName())
+                .dependsOn(tasks.getByName(csaccessTestSourceSet.getClassesTaskName()));
+    }
+
 
     public void setupCoverageVerification() {
         final TaskContainer tasks = project.getTasks();
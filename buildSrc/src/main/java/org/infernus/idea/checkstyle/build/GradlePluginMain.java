@@ -2,8 +2,12 @@ package org.infernus.idea.checkstyle.build;
 
 import java.io.File;
 import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.function.Consumer;
 
+import org.gradle.api.GradleException;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
 import org.gradle.api.Task;
@@ -40,6 +44,7 @@ public class GradlePluginMain implements Plugin<Project> {
         createCsAccessTestTask(project);
         createCrossCheckTasks(project);
         createCheckstyleArtifactTasks(project);
+        createBenchmarkTasks(project);
         new CustomSourceSetCreator(project).setupCoverageVerification();
         wireIntellijPluginTasks(project);
     }
@@ -48,6 +53,7 @@ public class GradlePluginMain implements Plugin<Project> {
         final CustomSourceSetCreator sourceSetFactory = new CustomSourceSetCreator(project);
         sourceSetFactory.establishCsAccessSourceSet();
         sourceSetFactory.establishCsAccessTestSourceSet();
+        sourceSetFactory.establishJmhSourceSet();
     }
 
     private void readSupportedCheckstyleVersions(final Project project) {
@@ -98,6 +104,47 @@ public class GradlePluginMain implements Plugin<Project> {
         });
     }
 
+    private void createBenchmarkTasks(final Project project) {
+        final TaskContainer tasks = project.getTasks();
+
+        supportedCsVersions.getVersions().forEach((final String csVersion) -> {
+            TaskProvider<JmhTask> provider = tasks.register(JmhTask.getTaskName(csVersion), JmhTask.class);
+            provider.configure((JmhTask jmhTask) -> jmhTask.setCheckstyleVersion(csVersion));
+        });
+
+        TaskProvider<JmhReportTask> provider = tasks.register(JmhTask.JMH_TASK_NAME, JmhReportTask.class);
+        provider.configure((JmhReportTask reportTask) -> {
+            for (final String csVersion : benchmarkedVersions(project)) {
+                reportTask.addResults(csVersion, (JmhTask) tasks.getByName(JmhTask.getTaskName(csVersion)));
+            }
+        });
+    }
+
+    /**
+     * By default, benchmark the oldest and newest supported Checkstyle versions; this may be overridden with a
+     * comma-separated list in the {@value JmhTask#VERSIONS_PROPERTY_NAME} project property.
+     *
+     * @param project the Gradle project
+     * @return the versions to benchmark
+     */
+    private Set<String> benchmarkedVersions(final Project project) {
+        final Object requestedVersions = project.findProperty(JmhTask.VERSIONS_PROPERTY_NAME);
+        if (requestedVersions == null || requestedVersions.toString().isBlank()) {
+            return new LinkedHashSet<>(List.of(supportedCsVersions.getBaseVersion(),
+                    supportedCsVersions.getVersions().last()));
+        }
+
+        final Set<String> versions = new LinkedHashSet<>();
+        for (final String version : requestedVersions.toString().trim().split("\\s*,\\s*")) {
+            if (!supportedCsVersions.getVersions().contains(version)) {
+                throw new GradleException("Cannot benchmark unsupported Checkstyle version '" + version
+                        + "'. Supported versions: " + supportedCsVersions.getVersions());
+            }
+            versions.add(version);
+        }
+        return versions;
+    }
+
     private void createCheckstyleArtifactTasks(final Project project) {
         TaskProvider<GatherCheckstyleArtifactsTask> taskProvider =
                 project.getTasks().register(GatherCheckstyleArtifactsTask.NAME, GatherCheckstyleArtifactsTask.class);
@@ -110,6 +157,12 @@ public class GradlePluginMain implements Plugin<Project> {
             mainSourceSet.getResources().srcDir(task.getClassPathsInfoFile().getParentFile());
         });
 
+        // The jar index is written beside the classpath info file, and so is added to resources with it
+        TaskProvider<IndexCheckstyleArtifactsTask> indexTaskProvider =
+                project.getTasks().register(IndexCheckstyleArtifactsTask.NAME, IndexCheckstyleArtifactsTask.class);
+        project.getTasks().named(JavaPlugin.PROCESS_RESOURCES_TASK_NAME)
+                .configure((Task processResources) -> processResources.dependsOn(indexTaskProvider));
+
         createCopyCheckstyleArtifactsToSandboxTask(project, false);
         createCopyCheckstyleArtifactsToSandboxTask(project, true);
 
@@ -0,0 +1,129 @@
+package org.infernus.idea.checkstyle.build;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.Project;
+import org.gradle.api.tasks.InputDirectory;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.language.base.plugins.LifecycleBasePlugin;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.*;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+
+/**
+ * Index the directories of the Checkstyle artifacts gathered by {@link GatherCheckstyleArtifactsTask}, so that the
+ * plugin's class loader need not open every jar of a Checkstyle runtime to learn where its classes may be found.
+ * <p>
+ * The index is a properties file with an entry per jar, named as in the classpath info file. Each entry holds the
+ * size of the jar, then a colon, then the directories holding its files, separated by semicolons and each followed
+ * by a slash (so the root is {@code /}). The size lets the plugin check the jar it loads is the jar indexed. Jars
+ * which refer to other jars in their manifests are left out, and so are indexed when loaded.
+ */
+public class IndexCheckstyleArtifactsTask
+        extends DefaultTask {
+    public static final String NAME = "indexCheckstyleArtifacts";
+
+    private static final String VERSIONED_ENTRY_PREFIX = "META-INF/versions/";
+
+    @InputDirectory
+    private final File bundledJarsDir;
+
+    @OutputFile
+    private final File jarIndexFile;
+
+    public IndexCheckstyleArtifactsTask() {
+        super();
+        setGroup(LifecycleBasePlugin.BUILD_GROUP);
+        setDescription("Indexes the gathered Checkstyle libraries, so that they can be loaded without scanning them");
+        final Project project = getProject();
+
+        final GatherCheckstyleArtifactsTask gatherTask =
+                (GatherCheckstyleArtifactsTask) project.getTasks().getByName(GatherCheckstyleArtifactsTask.NAME);
+        dependsOn(gatherTask);
+
+        bundledJarsDir = gatherTask.getBundledJarsDir();
+        jarIndexFile = new File(gatherTask.getClassPathsInfoFile().getParentFile(), "checkstyle-jar-index.properties");
+    }
+
+    @TaskAction
+    public void runTask() {
+        final File[] jars = bundledJarsDir.listFiles((dir, name) -> name.endsWith(".jar"));
+        if (jars == null) {
+            throw new GradleException("Unable to list gathered artifacts: " + bundledJarsDir.getAbsolutePath());
+        }
+
+        final Properties jarIndex = new SortedProperties();
+        for (final File jar : jars) {
+            indexJar(jar).ifPresent(directories -> jarIndex.setProperty(
+                    GradlePluginMain.CSLIB_TARGET_SUBFOLDER + '/' + jar.getName(),
+                    jar.length() + ":" + String.join(";", directories)));
+        }
+
+        writeIndex(jarIndex);
+        getLogger().info("Indexed " + jarIndex.size() + " of " + jars.length + " Checkstyle artifacts");
+    }
+
+    private Optional<SortedSet<String>> indexJar(final File jar) {
+        try (JarFile jarFile = new JarFile(jar)) {
+            final Manifest manifest = jarFile.getManifest();
+            if (manifest != null && manifest.getMainAttributes().getValue(Attributes.Name.CLASS_PATH) != null) {
+                return Optional.empty();
+            }
+
+            final SortedSet<String> directories = new TreeSet<>();
+            final Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                final JarEntry entry = entries.nextElement();
+                if (!entry.isDirectory()) {
+                    directories.add(directoryOf(withoutVersionPrefix(entry.getName())));
+                }
+            }
+            return Optional.of(directories);
+
+        } catch (IOException e) {
+            throw new GradleException("Unable to index artifact: " + jar.getAbsolutePath(), e);
+        }
+    }
+
+    private String withoutVersionPrefix(final String entryName) {
+        if (entryName.startsWith(VERSIONED_ENTRY_PREFIX)) {
+            final int endOfVersion = entryName.indexOf('/', VERSIONED_ENTRY_PREFIX.length());
+            if (endOfVersion > 0) {
+                return entryName.substring(endOfVersion + 1);
+            }
+        }
+        return entryName;
+    }
+
+    private String directoryOf(final String entryName) {
+        final int lastSlash = entryName.lastIndexOf('/');
+        if (lastSlash < 0) {
+            return "/";
+        }
+        return entryName.substring(0, lastSlash + 1);
+    }
+
+    private void writeIndex(final Properties jarIndex) {
+        //noinspection ResultOfMethodCallIgnored
+        jarIndexFile.getParentFile().mkdirs();
+
+        try (OutputStream os = new FileOutputStream(jarIndexFile)) {
+            jarIndex.store(os, " Directory index of the Checkstyle artifacts bundled with Checkstyle_IDEA");
+        } catch (IOException e) {
+            throw new GradleException("Unable to write jar index file: " + jarIndexFile.getAbsolutePath(), e);
+        }
+    }
+
+    public File getJarIndexFile() {
+        return jarIndexFile;
+    }
+}
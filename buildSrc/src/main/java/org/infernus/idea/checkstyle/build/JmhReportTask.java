@@ -0,0 +1,135 @@
+package org.infernus.idea.checkstyle.build;
+
+import groovy.json.JsonSlurper;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.Project;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+
+/**
+ * Combines the JMH results of each benchmarked Checkstyle version into a single CSV file, with one row per benchmark
+ * and one column per version. The file is named after the plugin version, so that reports from successive releases
+ * can be kept side by side and compared.
+ */
+public class JmhReportTask
+        extends DefaultTask {
+
+    private final SortedMap<String, File> resultFilesByVersion = new TreeMap<>(new VersionComparator());
+
+    public JmhReportTask() {
+        super();
+        setGroup(JmhTask.JMH_GROUP_NAME);
+        setDescription("Runs the '" + CustomSourceSetCreator.JMH_SOURCESET_NAME + "' benchmarks against the "
+                + "selected Checkstyle runtimes, and combines the results into a single report.");
+        getOutputs().upToDateWhen(task -> false);
+    }
+
+    public void addResults(final String checkstyleVersion, final JmhTask benchmarkTask) {
+        dependsOn(benchmarkTask);
+        resultFilesByVersion.put(checkstyleVersion, benchmarkTask.getResultFile());
+    }
+
+    public File getReportFile() {
+        final Project project = getProject();
+        return new File(JmhTask.resultsDir(project), "jmh-" + project.getVersion() + ".csv");
+    }
+
+    @TaskAction
+    public void runTask() {
+        final Map<String, Map<String, Score>> scoresByBenchmark = new TreeMap<>();
+        resultFilesByVersion.forEach((checkstyleVersion, resultFile) -> {
+            for (final Map<?, ?> result : readResults(resultFile)) {
+                scoresByBenchmark.computeIfAbsent(benchmarkNameOf(result), key -> new HashMap<>())
+                        .put(checkstyleVersion, scoreOf(result));
+            }
+        });
+
+        final File reportFile = getReportFile();
+        try (PrintWriter out = new PrintWriter(reportFile, StandardCharsets.UTF_8)) {
+            final StringBuilder header = new StringBuilder("benchmark,unit");
+            resultFilesByVersion.keySet().forEach(version -> header.append(',').append(version)
+                    .append(',').append(version).append(" error"));
+            out.println(header);
+
+            scoresByBenchmark.forEach((benchmark, scores) -> {
+                final StringBuilder row = new StringBuilder(quoted(benchmark)).append(',').append(unitOf(scores));
+                for (final String version : resultFilesByVersion.keySet()) {
+                    final Score score = scores.get(version);
+                    row.append(',').append(score != null ? format(score.value) : "")
+                            .append(',').append(score != null ? format(score.error) : "");
+                }
+                out.println(row);
+            });
+        } catch (IOException e) {
+            throw new GradleException("Unable to write benchmark report: " + reportFile.getAbsolutePath(), e);
+        }
+
+        getLogger().lifecycle("Benchmark report written to " + reportFile.getAbsolutePath());
+    }
+
+    private List<Map<?, ?>> readResults(final File resultFile) {
+        if (!resultFile.exists()) {
+            throw new GradleException("Benchmark results not found: " + resultFile.getAbsolutePath());
+        }
+        final List<Map<?, ?>> results = new ArrayList<>();
+        for (final Object result : (List<?>) new JsonSlurper().parse(resultFile, StandardCharsets.UTF_8.name())) {
+            results.add((Map<?, ?>) result);
+        }
+        return results;
+    }
+
+    private String benchmarkNameOf(final Map<?, ?> result) {
+        final String benchmark = String.valueOf(result.get("benchmark"));
+        final Map<?, ?> params = (Map<?, ?>) result.get("params");
+        if (params == null || params.isEmpty()) {
+            return benchmark;
+        }
+        final StringJoiner paramList = new StringJoiner(", ", benchmark + " (", ")");
+        new TreeMap<>(params).forEach((name, value) -> paramList.add(name + "=" + value));
+        return paramList.toString();
+    }
+
+    private Score scoreOf(final Map<?, ?> result) {
+        final Map<?, ?> metric = (Map<?, ?>) result.get("primaryMetric");
+        return new Score(toDouble(metric.get("score")), toDouble(metric.get("scoreError")),
+                String.valueOf(metric.get("scoreUnit")));
+    }
+
+    private double toDouble(final Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        return Double.NaN; // JMH reports "NaN" as a string when there are too few samples for an error
+    }
+
+    private String unitOf(final Map<String, Score> scores) {
+        return scores.values().stream().map(score -> score.unit).findFirst().orElse("");
+    }
+
+    private String format(final double value) {
+        return Double.isNaN(value) ? "" : String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    private String quoted(final String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static final class Score {
+        private final double value;
+        private final double error;
+        private final String unit;
+
+        private Score(final double value, final double error, final String unit) {
+            this.value = value;
+            this.error = error;
+            this.unit = unit;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.infernus.idea.checkstyle.build;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.gradle.api.Project;
+import org.gradle.api.plugins.JavaPluginExtension;
+import org.gradle.api.tasks.JavaExec;
+import org.gradle.api.tasks.SourceSet;
+
+
+/**
+ * Gradle task that runs the JMH benchmarks in 'jmh' against one of the supported Checkstyle versions.
+ */
+public abstract class JmhTask extends JavaExec {
+    public static final String JMH_GROUP_NAME = "benchmark";
+    public static final String JMH_TASK_NAME = "jmh";
+
+    /** Project property holding a comma-separated list of the Checkstyle versions to benchmark. */
+    public static final String VERSIONS_PROPERTY_NAME = "jmhCheckstyleVersions";
+
+    /** Project property holding additional arguments for the JMH runner, e.g. {@code -PjmhArgs="-f 1 -i 3 Scan"}. */
+    public static final String ARGS_PROPERTY_NAME = "jmhArgs";
+
+    private static final String JMH_MAIN_CLASS = "org.openjdk.jmh.Main";
+
+    private File resultFile = null;
+
+    public JmhTask() {
+        final Project project = getProject();
+        final JavaPluginExtension jpc = project.getExtensions().getByType(JavaPluginExtension.class);
+        final SourceSet jmhSourceSet = jpc.getSourceSets().getByName(CustomSourceSetCreator.JMH_SOURCESET_NAME);
+
+        dependsOn(project.getTasks().getByName(jmhSourceSet.getClassesTaskName()));
+        // the Checkstyle runtimes are loaded from the gathered artifacts, as they are in the unit tests
+        dependsOn(project.getTasks().getByName(GatherCheckstyleArtifactsTask.NAME));
+
+        getMainClass().set(JMH_MAIN_CLASS);
+    }
+
+    public static String getTaskName(final String checkstyleVersion) {
+        return "jmh_" + CheckstyleVersions.toGradleVersion(checkstyleVersion);
+    }
+
+    public static File resultsDir(final Project project) {
+        return new File(project.getLayout().getBuildDirectory().getAsFile().get(), "reports/jmh");
+    }
+
+    public void setCheckstyleVersion(final String checkstyleVersion) {
+        setGroup(JMH_GROUP_NAME);
+        setDescription("Runs the '" + CustomSourceSetCreator.JMH_SOURCESET_NAME + "' benchmarks against a "
+                + "Checkstyle " + checkstyleVersion + " runtime.");
+
+        // Make the Checkstyle version available to the benchmarks via a system property.
+        systemProperty(CsaccessTestTask.CSVERSION_SYSPROP_NAME, checkstyleVersion);
+
+        // Checkstyle is only a compile-time dependency of 'csaccess', whose classes are loaded from the classpath
+        // here, so the runtime being benchmarked must be on the classpath alongside them.
+        final JavaPluginExtension jpc = getProject().getExtensions().getByType(JavaPluginExtension.class);
+        final SourceSet jmhSourceSet = jpc.getSourceSets().getByName(CustomSourceSetCreator.JMH_SOURCESET_NAME);
+        setClasspath(getProject().files(CsaccessTestTask.detachedCheckstyleConfiguration(checkstyleVersion, getProject()))
+                .plus(jmhSourceSet.getRuntimeClasspath()));
+
+        resultFile = new File(resultsDir(getProject()), checkstyleVersion + ".json");
+        getOutputs().file(resultFile);
+        getOutputs().upToDateWhen(task -> false);
+
+        final List<String> jmhArgs = new ArrayList<>(Arrays.asList(
+                "-rf", "json",
+                "-rff", resultFile.getAbsolutePath()));
+        final Object extraArgs = getProject().findProperty(ARGS_PROPERTY_NAME);
+        if (extraArgs != null && !extraArgs.toString().isBlank()) {
+            jmhArgs.addAll(Arrays.asList(extraArgs.toString().trim().split("\\s+")));
+        }
+        setArgs(jmhArgs);
+
+        doFirst(task -> {
+            //noinspection ResultOfMethodCallIgnored
+            resultFile.getParentFile().mkdirs();
+        });
+    }
+
+    public File getResultFile() {
+        if (resultFile == null) {
+            throw new IllegalStateException("setCheckstyleVersion has not been called");
+        }
+        return resultFile;
+    }
+}
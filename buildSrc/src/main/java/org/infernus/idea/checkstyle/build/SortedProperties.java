@@ -1,22 +1,36 @@
 package org.infernus.idea.checkstyle.build;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Enumeration;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 
 
 /**
- * Just so we generate a sorted property file with the classpath information.
+ * Just so we generate sorted property files with the classpath information and the jar index.
+ * <p>
+ * {@link Properties#store} reads the entries rather than the keys since Java 9, so both are sorted.
  */
 class SortedProperties extends Properties {
 
+    private static final Comparator<String> VERSION_COMPARATOR = new VersionComparator();
+
     @Override
     public synchronized Enumeration<Object> keys() {
         List<Object> keyList = Collections.list(super.keys());
-        final Comparator<String> versionComparator = new VersionComparator();
-        keyList.sort((a, b) -> versionComparator.compare(a.toString(), b.toString()));
+        keyList.sort((a, b) -> VERSION_COMPARATOR.compare(a.toString(), b.toString()));
         return Collections.enumeration(keyList);
     }
+
+    @Override
+    public Set<Map.Entry<Object, Object>> entrySet() {
+        final List<Map.Entry<Object, Object>> entryList = new ArrayList<>(super.entrySet());
+        entryList.sort((a, b) -> VERSION_COMPARATOR.compare(a.getKey().toString(), b.getKey().toString()));
+        return Collections.unmodifiableSet(new LinkedHashSet<>(entryList));
+    }
 }
@@ -4,31 +4,52 @@ import com.intellij.openapi.application.Application;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.psi.PsiFile;
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.AuditListener;
 import org.infernus.idea.checkstyle.checker.Problem;
 import org.infernus.idea.checkstyle.checks.Check;
+import org.infernus.idea.checkstyle.csapi.FileResultsListener;
 import org.infernus.idea.checkstyle.csapi.Issue;
 import org.infernus.idea.checkstyle.csapi.ProcessResultsThread;
 import org.infernus.idea.checkstyle.csapi.SeverityLevel;
+import org.infernus.idea.checkstyle.util.SymbolTable;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 
 
+/**
+ * Collects the issues reported by Checkstyle, and maps them to problems on the scanned PSI files.
+ * <p>
+ * By default, the issues of the whole scan are mapped once the audit is finished. If a {@link FileResultsListener}
+ * is given, each file's issues are instead mapped as soon as Checkstyle has finished with the file, and passed to
+ * the listener; only the issues of the file in progress are held.
+ */
 public class CheckStyleAuditListener
         implements AuditListener {
 
     private static final Logger LOG = Logger.getInstance(CheckStyleAuditListener.class);
 
+    /**
+     * The number of issues to map under a single read lock; files are not split, so this may be exceeded.
+     */
+    private static final int MAX_ISSUES_PER_READ_ACTION = 500;
+
     private final boolean suppressErrors;
     private final List<Check> checks;
     private final int tabWidth;
     private final Optional<String> baseDir;
     private final Map<String, PsiFile> fileNamesToPsiFiles;
+    private final FileResultsListener fileResultsListener;
 
+    // the same messages and checks recur across the whole scan, so each is held once
+    private final SymbolTable symbols = new SymbolTable();
     private final List<Issue> errors = Collections.synchronizedList(new ArrayList<>());
+    private final Map<String, List<Issue>> errorsByFileInProgress = new LinkedHashMap<>();
+    private final Map<PsiFile, List<Problem>> streamedProblems = new HashMap<>();
     private Map<PsiFile, List<Problem>> problems = Collections.emptyMap();
 
     public CheckStyleAuditListener(@NotNull final Map<String, PsiFile> fileNamesToPsiFiles,
@@ -36,31 +57,51 @@ public class CheckStyleAuditListener
                                    final int tabWidth,
                                    @NotNull final Optional<String> baseDir,
                                    @NotNull final List<Check> checks) {
+        this(fileNamesToPsiFiles, suppressErrors, tabWidth, baseDir, checks, null);
+    }
+
+    public CheckStyleAuditListener(@NotNull final Map<String, PsiFile> fileNamesToPsiFiles,
+                                   final boolean suppressErrors,
+                                   final int tabWidth,
+                                   @NotNull final Optional<String> baseDir,
+                                   @NotNull final List<Check> checks,
+                                   @Nullable final FileResultsListener fileResultsListener) {
         this.fileNamesToPsiFiles = new HashMap<>(fileNamesToPsiFiles);
         this.checks = checks;
         this.suppressErrors = suppressErrors;
         this.tabWidth = tabWidth;
         this.baseDir = baseDir;
+        this.fileResultsListener = fileResultsListener;
     }
 
 
     public void auditStarted(final AuditEvent auditEvent) {
         errors.clear();
+        synchronized (errorsByFileInProgress) {
+            errorsByFileInProgress.clear();
+            streamedProblems.clear();
+        }
     }
 
     public void auditFinished(final AuditEvent auditEvent) {
+        if (isStreaming()) {
+            final List<Issue> remainingErrors = new ArrayList<>();
+            synchronized (errorsByFileInProgress) {
+                errorsByFileInProgress.values().forEach(remainingErrors::addAll);
+                errorsByFileInProgress.clear();
+            }
+            streamResults(remainingErrors);
+            synchronized (errorsByFileInProgress) {
+                problems = new HashMap<>(streamedProblems);
+            }
+            return;
+        }
+
         List<Issue> errorsCopy;
         synchronized (errors) {
             errorsCopy = new ArrayList<>(errors);
         }
-        final ProcessResultsThread findThread = new ProcessResultsThread(suppressErrors, checks, tabWidth, baseDir,
-                errorsCopy, fileNamesToPsiFiles);
-
-        final Application application = ApplicationManager.getApplication();
-        if (application != null) {  // can be null in unit tests
-            ReadAction.run(findThread);
-            problems = findThread.getProblems();
-        }
+        problems = mapToProblems(errorsCopy).orElse(problems);
     }
 
     public void fileStarted(final AuditEvent auditEvent) {
@@ -68,16 +109,24 @@ public class CheckStyleAuditListener
     }
 
     public void fileFinished(final AuditEvent auditEvent) {
-        // do nothing
+        if (isStreaming()) {
+            final List<Issue> fileErrors;
+            synchronized (errorsByFileInProgress) {
+                fileErrors = errorsByFileInProgress.remove(auditEvent.getFileName());
+            }
+            if (fileErrors != null) {
+                streamResults(fileErrors);
+            }
+        }
     }
 
     public void addError(final AuditEvent auditEvent) {
-        errors.add(toIssue(auditEvent));
+        addIssue(toIssue(auditEvent));
     }
 
     public void addException(final AuditEvent auditEvent, final Throwable throwable) {
         LOG.warn("Exception during CheckStyle execution", throwable);
-        errors.add(toIssue(auditEvent));
+        addIssue(toIssue(auditEvent));
     }
 
 
@@ -87,11 +136,96 @@ public class CheckStyleAuditListener
     }
 
 
+    private boolean isStreaming() {
+        return fileResultsListener != null;
+    }
+
+    private void addIssue(final Issue issue) {
+        if (isStreaming()) {
+            synchronized (errorsByFileInProgress) {
+                errorsByFileInProgress.computeIfAbsent(issue.fileName, key -> new ArrayList<>()).add(issue);
+            }
+        } else {
+            errors.add(issue);
+        }
+    }
+
+    private void streamResults(final List<Issue> fileErrors) {
+        if (fileErrors.isEmpty()) {
+            return;
+        }
+        mapToProblems(fileErrors).ifPresent(fileProblems -> {
+            synchronized (errorsByFileInProgress) {
+                fileProblems.forEach((psiFile, problemsForFile) ->
+                        streamedProblems.computeIfAbsent(psiFile, key -> new ArrayList<>()).addAll(problemsForFile));
+            }
+            fileProblems.forEach(fileResultsListener::fileScanned);
+        });
+    }
+
+    /**
+     * Map issues to problems, in chunks of whole files. Each chunk is mapped in its own non-blocking read action,
+     * which is restarted should a write action intervene, so that a large scan does not hold the read lock
+     * throughout; as a file is never split between chunks, its problems are always mapped from a single state of
+     * its PSI. Files invalidated before they are reached are skipped.
+     */
+    private Optional<Map<PsiFile, List<Problem>>> mapToProblems(final List<Issue> issues) {
+        final Application application = ApplicationManager.getApplication();
+        if (application == null) {  // can be null in unit tests
+            return Optional.empty();
+        }
+
+        if (application.isReadAccessAllowed()) {
+            // we can't release a lock we were called with, so there's nothing to gain from chunking
+            return Optional.of(mapInReadAction(issues));
+        }
+
+        final Map<PsiFile, List<Problem>> mappedProblems = new HashMap<>();
+        for (final List<Issue> chunk : chunksOfWholeFiles(issues)) {
+            ProgressManager.checkCanceled();
+            final Map<PsiFile, List<Problem>> chunkProblems = ReadAction
+                    .nonBlocking(() -> mapInReadAction(chunk))
+                    .executeSynchronously();
+            chunkProblems.forEach((psiFile, problemsForFile) ->
+                    mappedProblems.computeIfAbsent(psiFile, key -> new ArrayList<>()).addAll(problemsForFile));
+        }
+        return Optional.of(mappedProblems);
+    }
+
+    private Map<PsiFile, List<Problem>> mapInReadAction(final List<Issue> issues) {
+        final ProcessResultsThread findThread = new ProcessResultsThread(suppressErrors, checks, tabWidth, baseDir,
+                issues, fileNamesToPsiFiles);
+        findThread.run();
+        return findThread.getProblems();
+    }
+
+    private List<List<Issue>> chunksOfWholeFiles(final List<Issue> issues) {
+        final Map<String, List<Issue>> issuesByFile = new LinkedHashMap<>();
+        for (final Issue issue : issues) {
+            issuesByFile.computeIfAbsent(issue.fileName, key -> new ArrayList<>()).add(issue);
+        }
+
+        final List<List<Issue>> chunks = new ArrayList<>();
+        List<Issue> currentChunk = new ArrayList<>();
+        for (final List<Issue> fileIssues : issuesByFile.values()) {
+            if (!currentChunk.isEmpty() && currentChunk.size() + fileIssues.size() > MAX_ISSUES_PER_READ_ACTION) {
+                chunks.add(currentChunk);
+                currentChunk = new ArrayList<>();
+            }
+            currentChunk.addAll(fileIssues);
+        }
+        if (!currentChunk.isEmpty()) {
+            chunks.add(currentChunk);
+        }
+        return chunks;
+    }
+
+
     private Issue toIssue(final AuditEvent auditEvent) {
-        String msg = auditEvent.getMessage();
+        String msg = symbols.intern(auditEvent.getMessage());
         final SeverityLevel level = readSeverityLevel(auditEvent.getSeverityLevel());
         return new Issue(auditEvent.getFileName(), auditEvent.getLine(), auditEvent.getColumn(), msg, level,
-                auditEvent.getSourceName());
+                symbols.intern(auditEvent.getSourceName()));
     }
 
 
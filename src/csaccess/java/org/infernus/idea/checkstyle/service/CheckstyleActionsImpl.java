@@ -5,6 +5,7 @@ import java.util.Map;
 import java.util.Optional;
 
 import com.intellij.openapi.module.Module;
+import com.intellij.openapi.progress.ProcessCanceledException;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiFile;
@@ -16,6 +17,7 @@ import org.infernus.idea.checkstyle.checker.ScannableFile;
 import org.infernus.idea.checkstyle.csapi.CheckstyleActions;
 import org.infernus.idea.checkstyle.csapi.CheckstyleInternalObject;
 import org.infernus.idea.checkstyle.csapi.ConfigVisitor;
+import org.infernus.idea.checkstyle.csapi.FileResultsListener;
 import org.infernus.idea.checkstyle.csapi.TabWidthAndBaseDirProvider;
 import org.infernus.idea.checkstyle.exception.CheckStylePluginException;
 import org.infernus.idea.checkstyle.exception.CheckStylePluginParseException;
@@ -71,8 +73,18 @@ public class CheckstyleActionsImpl implements CheckstyleActions {
                                             final boolean isSuppressingErrors,
                                             final int tabWidth,
                                             final Optional<String> baseDir) {
+        return scan(checkerWithConfig, scannableFiles, isSuppressingErrors, tabWidth, baseDir, null);
+    }
+
+    @Override
+    public Map<PsiFile, List<Problem>> scan(@NotNull final CheckstyleInternalObject checkerWithConfig,
+                                            @NotNull final List<ScannableFile> scannableFiles,
+                                            final boolean isSuppressingErrors,
+                                            final int tabWidth,
+                                            final Optional<String> baseDir,
+                                            @Nullable final FileResultsListener fileResultsListener) {
         return executeCommand(new OpScan(checkerWithConfig, scannableFiles, isSuppressingErrors, tabWidth,
-                baseDir));
+                baseDir, fileResultsListener));
     }
 
 
@@ -112,13 +124,17 @@ public class CheckstyleActionsImpl implements CheckstyleActions {
         R result;
         try {
             result = command.execute(project);
+        } catch (ProcessCanceledException e) {
+            throw e;
         } catch (CheckstyleException e) {
+            rethrowIfCancelled(e);
             CheckStylePluginException wrapped = new ExceptionWrapper().wrap(null, e);
             if (wrapped instanceof CheckStylePluginParseException) {
                 throw wrapped;
             }
             throw new CheckstyleToolException(e);
         } catch (RuntimeException | ExceptionInInitializerError e) {
+            rethrowIfCancelled(e);
             CheckStylePluginException wrapped = new ExceptionWrapper().wrap(null, e);
             if (wrapped instanceof CheckStylePluginParseException) {
                 throw wrapped;
@@ -135,6 +151,18 @@ public class CheckstyleActionsImpl implements CheckstyleActions {
     }
 
 
+    /**
+     * Checkstyle wraps exceptions thrown by its listeners, which would otherwise hide a cancellation of the scan.
+     */
+    private void rethrowIfCancelled(@NotNull final Throwable pThrowable) {
+        for (Throwable cause = pThrowable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ProcessCanceledException) {
+                throw (ProcessCanceledException) cause;
+            }
+        }
+    }
+
+
     @Nullable
     private CheckstyleException digUpCheckstyleCause(@Nullable final Throwable pThrowable) {
         CheckstyleException result = null;
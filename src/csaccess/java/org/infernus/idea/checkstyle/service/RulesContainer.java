@@ -1,7 +1,9 @@
 package org.infernus.idea.checkstyle.service;
 
 import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.VirtualFile;
+import org.infernus.idea.checkstyle.checker.ConfigurationFingerprints;
 import org.infernus.idea.checkstyle.model.ConfigurationLocation;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -34,6 +36,21 @@ public interface RulesContainer {
      */
     InputStream inputStream(ClassLoader checkstyleClassLoader) throws IOException;
 
+    /**
+     * Fingerprint the rules, and any files they include.
+     *
+     * @param project               the current project.
+     * @param checkstyleClassLoader the Checkstyle class loader.
+     * @return the fingerprint, which differs should the rules differ; or null if the rules cannot be fingerprinted,
+     * and so must be parsed each time they are loaded.
+     * @throws IOException failed reading the rules
+     */
+    @Nullable
+    default String fingerprint(@NotNull final Project project,
+                               @NotNull final ClassLoader checkstyleClassLoader) throws IOException {
+        return null;
+    }
+
     @Nullable
     default String resolveAssociatedFile(@Nullable final String fileName,
                                          @Nullable final Module module,
@@ -59,6 +76,14 @@ public interface RulesContainer {
             return configurationLocation.resolve(checkstyleClassLoader);
         }
 
+        @Override
+        public String fingerprint(@NotNull final Project project,
+                                  @NotNull final ClassLoader checkstyleClassLoader) throws IOException {
+            return ConfigurationFingerprints.of(project)
+                    .fingerprintOf(configurationLocation, checkstyleClassLoader)
+                    .contentHash();
+        }
+
         public String resolveAssociatedFile(final String fileName,
                                             final Module module,
                                             @NotNull final ClassLoader checkstyleClassLoader) throws IOException {
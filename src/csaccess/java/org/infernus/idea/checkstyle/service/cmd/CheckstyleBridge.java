@@ -1,11 +1,22 @@
 package org.infernus.idea.checkstyle.service.cmd;
 
+import com.puppycrawl.tools.checkstyle.Checker;
+import com.puppycrawl.tools.checkstyle.api.BeforeExecutionFileFilterSet;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.FileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.FilterSet;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.File;
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.charset.Charset;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 public final class CheckstyleBridge {
 
@@ -31,4 +42,87 @@ public final class CheckstyleBridge {
             throw new RuntimeException("Unable to invoke getMessages method on configuration", e);
         }
     }
+
+    /**
+     * Checker does not expose its file set checks, which we need to process files from memory.
+     *
+     * @return the checks, or empty if this version of Checkstyle does not hold them where we expect.
+     */
+    @SuppressWarnings("unchecked")
+    public static Optional<List<FileSetCheck>> fileSetChecksOf(@NotNull final Checker checker) {
+        return privateFieldOf(checker, "fileSetChecks", List.class).map(checks -> (List<FileSetCheck>) checks);
+    }
+
+    public static Optional<BeforeExecutionFileFilterSet> beforeExecutionFileFiltersOf(@NotNull final Checker checker) {
+        return privateFieldOf(checker, "beforeExecutionFileFilters", BeforeExecutionFileFilterSet.class);
+    }
+
+    public static Optional<FilterSet> filtersOf(@NotNull final Checker checker) {
+        return privateFieldOf(checker, "filters", FilterSet.class);
+    }
+
+    public static Optional<String> charsetOf(@NotNull final Checker checker) {
+        return privateFieldOf(checker, "charset", String.class);
+    }
+
+    public static Optional<String[]> fileExtensionsOf(@NotNull final Checker checker) {
+        return privateFieldOf(checker, "fileExtensions", String[].class);
+    }
+
+    public static Optional<String> basedirOf(@NotNull final Checker checker) {
+        return privateFieldOf(checker, "basedir", String.class);
+    }
+
+    public static boolean isHaltOnException(@NotNull final Checker checker) {
+        return privateFieldOf(checker, "haltOnException", Boolean.class).orElse(true);
+    }
+
+    /**
+     * FileText can only be built from text as a list of lines, which loses the line terminators and the charset
+     * that checks may rely upon. We build it so, and then restore them as {@link FileText#FileText(File, String)}
+     * would have read them.
+     *
+     * @return the file text, or empty if this version of Checkstyle does not hold it where we expect.
+     */
+    public static Optional<FileText> fileTextOf(@NotNull final File file,
+                                                @NotNull final String content,
+                                                @NotNull final String charsetName) {
+        try {
+            final FileText fileText = new FileText(file, content.lines().collect(Collectors.toList()));
+            setPrivateField(fileText, "fullText", content);
+            setPrivateField(fileText, "charset", Charset.forName(charsetName));
+            return Optional.of(fileText);
+        } catch (NoSuchFieldException | IllegalAccessException | RuntimeException ignored) {
+            // not available in this version
+        }
+        return Optional.empty();
+    }
+
+    private static void setPrivateField(@NotNull final FileText fileText,
+                                        @NotNull final String fieldName,
+                                        @NotNull final Object value)
+            throws NoSuchFieldException, IllegalAccessException {
+        final Field field = FileText.class.getDeclaredField(fieldName);
+        if (!field.getType().isInstance(value)) {
+            throw new IllegalStateException("Unexpected type of FileText." + fieldName + ": " + field.getType());
+        }
+        field.setAccessible(true);
+        field.set(fileText, value);
+    }
+
+    private static <T> Optional<T> privateFieldOf(@NotNull final Checker checker,
+                                                  @NotNull final String fieldName,
+                                                  @NotNull final Class<T> fieldType) {
+        try {
+            final Field field = Checker.class.getDeclaredField(fieldName);
+            field.setAccessible(true);
+            final Object value = field.get(checker);
+            if (fieldType.isInstance(value)) {
+                return Optional.of(fieldType.cast(value));
+            }
+        } catch (NoSuchFieldException | IllegalAccessException | RuntimeException ignored) {
+            // not available in this version
+        }
+        return Optional.empty();
+    }
 }
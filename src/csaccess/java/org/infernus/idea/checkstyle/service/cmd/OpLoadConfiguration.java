@@ -20,8 +20,10 @@ import org.infernus.idea.checkstyle.service.SimpleResolver;
 import org.infernus.idea.checkstyle.service.entities.CsConfigObject;
 import org.infernus.idea.checkstyle.service.entities.HasCsConfig;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.xml.sax.InputSource;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
@@ -39,7 +41,8 @@ import static org.infernus.idea.checkstyle.util.Strings.isBlank;
 
 
 /**
- * Load a Checkstyle configuration file.
+ * Load a Checkstyle configuration file. Configurations are parsed through the {@link ParsedConfigurationCache},
+ * so that each version of a file is parsed once for a given set of properties.
  */
 public class OpLoadConfiguration
         implements CheckstyleCommand<HasCsConfig> {
@@ -61,6 +64,7 @@ public class OpLoadConfiguration
             this::loadConfigurationForCheckstyle825AndAbove);
 
     private final RulesContainer rulesContainer;
+    private final Map<String, String> properties;
     private final PropertyResolver resolver;
     private final Module module;
     private final CheckstyleProjectService checkstyleProjectService;
@@ -108,7 +112,8 @@ public class OpLoadConfiguration
         this.module = module;
         this.checkstyleProjectService = checkstyleProjectService;
 
-        resolver = new SimpleResolver(requireNonNullElseGet(properties, Map::of));
+        this.properties = requireNonNullElseGet(properties, Map::of);
+        resolver = new SimpleResolver(this.properties);
     }
 
     private static Map<String, String> buildReplacementsMap() {
@@ -127,21 +132,48 @@ public class OpLoadConfiguration
 
     @Override
     public HasCsConfig execute(@NotNull final Project currentProject) throws CheckstyleException {
-        try (InputStream is = rulesContainer.inputStream(checkstyleClassLoader())) {
-            Configuration configuration = callLoadConfiguration(is);
-            if (configuration == null) {
-                // from the CS code this state appears to occur when there's no <module> element found
-                // in the input stream
-                throw new CheckstyleException("Couldn't find root module in " + rulesContainer.filePath());
-            }
-            resolveFilePaths(currentProject, configuration);
-            return new CsConfigObject(configuration);
+        final String fingerprint = fingerprintOf(currentProject);
+        final Configuration configuration;
+        if (fingerprint != null) {
+            configuration = ParsedConfigurationCache.instance().configurationFor(fingerprint, properties, this::parse);
+        } else {
+            configuration = parse();
+        }
+        if (configuration == null) {
+            // from the CS code this state appears to occur when there's no <module> element found
+            // in the input stream
+            throw new CheckstyleException("Couldn't find root module in " + rulesContainer.filePath());
+        }
+        resolveFilePaths(currentProject, configuration);
+        return new CsConfigObject(configuration);
+    }
 
+    @Nullable
+    private String fingerprintOf(@NotNull final Project currentProject) {
+        try {
+            return rulesContainer.fingerprint(currentProject, checkstyleClassLoader());
+        } catch (IOException e) {
+            LOG.debug("Unable to fingerprint rules, so they will be parsed afresh: " + rulesContainer.filePath(), e);
+            return null;
+        }
+    }
+
+    private Configuration parse() throws CheckstyleException {
+        try (InputStream is = rulesContainer.inputStream(checkstyleClassLoader())) {
+            return callLoadConfiguration(new ByteArrayInputStream(contentOf(is)));
         } catch (IOException e) {
             throw new CheckstyleException("Error loading file", e);
         }
     }
 
+    @NotNull
+    private static byte[] contentOf(final InputStream inputStream) throws IOException {
+        if (inputStream == null) {
+            return new byte[0];
+        }
+        return inputStream.readAllBytes();
+    }
+
     Configuration callLoadConfiguration(final InputStream inputStream) {
         for (ConfigurationLoaderWrapper loaderFunction : loaderFunctions) {
             try {
@@ -238,7 +270,7 @@ public class OpLoadConfiguration
         return !"true".equalsIgnoreCase(getPropertyOrNull(configModule, "optional"));
     }
 
-    private String getPropertyOrNull(final Configuration element, final String attributeName) {
+    private static String getPropertyOrNull(final Configuration element, final String attributeName) {
         try {
             return element.getProperty(attributeName);
         } catch (CheckstyleException e) {
@@ -263,9 +295,9 @@ public class OpLoadConfiguration
         return target;
     }
 
-    private void copyAttributes(@NotNull final Configuration source,
-                                @NotNull final String propertyName,
-                                @NotNull final DefaultConfiguration target) {
+    static void copyAttributes(@NotNull final Configuration source,
+                               @Nullable final String propertyName,
+                               @NotNull final DefaultConfiguration target) {
         if (source.getPropertyNames() != null) {
             for (String sourcePropertyName : source.getPropertyNames()) {
                 if (sourcePropertyName.equals(propertyName)) {
@@ -276,8 +308,8 @@ public class OpLoadConfiguration
         }
     }
 
-    private void copyMessages(@NotNull final Configuration source,
-                              @NotNull final DefaultConfiguration target) {
+    static void copyMessages(@NotNull final Configuration source,
+                             @NotNull final DefaultConfiguration target) {
         final Map<String, String> messages = CheckstyleBridge.messagesFrom(source);
         if (messages != null) {
             for (String messageKey : messages.keySet()) {
@@ -12,14 +12,17 @@ import org.infernus.idea.checkstyle.service.entities.HasCsConfig;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 
 /**
- * Iterate on the configuration modules recursively, calling a visitor on each one.
+ * Iterate on the configuration modules recursively, calling a visitor on each one. The modules of a configuration
+ * are read once, and remembered by the {@link ParsedConfigurationCache} for later visits.
  */
 public class OpPeruseConfiguration implements CheckstyleCommand<Void> {
 
@@ -40,21 +43,36 @@ public class OpPeruseConfiguration implements CheckstyleCommand<Void> {
 
     @Override
     public Void execute(@NotNull final Project project) throws CheckstyleException {
-        runVisitor(configuration);
+        if (configuration == null) {
+            return null;
+        }
+        final List<ConfigurationModule> modules =
+                ParsedConfigurationCache.instance().modulesOf(configuration, this::readModules);
+        for (ConfigurationModule moduleInfo : modules) {
+            visitor.visit(moduleInfo);
+        }
         return null;
     }
 
 
-    private void runVisitor(@Nullable final Configuration currentConfig) throws CheckstyleException {
+    @NotNull
+    private List<ConfigurationModule> readModules(@NotNull final Configuration rootConfig) throws CheckstyleException {
+        final List<ConfigurationModule> modules = new ArrayList<>();
+        readModules(rootConfig, modules);
+        return modules;
+    }
+
+    private void readModules(@Nullable final Configuration currentConfig,
+                             @NotNull final List<ConfigurationModule> modules) throws CheckstyleException {
         if (currentConfig == null) {
             return;
         }
         final ConfigurationModule moduleInfo = buildModuleInfo(currentConfig);
         if (moduleInfo != null) {
-            visitor.visit(moduleInfo);
+            modules.add(moduleInfo);
         }
         for (Configuration childConfig : currentConfig.getChildren()) {
-            runVisitor(childConfig);
+            readModules(childConfig, modules);
         }
     }
 
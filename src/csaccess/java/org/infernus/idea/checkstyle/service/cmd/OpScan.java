@@ -3,34 +3,85 @@ package org.infernus.idea.checkstyle.service.cmd;
 import com.intellij.openapi.project.Project;
 import com.intellij.psi.PsiFile;
 import com.puppycrawl.tools.checkstyle.Checker;
+import com.puppycrawl.tools.checkstyle.Definitions;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.BeforeExecutionFileFilterSet;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.FileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.Filter;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 import org.infernus.idea.checkstyle.checker.Problem;
 import org.infernus.idea.checkstyle.checker.ScannableFile;
 import org.infernus.idea.checkstyle.checks.CheckFactory;
 import org.infernus.idea.checkstyle.csapi.CheckstyleInternalObject;
+import org.infernus.idea.checkstyle.csapi.FileResultsListener;
 import org.infernus.idea.checkstyle.exception.CheckstyleVersionMixException;
 import org.infernus.idea.checkstyle.service.CheckStyleAuditListener;
 import org.infernus.idea.checkstyle.service.entities.CheckerWithConfig;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
 import java.util.*;
 
 import static java.util.stream.Collectors.toList;
 
 public class OpScan implements CheckstyleCommand<Map<PsiFile, List<Problem>>> {
 
+    /**
+     * File set checks which take the file's content only from the text they are given, and so may be given the
+     * text of an unsaved document. Any other check, such as those reading properties files, may read the file from
+     * disk, and so the files are processed by the checker as usual.
+     */
+    private static final Set<String> IN_MEMORY_CHECKS = Set.of(
+            "com.puppycrawl.tools.checkstyle.TreeWalker",
+            "com.puppycrawl.tools.checkstyle.checks.header.HeaderCheck",
+            "com.puppycrawl.tools.checkstyle.checks.header.RegexpHeaderCheck",
+            "com.puppycrawl.tools.checkstyle.checks.javadoc.JavadocPackageCheck",
+            "com.puppycrawl.tools.checkstyle.checks.regexp.RegexpMultilineCheck",
+            "com.puppycrawl.tools.checkstyle.checks.regexp.RegexpOnFilenameCheck",
+            "com.puppycrawl.tools.checkstyle.checks.regexp.RegexpSinglelineCheck",
+            "com.puppycrawl.tools.checkstyle.checks.sizes.FileLengthCheck",
+            "com.puppycrawl.tools.checkstyle.checks.sizes.LineLengthCheck",
+            "com.puppycrawl.tools.checkstyle.checks.whitespace.FileTabCharacterCheck");
+
+    /**
+     * Filters of the checker's events which do not read the file named by the event, and so may filter the events
+     * of text taken from memory. Others, such as SuppressWithPlainTextCommentFilter, read the file from disk.
+     */
+    private static final Set<String> IN_MEMORY_FILTERS = Set.of(
+            "com.puppycrawl.tools.checkstyle.filters.SeverityMatchFilter",
+            "com.puppycrawl.tools.checkstyle.filters.SuppressionFilter",
+            "com.puppycrawl.tools.checkstyle.filters.SuppressionSingleFilter",
+            "com.puppycrawl.tools.checkstyle.filters.SuppressWarningsFilter");
+
     private final CheckerWithConfig checkerWithConfig;
     private final List<ScannableFile> scannableFiles;
     private final boolean suppressErrors;
     private final int tabWidth;
     private final Optional<String> baseDir;
+    private final FileResultsListener fileResultsListener;
 
     public OpScan(@NotNull final CheckstyleInternalObject checkerWithConfig,
                   @NotNull final List<ScannableFile> scannableFiles,
                   final boolean suppressErrors,
                   final int tabWidth,
                   final Optional<String> baseDir) {
+        this(checkerWithConfig, scannableFiles, suppressErrors, tabWidth, baseDir, null);
+    }
+
+    public OpScan(@NotNull final CheckstyleInternalObject checkerWithConfig,
+                  @NotNull final List<ScannableFile> scannableFiles,
+                  final boolean suppressErrors,
+                  final int tabWidth,
+                  final Optional<String> baseDir,
+                  @Nullable final FileResultsListener fileResultsListener) {
         if (!(checkerWithConfig instanceof CheckerWithConfig)) {
             throw new CheckstyleVersionMixException(CheckerWithConfig.class, checkerWithConfig);
         }
@@ -39,6 +90,7 @@ public class OpScan implements CheckstyleCommand<Map<PsiFile, List<Problem>>> {
         this.suppressErrors = suppressErrors;
         this.tabWidth = tabWidth;
         this.baseDir = baseDir;
+        this.fileResultsListener = fileResultsListener;
     }
 
     @NotNull
@@ -47,8 +99,40 @@ public class OpScan implements CheckstyleCommand<Map<PsiFile, List<Problem>>> {
         if (scannableFiles.isEmpty()) {
             return Collections.emptyMap();
         }
-        return processAndAudit(filesOf(scannableFiles), createListener(mapFilesToElements(scannableFiles), project))
-                .getProblems();
+        final CheckStyleAuditListener auditListener = createListener(mapFilesToElements(scannableFiles), project);
+        if (hasUnsavedContent(scannableFiles) && canProcessFromMemory()) {
+            return processFromMemoryAndAudit(scannableFiles, auditListener).getProblems();
+        }
+        return processAndAudit(filesOf(scannableFiles), auditListener).getProblems();
+    }
+
+    private boolean hasUnsavedContent(final List<ScannableFile> filesToScan) {
+        return filesToScan.stream().anyMatch(scannableFile -> scannableFile.getContent() != null);
+    }
+
+    /**
+     * We can pass text to the checks directly if we can reach them and the checker's settings, all of them
+     * take the file's content only from the text they are given, and none of the checker's filters read the file.
+     */
+    private boolean canProcessFromMemory() {
+        final Checker checker = checkerWithConfig.getChecker();
+        return CheckstyleBridge.fileSetChecksOf(checker)
+                .filter(fileSetChecks -> fileSetChecks.stream().allMatch(OpScan::readsFileFromMemory))
+                .isPresent()
+                && CheckstyleBridge.filtersOf(checker)
+                .filter(filters -> filters.getFilters().stream().allMatch(OpScan::filtersFileFromMemory))
+                .isPresent()
+                && CheckstyleBridge.beforeExecutionFileFiltersOf(checker).isPresent()
+                && CheckstyleBridge.fileExtensionsOf(checker).isPresent()
+                && CheckstyleBridge.fileTextOf(new File(""), "", Charset.defaultCharset().name()).isPresent();
+    }
+
+    static boolean readsFileFromMemory(final FileSetCheck fileSetCheck) {
+        return IN_MEMORY_CHECKS.contains(fileSetCheck.getClass().getName());
+    }
+
+    static boolean filtersFileFromMemory(final Filter filter) {
+        return IN_MEMORY_FILTERS.contains(filter.getClass().getName());
     }
 
     private Map<String, PsiFile> mapFilesToElements(final List<ScannableFile> filesToScan) {
@@ -78,9 +162,103 @@ public class OpScan implements CheckstyleCommand<Map<PsiFile, List<Problem>>> {
         return auditListener;
     }
 
+    /**
+     * The equivalent of {@link Checker#process(List)}, save that the text of unsaved files is taken from memory
+     * rather than from a temporary copy.
+     */
+    private CheckStyleAuditListener processFromMemoryAndAudit(final List<ScannableFile> filesToScan,
+                                                              final CheckStyleAuditListener auditListener)
+            throws CheckstyleException {
+        final Checker checker = checkerWithConfig.getChecker();
+        checkerWithConfig.getCheckerLock().lock();
+        checker.addListener(auditListener);
+        try {
+            final List<FileSetCheck> fileSetChecks = CheckstyleBridge.fileSetChecksOf(checker).orElseThrow();
+            final BeforeExecutionFileFilterSet fileFilters = CheckstyleBridge.beforeExecutionFileFiltersOf(checker).orElseThrow();
+            final String[] fileExtensions = CheckstyleBridge.fileExtensionsOf(checker).orElseThrow();
+            final String basedir = CheckstyleBridge.basedirOf(checker).orElse(null);
+            final String charset = CheckstyleBridge.charsetOf(checker).orElseGet(() -> Charset.defaultCharset().name());
+
+            auditListener.auditStarted(new AuditEvent(checker));
+            fileSetChecks.forEach(fileSetCheck -> fileSetCheck.beginProcessing(charset));
+
+            for (final ScannableFile scannableFile : filesToScan) {
+                final File file = new File(scannableFile.getAbsolutePath());
+                if (!CommonUtil.matchesFileExtension(file, fileExtensions)) {
+                    continue;
+                }
+
+                final String fileName = file.getAbsolutePath();
+                try {
+                    if (!fileFilters.accept(CommonUtil.relativizeAndNormalizePath(basedir, fileName))) {
+                        continue;
+                    }
+
+                    checker.fireFileStarted(fileName);
+                    checker.fireErrors(fileName, processFile(checker, scannableFile, file, fileSetChecks, charset));
+                    checker.fireFileFinished(fileName);
+                } catch (Exception e) {
+                    throw new CheckstyleException("Exception was thrown while processing " + file.getPath(), e);
+                }
+            }
+
+            fileSetChecks.forEach(FileSetCheck::finishProcessing);
+            fileSetChecks.forEach(FileSetCheck::destroy);
+            auditListener.auditFinished(new AuditEvent(checker));
+        } finally {
+            checker.removeListener(auditListener);
+            checkerWithConfig.getCheckerLock().unlock();
+        }
+        return auditListener;
+    }
+
+    /**
+     * As Checker does, exceptions thrown while processing a file are reported as a violation in that file, unless
+     * the checker is to halt on them.
+     */
+    private SortedSet<Violation> processFile(final Checker checker,
+                                             final ScannableFile scannableFile,
+                                             final File file,
+                                             final List<FileSetCheck> fileSetChecks,
+                                             final String charset) throws Exception {
+        final SortedSet<Violation> violations = new TreeSet<>();
+        try {
+            final FileText fileText = textOf(scannableFile, file, charset);
+            for (final FileSetCheck fileSetCheck : fileSetChecks) {
+                violations.addAll(fileSetCheck.process(file, fileText));
+            }
+        } catch (IOException e) {
+            violations.add(exceptionViolation(e.getMessage()));
+        } catch (Exception e) {
+            if (CheckstyleBridge.isHaltOnException(checker)) {
+                throw e;
+            }
+            final StringWriter stackTrace = new StringWriter();
+            e.printStackTrace(new PrintWriter(stackTrace, true));
+            violations.add(exceptionViolation(stackTrace.toString()));
+        }
+        return violations;
+    }
+
+    private Violation exceptionViolation(final String message) {
+        return new Violation(1, Definitions.CHECKSTYLE_BUNDLE, Checker.EXCEPTION_MSG, new String[]{message},
+                null, Checker.class, null);
+    }
+
+    private FileText textOf(final ScannableFile scannableFile,
+                            final File file,
+                            final String charset) throws IOException {
+        final String content = scannableFile.getContent();
+        if (content != null) {
+            return CheckstyleBridge.fileTextOf(file.getAbsoluteFile(), content, charset)
+                    .orElseThrow(() -> new IOException("Unable to create text of " + file.getPath()));
+        }
+        return new FileText(file.getAbsoluteFile(), charset);
+    }
+
     private CheckStyleAuditListener createListener(final Map<String, PsiFile> filesToScan,
                                                    final Project project) {
         return new CheckStyleAuditListener(filesToScan, suppressErrors, tabWidth, baseDir,
-                CheckFactory.getChecks(project, checkerWithConfig));
+                CheckFactory.getChecks(project, checkerWithConfig), fileResultsListener);
     }
 }
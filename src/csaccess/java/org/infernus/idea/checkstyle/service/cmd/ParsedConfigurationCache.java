@@ -0,0 +1,147 @@
+package org.infernus.idea.checkstyle.service.cmd;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import org.infernus.idea.checkstyle.csapi.ConfigurationModule;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+
+/**
+ * Cache of parsed configurations, keyed on the fingerprint of the configuration together with the properties used
+ * to resolve it, so that a version of a configuration is parsed once, however many checkers, scans and plugin API
+ * callers ask for it. The fingerprint is that which keys the checkers and scan results, from
+ * {@link org.infernus.idea.checkstyle.checker.ConfigurationFingerprints}, and so covers the files the
+ * configuration includes as external entities. A configuration which has changed has a different fingerprint, and
+ * so is parsed afresh; the entries for its earlier versions are no longer requested, and age out.
+ * <p>
+ * The cache holds Checkstyle's own objects, and so there is one cache per Checkstyle class loader. The cached
+ * configurations are never handed out, as {@link OpLoadConfiguration} rewrites the configurations it returns;
+ * each caller receives a copy instead.
+ * <p>
+ * The modules of each configuration returned are also remembered, so that {@link OpPeruseConfiguration} need not
+ * walk the configuration again each time it is perused, as it is on every scan.
+ */
+final class ParsedConfigurationCache {
+
+    private static final Logger LOG = Logger.getInstance(ParsedConfigurationCache.class);
+
+    static final int MAX_ENTRIES = 32;
+
+    private static final ParsedConfigurationCache INSTANCE = new ParsedConfigurationCache();
+
+    private final Map<String, Configuration> parsedConfigurations = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Configuration> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private final Map<Configuration, List<ConfigurationModule>> modules = new WeakHashMap<>();
+
+    @FunctionalInterface
+    interface Parser {
+        Configuration parse() throws CheckstyleException;
+    }
+
+    @FunctionalInterface
+    interface ModuleReader {
+        List<ConfigurationModule> modulesOf(Configuration configuration) throws CheckstyleException;
+    }
+
+    ParsedConfigurationCache() {
+    }
+
+    static ParsedConfigurationCache instance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get a copy of the configuration with the fingerprint, parsing it if it has not been parsed before with the
+     * same properties.
+     *
+     * @param fingerprint the fingerprint of the configuration.
+     * @param properties  the properties with which the configuration is resolved.
+     * @param parser      parses the configuration, should it not be cached.
+     * @return a copy of the parsed configuration, which the caller may alter; or null if the parser found none.
+     * @throws CheckstyleException if the configuration cannot be parsed.
+     */
+    Configuration configurationFor(@NotNull final String fingerprint,
+                                   @NotNull final Map<String, String> properties,
+                                   @NotNull final Parser parser) throws CheckstyleException {
+        final String key = keyOf(fingerprint, properties);
+
+        Configuration configuration;
+        synchronized (parsedConfigurations) {
+            configuration = parsedConfigurations.get(key);
+        }
+
+        if (configuration == null) {
+            configuration = parser.parse();
+            if (!(configuration instanceof DefaultConfiguration)) {
+                // we can only copy Checkstyle's own configurations, so anything else can't be shared
+                return configuration;
+            }
+            synchronized (parsedConfigurations) {
+                parsedConfigurations.put(key, configuration);
+            }
+        } else {
+            LOG.debug("Parsed configuration found in cache");
+        }
+
+        return copyOf(configuration);
+    }
+
+    /**
+     * Get the modules of a configuration, in the order in which they are visited, reading them once per
+     * configuration.
+     */
+    @NotNull
+    List<ConfigurationModule> modulesOf(@NotNull final Configuration configuration,
+                                        @NotNull final ModuleReader moduleReader) throws CheckstyleException {
+        synchronized (modules) {
+            final List<ConfigurationModule> cachedModules = modules.get(configuration);
+            if (cachedModules != null) {
+                return cachedModules;
+            }
+        }
+
+        final List<ConfigurationModule> configurationModules = List.copyOf(moduleReader.modulesOf(configuration));
+        synchronized (modules) {
+            modules.put(configuration, configurationModules);
+        }
+        return configurationModules;
+    }
+
+    int size() {
+        synchronized (parsedConfigurations) {
+            return parsedConfigurations.size();
+        }
+    }
+
+    @NotNull
+    private static String keyOf(@NotNull final String fingerprint,
+                                @NotNull final Map<String, String> properties) {
+        final StringBuilder key = new StringBuilder(fingerprint);
+        new TreeMap<>(properties).forEach((name, value) -> key.append('\n').append(name).append('=').append(value));
+        return key.toString();
+    }
+
+    @NotNull
+    static DefaultConfiguration copyOf(@NotNull final Configuration source) {
+        final DefaultConfiguration target = new DefaultConfiguration(source.getName());
+
+        OpLoadConfiguration.copyAttributes(source, null, target);
+        OpLoadConfiguration.copyMessages(source, target);
+
+        if (source.getChildren() != null) {
+            for (final Configuration child : source.getChildren()) {
+                target.addChild(copyOf(child));
+            }
+        }
+
+        return target;
+    }
+}
@@ -0,0 +1,51 @@
+package org.infernus.idea.checkstyle.service.cmd;
+
+import com.puppycrawl.tools.checkstyle.Checker;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+
+public class CheckstyleBridgeTest {
+
+    @Test
+    public void theFileSetChecksOfACheckerCanBeRead() {
+        assertThat(CheckstyleBridge.fileSetChecksOf(new Checker()).isPresent(), is(true));
+    }
+
+    @Test
+    public void theBeforeExecutionFileFiltersOfACheckerCanBeRead() {
+        assertThat(CheckstyleBridge.beforeExecutionFileFiltersOf(new Checker()).isPresent(), is(true));
+    }
+
+    @Test
+    public void theFiltersOfACheckerCanBeRead() {
+        assertThat(CheckstyleBridge.filtersOf(new Checker()).isPresent(), is(true));
+    }
+
+    @Test
+    public void theCharsetOfACheckerCanBeRead() {
+        assertThat(CheckstyleBridge.charsetOf(new Checker()).isPresent(), is(true));
+    }
+
+    @Test
+    public void theFileExtensionsOfACheckerCanBeRead() {
+        assertThat(CheckstyleBridge.fileExtensionsOf(new Checker()).isPresent(), is(true));
+    }
+
+    @Test
+    public void fileTextBuiltFromMemoryKeepsTheLineTerminatorsAndCharset() {
+        final FileText fileText = CheckstyleBridge.fileTextOf(
+                new File("Test.java"), "line one\r\nline two\rline three", "UTF-16").orElseThrow();
+
+        assertThat(fileText.getFullText().toString(), is("line one\r\nline two\rline three"));
+        assertThat(fileText.size(), is(3));
+        assertThat(fileText.get(1), is("line two"));
+        assertThat(fileText.getCharset(), is(StandardCharsets.UTF_16));
+    }
+}
@@ -1,21 +1,51 @@
 package org.infernus.idea.checkstyle.service.cmd;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.Application;
+import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiFile;
+import com.puppycrawl.tools.checkstyle.Checker;
+import com.puppycrawl.tools.checkstyle.TreeWalker;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.checks.NewlineAtEndOfFileCheck;
+import com.puppycrawl.tools.checkstyle.checks.OrderedPropertiesCheck;
+import com.puppycrawl.tools.checkstyle.checks.UniquePropertiesCheck;
+import com.puppycrawl.tools.checkstyle.checks.sizes.FileLengthCheck;
+import com.puppycrawl.tools.checkstyle.filters.SeverityMatchFilter;
+import com.puppycrawl.tools.checkstyle.filters.SuppressWithPlainTextCommentFilter;
+import com.puppycrawl.tools.checkstyle.filters.SuppressionSingleFilter;
+import org.infernus.idea.checkstyle.checker.Problem;
+import org.infernus.idea.checkstyle.checker.ScannableFile;
 import org.infernus.idea.checkstyle.csapi.CheckstyleInternalObject;
 import org.infernus.idea.checkstyle.exception.CheckstyleVersionMixException;
+import org.infernus.idea.checkstyle.service.ConfigurationBuilder;
 import org.infernus.idea.checkstyle.service.entities.CheckerWithConfig;
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.Mockito;
 
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
 
 public class OpScanTest {
     private static final Project PROJECT = Mockito.mock(Project.class);
 
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private static final class InvalidObject
             implements CheckstyleInternalObject {
         // does not matter
@@ -33,4 +63,77 @@ public class OpScanTest {
         OpScan cmd = new OpScan(new CheckerWithConfig(null, null), Collections.emptyList(), false, 2, Optional.empty());
         Assert.assertEquals(Collections.emptyMap(), cmd.execute(PROJECT));
     }
+
+
+    @Test
+    public void checksWhichTakeTheirTextAsGivenMayBeGivenTextFromMemory() {
+        Assert.assertTrue(OpScan.readsFileFromMemory(new TreeWalker()));
+        Assert.assertTrue(OpScan.readsFileFromMemory(new FileLengthCheck()));
+    }
+
+
+    @Test
+    public void checksWhichMayReadTheFileFromDiskAreNotGivenTextFromMemory() {
+        Assert.assertFalse(OpScan.readsFileFromMemory(new NewlineAtEndOfFileCheck()));
+        Assert.assertFalse(OpScan.readsFileFromMemory(new UniquePropertiesCheck()));
+        Assert.assertFalse(OpScan.readsFileFromMemory(new OrderedPropertiesCheck()));
+    }
+
+
+    @Test
+    public void filtersWhichDoNotReadTheFileMayFilterTextFromMemory() {
+        Assert.assertTrue(OpScan.filtersFileFromMemory(new SeverityMatchFilter()));
+        Assert.assertTrue(OpScan.filtersFileFromMemory(new SuppressionSingleFilter()));
+    }
+
+
+    @Test
+    public void filtersWhichReadTheFileFromDiskMayNotFilterTextFromMemory() {
+        Assert.assertFalse(OpScan.filtersFileFromMemory(new SuppressWithPlainTextCommentFilter()));
+    }
+
+
+    @Test
+    public void plainTextCommentSuppressionsApplyToAnUnsavedDocument() throws Exception {
+        final Application application = mock(Application.class);
+        when(application.isReadAccessAllowed()).thenReturn(true);
+        ApplicationManager.setApplication(application, mock(Disposable.class));
+
+        final String content = "// CHECKSTYLE:OFF\n// FIXME\n// CHECKSTYLE:ON\n// FIXME\n";
+        final PsiFile psiFile = mock(PsiFile.class);
+        when(psiFile.isValid()).thenReturn(true);
+        when(psiFile.textToCharArray()).thenReturn(content.toCharArray());
+        final ScannableFile unsavedFile = unsavedFile(psiFile, content);
+
+        final Configuration configuration = ConfigurationBuilder.checker()
+                .withAttribute("charset", "UTF-8")
+                .withChild(ConfigurationBuilder.config("RegexpSingleline").withAttribute("format", "FIXME"))
+                .withChild(ConfigurationBuilder.config("SuppressWithPlainTextCommentFilter"))
+                .build();
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(getClass().getClassLoader());
+        checker.configure(configuration);
+
+        final Map<PsiFile, List<Problem>> problems = new OpScan(new CheckerWithConfig(checker, configuration),
+                List.of(unsavedFile), false, 4, Optional.empty()).execute(PROJECT);
+
+        Assert.assertEquals(1, problems.get(psiFile).size());
+        Assert.assertEquals(4, problems.get(psiFile).get(0).line());
+    }
+
+    /**
+     * An unsaved file, whose temporary copy is only written when the file is asked for, as it would be.
+     */
+    private ScannableFile unsavedFile(final PsiFile psiFile, final String content) {
+        final File temporaryCopy = new File(temporaryFolder.getRoot(), "Unsaved.java");
+        final ScannableFile scannableFile = mock(ScannableFile.class);
+        when(scannableFile.getPsiFile()).thenReturn(psiFile);
+        when(scannableFile.getContent()).thenReturn(content);
+        when(scannableFile.getAbsolutePath()).thenReturn(temporaryCopy.getAbsolutePath());
+        when(scannableFile.getFile()).thenAnswer(invocation -> {
+            Files.writeString(temporaryCopy.toPath(), content, StandardCharsets.UTF_8);
+            return temporaryCopy;
+        });
+        return scannableFile;
+    }
 }
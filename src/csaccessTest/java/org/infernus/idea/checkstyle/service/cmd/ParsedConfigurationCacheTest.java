@@ -0,0 +1,107 @@
+package org.infernus.idea.checkstyle.service.cmd;
+
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import org.infernus.idea.checkstyle.csapi.ConfigurationModule;
+import org.infernus.idea.checkstyle.service.ConfigurationBuilder;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.infernus.idea.checkstyle.service.ConfigurationMatcher.configEqualTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+
+public class ParsedConfigurationCacheTest {
+
+    private static final String FINGERPRINT = "aFingerprint";
+
+    private final ParsedConfigurationCache underTest = new ParsedConfigurationCache();
+    private final AtomicInteger parses = new AtomicInteger();
+
+    @Test
+    public void aConfigurationIsParsedOnceForTheSameFingerprintAndProperties() throws Exception {
+        underTest.configurationFor(FINGERPRINT, Map.of("a", "1"), this::parse);
+        underTest.configurationFor(FINGERPRINT, Map.of("a", "1"), this::parse);
+
+        assertEquals(1, parses.get());
+        assertEquals(1, underTest.size());
+    }
+
+    @Test
+    public void aConfigurationIsParsedAgainWhenTheFingerprintChanges() throws Exception {
+        underTest.configurationFor(FINGERPRINT, Map.of(), this::parse);
+        underTest.configurationFor("anotherFingerprint", Map.of(), this::parse);
+
+        assertEquals(2, parses.get());
+    }
+
+    @Test
+    public void aConfigurationIsParsedAgainWhenThePropertiesChange() throws Exception {
+        underTest.configurationFor(FINGERPRINT, Map.of("a", "1"), this::parse);
+        underTest.configurationFor(FINGERPRINT, Map.of("a", "2"), this::parse);
+
+        assertEquals(2, parses.get());
+    }
+
+    @Test
+    public void eachCallerReceivesItsOwnCopyOfTheConfiguration() throws Exception {
+        final Configuration first = underTest.configurationFor(FINGERPRINT, Map.of(), this::parse);
+        final Configuration second = underTest.configurationFor(FINGERPRINT, Map.of(), this::parse);
+
+        assertThat(first, is(not(sameInstance(second))));
+        assertThat(first, is(configEqualTo(second)));
+        assertThat(first, is(configEqualTo(configuration())));
+    }
+
+    @Test
+    public void theModulesOfAConfigurationAreReadOnce() throws Exception {
+        final Configuration configuration = underTest.configurationFor(FINGERPRINT, Map.of(), this::parse);
+        final AtomicInteger reads = new AtomicInteger();
+        final ParsedConfigurationCache.ModuleReader moduleReader = config -> {
+            reads.incrementAndGet();
+            return List.of(new ConfigurationModule(config.getName(), null, null));
+        };
+
+        final List<ConfigurationModule> first = underTest.modulesOf(configuration, moduleReader);
+        final List<ConfigurationModule> second = underTest.modulesOf(configuration, moduleReader);
+
+        assertSame(first, second);
+        assertEquals(1, reads.get());
+    }
+
+    @Test
+    public void theModulesOfAConfigurationCannotBeAlteredByTheirReader() throws Exception {
+        final Configuration configuration = underTest.configurationFor(FINGERPRINT, Map.of(), this::parse);
+        final Map<String, String> properties = new HashMap<>(Map.of("a", "1"));
+
+        final List<ConfigurationModule> modules = underTest.modulesOf(configuration,
+                config -> List.of(new ConfigurationModule(config.getName(), properties, null)));
+        properties.put("b", "2");
+
+        assertEquals(Map.of("a", "1"), modules.get(0).getProperties());
+        assertThrows(UnsupportedOperationException.class, () -> modules.get(0).getProperties().put("c", "3"));
+    }
+
+    private Configuration parse() {
+        parses.incrementAndGet();
+        return configuration();
+    }
+
+    private static Configuration configuration() {
+        return ConfigurationBuilder.checker()
+                .withAttribute("charset", "UTF-8")
+                .withChild(ConfigurationBuilder.config("TreeWalker")
+                        .withChild(ConfigurationBuilder.config("ImportControl")
+                                .withAttribute("file", "import-control.xml")
+                                .withMessage("messageKey", "messageValue")))
+                .build();
+    }
+}
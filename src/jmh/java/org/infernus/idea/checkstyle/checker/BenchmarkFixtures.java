@@ -0,0 +1,176 @@
+package org.infernus.idea.checkstyle.checker;
+
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiFile;
+import org.infernus.idea.checkstyle.CheckstyleProjectService;
+import org.infernus.idea.checkstyle.config.PluginConfiguration;
+import org.infernus.idea.checkstyle.config.PluginConfigurationBuilder;
+import org.infernus.idea.checkstyle.config.PluginConfigurationManager;
+import org.infernus.idea.checkstyle.csapi.TabWidthAndBaseDirProvider;
+import org.infernus.idea.checkstyle.model.ConfigurationLocation;
+import org.infernus.idea.checkstyle.service.StringConfigurationLocation;
+import org.infernus.idea.checkstyle.service.TestHelper;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.infernus.idea.checkstyle.service.CsVersionInfo.currentCsVersion;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+
+/**
+ * Shared set-up for the benchmarks, which run headless against the Checkstyle version given by the
+ * {@code org.infernus.idea.checkstyle.version} system property, in the same manner as the 'csaccessTest' tests.
+ */
+public final class BenchmarkFixtures {
+
+    private static final String CONFIG_FILE = "benchmark-config.xml";
+    private static final int TAB_WIDTH = 4;
+
+    private BenchmarkFixtures() {
+    }
+
+    @NotNull
+    public static Project mockProject() {
+        final Project project = TestHelper.mockProject();
+
+        final PluginConfigurationManager pluginConfigurationManager = mock(PluginConfigurationManager.class);
+        final PluginConfiguration pluginConfiguration = PluginConfigurationBuilder.testInstance(currentCsVersion()).build();
+        when(pluginConfigurationManager.getCurrent()).thenReturn(pluginConfiguration);
+        when(project.getService(PluginConfigurationManager.class)).thenReturn(pluginConfigurationManager);
+
+        final CheckstyleProjectService checkstyleProjectService = new CheckstyleProjectService(project);
+        when(project.getService(CheckstyleProjectService.class)).thenReturn(checkstyleProjectService);
+        return project;
+    }
+
+    @NotNull
+    public static Module mockModule(@NotNull final Project project) {
+        final Module module = mock(Module.class);
+        when(module.getProject()).thenReturn(project);
+        when(module.getName()).thenReturn("benchmark");
+        return module;
+    }
+
+    @NotNull
+    public static ConfigurationLocation configurationLocation(@NotNull final Project project) throws IOException {
+        try (InputStream is = Objects.requireNonNull(BenchmarkFixtures.class.getResourceAsStream(CONFIG_FILE))) {
+            return new StringConfigurationLocation(new String(is.readAllBytes(), StandardCharsets.UTF_8), project);
+        }
+    }
+
+    @NotNull
+    public static TabWidthAndBaseDirProvider tabWidthAndBaseDir(@NotNull final File baseDir) {
+        final TabWidthAndBaseDirProvider provider = mock(TabWidthAndBaseDirProvider.class);
+        when(provider.tabWidth()).thenReturn(TAB_WIDTH);
+        when(provider.baseDir()).thenReturn(Optional.of(baseDir.getAbsolutePath()));
+        return provider;
+    }
+
+    @NotNull
+    public static CheckStyleChecker createChecker(@NotNull final Project project,
+                                                  @NotNull final Module module,
+                                                  @NotNull final ConfigurationLocation location,
+                                                  @NotNull final File baseDir) {
+        return project.getService(CheckstyleProjectService.class).getCheckstyleInstance()
+                .createChecker(module, location, Collections.emptyMap(), tabWidthAndBaseDir(baseDir));
+    }
+
+    /**
+     * Write generated sources to disk, and wrap them as files to scan.
+     *
+     * @param directory     the directory to write to.
+     * @param numberOfFiles the number of files to create.
+     * @param linesPerFile  the approximate length of each file.
+     * @return the files, ready to scan.
+     * @throws IOException if the files cannot be written.
+     */
+    @NotNull
+    public static List<ScannableFile> sourceFiles(@NotNull final File directory,
+                                                  final int numberOfFiles,
+                                                  final int linesPerFile) throws IOException {
+        final List<ScannableFile> files = new ArrayList<>();
+        for (int i = 0; i < numberOfFiles; ++i) {
+            final String className = "Generated" + i;
+            final File file = new File(directory, className + ".java");
+            Files.writeString(file.toPath(), javaSource(className, linesPerFile), StandardCharsets.UTF_8);
+            files.add(new ScannableFile(stubPsiFile(), file, null, "\n", StandardCharsets.UTF_8));
+        }
+        return files;
+    }
+
+    @NotNull
+    public static PsiFile stubPsiFile() {
+        return mock(PsiFile.class, withSettings().stubOnly());
+    }
+
+    /**
+     * Generate a Java class of roughly the given length, which contains a scattering of violations of the
+     * benchmark configuration: magic numbers, missing braces and Javadoc, naming, whitespace and long lines.
+     *
+     * @param className    the name of the class.
+     * @param approxLines  the approximate number of lines to generate.
+     * @return the source of the class.
+     */
+    @NotNull
+    public static String javaSource(@NotNull final String className, final int approxLines) {
+        final StringBuilder source = new StringBuilder()
+                .append("package org.infernus.benchmark;\n\n")
+                .append("import java.util.*;\n")
+                .append("import java.io.File;\n\n")
+                .append("public class ").append(className).append(" {\n")
+                .append("    private static final int limit = 42;\n")
+                .append("    private int Count;\n\n");
+
+        int lines = 8;
+        for (int method = 0; lines < approxLines; ++method) {
+            source.append("    /**\n")
+                    .append("     * Calculates something of no great importance.\n")
+                    .append("     * @param a the first value\n")
+                    .append("     */\n")
+                    .append("    public int method").append(method).append("(int a, int b) {\n")
+                    .append("        if (a > b) return a+b;\n")
+                    .append("\tint result = a * 17;\n")
+                    .append("        for (int i = 0; i < b; i++) {\n")
+                    .append("            result += i*3 + Count;\n")
+                    .append("        }\n")
+                    .append("        String description = \"a rather long string literal that exists only to push this ")
+                    .append("line past the configured maximum length\";\n")
+                    .append("        return result + description.length() + limit;\n")
+                    .append("    }\n\n");
+            lines += 14;
+        }
+        return source.append("}\n").toString();
+    }
+
+    @NotNull
+    public static File createTempDirectory(@NotNull final String prefix) throws IOException {
+        return Files.createTempDirectory(prefix).toFile();
+    }
+
+    public static void deleteRecursively(final File directory) throws IOException {
+        if (directory == null || !directory.exists()) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory.toPath())) {
+            for (final Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
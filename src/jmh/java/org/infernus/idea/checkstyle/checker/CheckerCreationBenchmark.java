@@ -0,0 +1,76 @@
+package org.infernus.idea.checkstyle.checker;
+
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import org.infernus.idea.checkstyle.CheckstyleProjectService;
+import org.infernus.idea.checkstyle.model.ConfigurationLocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.infernus.idea.checkstyle.service.CsVersionInfo.currentCsVersion;
+
+
+/**
+ * The cost of building a checker from a configuration, which is paid on a cache miss; and, when the Checkstyle
+ * version has changed, of loading the Checkstyle classes as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class CheckerCreationBenchmark {
+
+    private Project project;
+    private Module module;
+    private ConfigurationLocation location;
+    private File baseDir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        project = BenchmarkFixtures.mockProject();
+        module = BenchmarkFixtures.mockModule(project);
+        location = BenchmarkFixtures.configurationLocation(project);
+        baseDir = BenchmarkFixtures.createTempDirectory("csi-benchmark");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkFixtures.deleteRecursively(baseDir);
+    }
+
+    @Benchmark
+    public CheckStyleChecker createAndDestroyChecker() {
+        final CheckStyleChecker checker = BenchmarkFixtures.createChecker(project, module, location, baseDir);
+        checker.destroy();
+        return checker;
+    }
+
+    /**
+     * As after a change of Checkstyle version: the Checkstyle classes must be loaded afresh by a new class loader.
+     */
+    @Benchmark
+    public CheckStyleChecker createAndDestroyCheckerWithNewClassLoader() {
+        final CheckStyleChecker checker = CheckstyleProjectService.forVersion(project, currentCsVersion(), null)
+                .getCheckstyleInstance()
+                .createChecker(module, location, Collections.emptyMap(), BenchmarkFixtures.tabWidthAndBaseDir(baseDir));
+        checker.destroy();
+        return checker;
+    }
+}
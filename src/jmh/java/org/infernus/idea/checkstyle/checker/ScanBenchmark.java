@@ -0,0 +1,80 @@
+package org.infernus.idea.checkstyle.checker;
+
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Scanning with a prepared checker, as the inspection does for a single file and the before-checkin handler and
+ * scan actions do for a batch.
+ * <p>
+ * The benchmarks run without an IDE, so results are not mapped back onto PSI elements; that is measured separately
+ * by {@code ProcessResultsBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class ScanBenchmark {
+
+    private static final int BATCH_SIZE = 50;
+
+    @Param({"200", "2000"})
+    public int linesPerFile;
+
+    private File sourceDir;
+    private CheckStyleChecker checker;
+    private List<ScannableFile> singleFile;
+    private List<ScannableFile> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final Project project = BenchmarkFixtures.mockProject();
+        final Module module = BenchmarkFixtures.mockModule(project);
+
+        sourceDir = BenchmarkFixtures.createTempDirectory("csi-benchmark");
+        batch = BenchmarkFixtures.sourceFiles(sourceDir, BATCH_SIZE, linesPerFile);
+        singleFile = batch.subList(0, 1);
+
+        checker = BenchmarkFixtures.createChecker(project, module,
+                BenchmarkFixtures.configurationLocation(project), sourceDir);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        checker.destroy();
+        BenchmarkFixtures.deleteRecursively(sourceDir);
+    }
+
+    @Benchmark
+    public Map<PsiFile, List<Problem>> scanSingleFile() {
+        return checker.scan(singleFile, false);
+    }
+
+    @Benchmark
+    public Map<PsiFile, List<Problem>> scanBatch() {
+        return checker.scan(batch, false);
+    }
+}
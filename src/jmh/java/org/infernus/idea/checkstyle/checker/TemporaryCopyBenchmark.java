@@ -0,0 +1,67 @@
+package org.infernus.idea.checkstyle.checker;
+
+import com.intellij.psi.PsiFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Writing and removing the temporary copy of a file with unsaved changes, as is needed when its content cannot
+ * be passed to Checkstyle directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TemporaryCopyBenchmark {
+
+    @Param({"200", "2000"})
+    public int lines;
+
+    private File tempDir;
+    private File tempFile;
+    private PsiFile psiFile;
+    private String content;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final File baseDir = BenchmarkFixtures.createTempDirectory("benchmark");
+        // the prefix marks the directory as one the scannable file may delete
+        tempDir = new File(baseDir, "csi-benchmark");
+        tempFile = new File(tempDir, "Generated.java");
+        psiFile = BenchmarkFixtures.stubPsiFile();
+        content = BenchmarkFixtures.javaSource("Generated", lines);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkFixtures.deleteRecursively(tempDir.getParentFile());
+    }
+
+    @Benchmark
+    public File writeAndDeleteTemporaryCopy() {
+        final ScannableFile scannableFile = new ScannableFile(psiFile, tempFile, content, "\r\n",
+                StandardCharsets.UTF_8);
+        final File written = scannableFile.getFile();
+        ScannableFile.deleteIfRequired(scannableFile);
+        return written;
+    }
+}
@@ -0,0 +1,82 @@
+package org.infernus.idea.checkstyle.csapi;
+
+import com.intellij.psi.PsiFile;
+import org.infernus.idea.checkstyle.checker.BenchmarkFixtures;
+import org.infernus.idea.checkstyle.checker.Problem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+
+/**
+ * Mapping the line and column of each issue reported by Checkstyle to an offset in the file.
+ * <p>
+ * The PSI file is a stub; as with the real thing, it returns a fresh copy of its text on each request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ProcessResultsBenchmark {
+
+    private static final String FILE_NAME = "Generated.java";
+    private static final int TAB_WIDTH = 4;
+
+    @Param({"200", "2000"})
+    public int lines;
+
+    @Param({"4", "40"})
+    public int linesPerIssue;
+
+    private List<Issue> issues;
+    private Map<String, PsiFile> fileNamesToPsiFiles;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final String text = BenchmarkFixtures.javaSource("Generated", lines);
+        final char[] characters = text.toCharArray();
+
+        final PsiFile psiFile = mock(PsiFile.class, withSettings().stubOnly());
+        when(psiFile.isValid()).thenReturn(true);
+        when(psiFile.textToCharArray()).thenAnswer(invocation -> characters.clone());
+        fileNamesToPsiFiles = Map.of(FILE_NAME, psiFile);
+
+        issues = new ArrayList<>();
+        final String[] textLines = text.split("\n", -1);
+        for (int line = 1; line <= textLines.length; line += linesPerIssue) {
+            final int column = Math.max(1, textLines[line - 1].length() / 2);
+            issues.add(new Issue(FILE_NAME, line, column, "A benchmark issue", SeverityLevel.Warning,
+                    "com.puppycrawl.tools.checkstyle.checks.BenchmarkCheck"));
+        }
+    }
+
+    @Benchmark
+    public Map<PsiFile, List<Problem>> mapIssuesToOffsets() {
+        final ProcessResultsThread processResults = new ProcessResultsThread(false, Collections.emptyList(),
+                TAB_WIDTH, Optional.empty(), issues, fileNamesToPsiFiles);
+        processResults.run();
+        return processResults.getProblems();
+    }
+}
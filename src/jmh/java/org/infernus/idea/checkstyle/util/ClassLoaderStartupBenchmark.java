@@ -0,0 +1,74 @@
+package org.infernus.idea.checkstyle.util;
+
+import com.intellij.openapi.project.Project;
+import org.infernus.idea.checkstyle.CheckstyleProjectService;
+import org.infernus.idea.checkstyle.checker.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.infernus.idea.checkstyle.service.CsVersionInfo.currentCsVersion;
+
+
+/**
+ * The cost of starting a Checkstyle runtime: creating its class loader and loading the first Checkstyle class,
+ * with the jars indexed as they are loaded or by the build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class ClassLoaderStartupBenchmark {
+
+    private static final String CHECKER_CLASS = "com.puppycrawl.tools.checkstyle.Checker";
+
+    @Param({"false", "true"})
+    public boolean prebuiltIndex;
+
+    private URL[] classpath;
+    private ClassLoader parent;
+    private Map<String, Set<String>> index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Project project = BenchmarkFixtures.mockProject();
+        final ClassLoader runtimeClassLoader = CheckstyleProjectService.forVersion(project, currentCsVersion(), null)
+                .underlyingClassLoader();
+        classpath = ((URLClassLoader) runtimeClassLoader).getURLs();
+        parent = runtimeClassLoader.getParent();
+
+        index = new HashMap<>();
+        if (prebuiltIndex) {
+            for (final URL url : classpath) {
+                ChildFirstURLClassLoader.indexClasspath(new URL[]{url})
+                        .ifPresent(directories -> index.put(url.toExternalForm(), directories));
+            }
+        }
+    }
+
+    @Benchmark
+    public Class<?> createClassLoaderAndLoadChecker() throws IOException, ClassNotFoundException {
+        try (ChildFirstURLClassLoader classLoader = new ChildFirstURLClassLoader(classpath, parent, index)) {
+            return classLoader.loadClass(CHECKER_CLASS);
+        }
+    }
+}
@@ -49,6 +49,7 @@ public class CheckStyleConfigurable implements Configurable {
         final PluginConfiguration newConfig = PluginConfigurationBuilder
                 .from(configPanel.getPluginConfiguration())
                 .withScanBeforeCheckin(oldConfig.isScanBeforeCheckin())
+                .withScanChangedLinesOnly(oldConfig.isScanChangedLinesOnly())
                 .build();
 
         boolean result = !oldConfig.hasChangedFrom(newConfig);
@@ -62,6 +63,7 @@ public class CheckStyleConfigurable implements Configurable {
         final PluginConfiguration newConfig = PluginConfigurationBuilder
                 .from(configPanel.getPluginConfiguration())
                 .withScanBeforeCheckin(pluginConfigurationManager.getCurrent().isScanBeforeCheckin())
+                .withScanChangedLinesOnly(pluginConfigurationManager.getCurrent().isScanChangedLinesOnly())
                 .build();
         pluginConfigurationManager.setCurrent(newConfig, true);
 
@@ -35,7 +35,6 @@ import static java.util.Optional.ofNullable;
 import static java.util.function.Predicate.not;
 import static java.util.stream.Collectors.toList;
 import static org.infernus.idea.checkstyle.CheckStyleBundle.message;
-import static org.infernus.idea.checkstyle.util.Async.asyncResultOf;
 import static org.infernus.idea.checkstyle.util.Notifications.showException;
 import static org.infernus.idea.checkstyle.util.Notifications.showWarning;
 
@@ -68,25 +67,12 @@ public class CheckStyleInspection extends LocalInspectionTool {
         }
 
         final Module module = moduleOf(psiFile);
-        List<ScannableFile> scannableFiles = ScannableFile.createAndValidate(
-                singletonList(psiFile),
-                manager.getProject(),
-                module,
-                null);
-        if (scannableFiles.isEmpty()) {
-            LOG.debug("Inspection has been cancelled as file is not scannable: " + psiFile.getName());
-            return noProblemsFound(manager);
-        }
 
         try {
             return asProblemDescriptors(
-                    asyncResultOf(() -> {
-                        try {
-                            return inspectFile(psiFile, scannableFiles, module, manager);
-                        } finally {
-                            scannableFiles.forEach(ScannableFile::deleteIfRequired);
-                        }
-                    }, NO_PROBLEMS_FOUND, FIVE_SECONDS),
+                    inspectionScheduler(manager.getProject()).inspect(psiFile,
+                            () -> scanIfScannable(psiFile, module, manager),
+                            FIVE_SECONDS),
                     manager, isOnTheFly);
 
         } catch (ProcessCanceledException | AssertionError e) {
@@ -114,6 +100,21 @@ public class CheckStyleInspection extends LocalInspectionTool {
         return ModuleUtil.findModuleForPsiElement(psiFile);
     }
 
+    private List<Problem> scanIfScannable(@NotNull final PsiFile psiFile,
+                                          @Nullable final Module module,
+                                          @NotNull final InspectionManager manager) {
+        final List<ScannableFile> scannableFiles = ScannableFile.createAndValidate(
+                singletonList(psiFile),
+                manager.getProject(),
+                module,
+                null);
+        if (scannableFiles.isEmpty()) {
+            LOG.debug("Inspection has been cancelled as file is not scannable: " + psiFile.getName());
+            return NO_PROBLEMS_FOUND;
+        }
+        return inspectFile(psiFile, scannableFiles, module, manager);
+    }
+
     private List<Problem> inspectFile(@NotNull final PsiFile psiFile,
                                       @NotNull final List<ScannableFile> scannableFiles,
                                       @Nullable final Module module,
@@ -130,8 +131,8 @@ public class CheckStyleInspection extends LocalInspectionTool {
             return configurationLocations.stream()
                     .filter(not(ConfigurationLocation::isBlocked))
                     .map(configurationLocation -> checkerFactory(psiFile.getProject())
-                            .checker(module, configurationLocation)
-                            .map(checker -> checker.scan(scannableFiles, configurationManager(psiFile.getProject()).getCurrent().isSuppressErrors()))
+                            .scan(module, configurationLocation, scannableFiles,
+                                    configurationManager(psiFile.getProject()).getCurrent().isSuppressErrors())
                             .map(results -> results.get(psiFile))
                             .map(this::dropIgnoredProblems)
                             .orElse(NO_PROBLEMS_FOUND)
@@ -140,7 +141,12 @@ public class CheckStyleInspection extends LocalInspectionTool {
                     .distinct()
                     .collect(toList());
 
-        } catch (ProcessCanceledException | AssertionError e) {
+        } catch (ProcessCanceledException e) {
+            // rethrown, so that the scheduler does not take a cancelled scan for one which found no problems
+            LOG.debug("Process cancelled when scanning: " + psiFile.getName());
+            throw e;
+
+        } catch (AssertionError e) {
             LOG.debug("Process cancelled when scanning: " + psiFile.getName());
             return NO_PROBLEMS_FOUND;
 
@@ -149,6 +155,10 @@ public class CheckStyleInspection extends LocalInspectionTool {
             return NO_PROBLEMS_FOUND;
 
         } catch (Throwable e) {
+            if (e.getCause() instanceof ProcessCanceledException) {
+                LOG.debug("Process cancelled when scanning: " + psiFile.getName());
+                throw (ProcessCanceledException) e.getCause();
+            }
             // it would be nice to only block the locations which caused the exception to occur
             handlePluginException(e, psiFile, configurationLocations, manager.getProject());
             return NO_PROBLEMS_FOUND;
@@ -168,10 +178,7 @@ public class CheckStyleInspection extends LocalInspectionTool {
                                        final @NotNull PsiFile psiFile,
                                        final List<ConfigurationLocation> configurationLocations,
                                        final @NotNull Project project) {
-        if (e.getCause() != null && e.getCause() instanceof ProcessCanceledException) {
-            LOG.debug("Process cancelled when scanning: " + psiFile.getName());
-
-        } else if (e.getCause() != null && e.getCause() instanceof FileNotFoundException) {
+        if (e.getCause() != null && e.getCause() instanceof FileNotFoundException) {
             disableActiveConfiguration(project);
 
         } else if (e.getCause() != null && e.getCause() instanceof IOException) {
@@ -206,6 +213,10 @@ public class CheckStyleInspection extends LocalInspectionTool {
                 .orElse(ProblemDescriptor.EMPTY_ARRAY);
     }
 
+    private InspectionScheduler inspectionScheduler(final Project project) {
+        return project.getService(InspectionScheduler.class);
+    }
+
     private CheckerFactory checkerFactory(final Project project) {
         return project.getService(CheckerFactory.class);
     }
@@ -0,0 +1,142 @@
+package org.infernus.idea.checkstyle;
+
+import com.intellij.openapi.diagnostic.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+
+/**
+ * Shares the class loaders of Checkstyle versions between projects, so that all projects using the same version
+ * and third-party classpath load the Checkstyle classes once between them. Registered in {@code plugin.xml}.
+ * <p>
+ * Each user of a class loader holds a {@link Lease} on it, and the loader is dropped from the cache when the last
+ * lease is released. Loaders are not closed on release, as classes loaded through them may still be in use; they
+ * are left to the garbage collector, as they were before they were shared.
+ */
+public class CheckstyleClassLoaderCache {
+
+    private static final Logger LOG = Logger.getInstance(CheckstyleClassLoaderCache.class);
+
+    private final Map<Key, Entry> entries = new HashMap<>();
+
+    /**
+     * Lease the class loader for a Checkstyle version, creating it if no other project holds it.
+     *
+     * @param checkstyleVersion   the Checkstyle version.
+     * @param thirdPartyClassPath the third-party classpath.
+     * @param classLoaderFactory  creates the class loader, should it not be cached.
+     * @return the lease, which must be released when the class loader is no longer needed.
+     */
+    @NotNull
+    Lease acquire(@NotNull final String checkstyleVersion,
+                  @NotNull final List<URL> thirdPartyClassPath,
+                  @NotNull final Supplier<ClassLoader> classLoaderFactory) {
+        final Key key = new Key(checkstyleVersion, fingerprintOf(thirdPartyClassPath));
+        final Entry entry;
+        synchronized (entries) {
+            entry = entries.computeIfAbsent(key, newKey -> new Entry());
+            ++entry.references;
+        }
+
+        try {
+            return new Lease(this, key, entry, entry.classLoader(classLoaderFactory));
+        } catch (RuntimeException e) {
+            release(key, entry);
+            throw e;
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void release(final Key key, final Entry entry) {
+        synchronized (entries) {
+            if (--entry.references == 0 && entries.get(key) == entry) {
+                LOG.debug("Releasing class loader for ", key);
+                entries.remove(key);
+            }
+        }
+    }
+
+    /**
+     * A fingerprint of the classpath, which changes should any of its files be altered.
+     */
+    @NotNull
+    static String fingerprintOf(@NotNull final List<URL> classPath) {
+        final StringBuilder fingerprint = new StringBuilder();
+        for (final URL url : classPath) {
+            fingerprint.append(url).append('|');
+            try {
+                if ("file".equals(url.getProtocol())) {
+                    final File file = new File(url.toURI());
+                    fingerprint.append(file.length()).append('|').append(file.lastModified());
+                }
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                LOG.debug("Unable to fingerprint classpath entry " + url, e);
+            }
+            fingerprint.append(';');
+        }
+        return fingerprint.toString();
+    }
+
+    private record Key(String checkstyleVersion, String classPathFingerprint) {
+    }
+
+    private static final class Entry {
+        private int references;
+        private ClassLoader classLoader;
+
+        synchronized ClassLoader classLoader(final Supplier<ClassLoader> classLoaderFactory) {
+            if (classLoader == null) {
+                classLoader = classLoaderFactory.get();
+            }
+            return classLoader;
+        }
+    }
+
+    /**
+     * A hold on a class loader, which keeps it in the cache until released.
+     */
+    static final class Lease {
+        private final CheckstyleClassLoaderCache cache;
+        private final Key key;
+        private final Entry entry;
+        private final ClassLoader classLoader;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Lease(final CheckstyleClassLoaderCache cache,
+                      final Key key,
+                      final Entry entry,
+                      final ClassLoader classLoader) {
+            this.cache = cache;
+            this.key = key;
+            this.entry = entry;
+            this.classLoader = classLoader;
+        }
+
+        @NotNull
+        ClassLoader classLoader() {
+            return classLoader;
+        }
+
+        /**
+         * Release the lease. Only the first release has any effect.
+         */
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                cache.release(key, entry);
+            }
+        }
+    }
+}
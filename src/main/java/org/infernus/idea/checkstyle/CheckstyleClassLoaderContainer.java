@@ -1,6 +1,9 @@
 package org.infernus.idea.checkstyle;
 
+import com.intellij.openapi.application.Application;
+import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.project.Project;
 import com.intellij.util.lang.UrlClassLoader;
 import org.infernus.idea.checkstyle.csapi.CheckstyleActions;
@@ -13,6 +16,7 @@ import org.jetbrains.annotations.Nullable;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.ref.Cleaner;
 import java.lang.reflect.Constructor;
 import java.net.*;
 import java.nio.charset.StandardCharsets;
@@ -28,7 +32,11 @@ import static org.infernus.idea.checkstyle.util.Strings.isBlank;
  * Loads Checkstyle classes from a given Checkstyle version.
  */
 public class CheckstyleClassLoaderContainer {
+    private static final Logger LOG = Logger.getInstance(CheckstyleClassLoaderContainer.class);
+
     private static final String PROP_FILE = "checkstyle-classpaths.properties";
+    private static final String JAR_INDEX_FILE = "checkstyle-jar-index.properties";
+    private static final String CSLIB_FOLDER = "checkstyle/lib/";
     private static final String CSACTIONS_CLASS = "org.infernus.idea.checkstyle.service.CheckstyleActionsImpl";
 
     /**
@@ -53,7 +61,12 @@ public class CheckstyleClassLoaderContainer {
     private static final Pattern CLASSES_URL_GRADLE = Pattern.compile(
             "^(.*?)[/\\\\]classes[/\\\\]java[/\\\\]main[/\\\\]?$");
 
+    /** Releases the leases of containers which were never released explicitly. */
+    private static final Cleaner CLEANER = Cleaner.create();
+
     private final ClassLoader classLoader;
+    @Nullable
+    private final Cleaner.Cleanable classLoaderRelease;
 
     private final Project project;
     private final CheckstyleProjectService checkstyleProjectService;
@@ -70,7 +83,42 @@ public class CheckstyleClassLoaderContainer {
         if (isBlank(cpProp)) {
             throw new CheckStylePluginException("Unsupported Checkstyle version: " + checkstyleVersion);
         }
-        classLoader = buildClassLoader(cpProp, emptyListIfNull(thirdPartyClassPath));
+
+        final List<URL> thirdPartyUrls = emptyListIfNull(thirdPartyClassPath);
+        final CheckstyleClassLoaderCache classLoaderCache = classLoaderCache();
+        if (classLoaderCache != null) {
+            final CheckstyleClassLoaderCache.Lease lease = classLoaderCache.acquire(checkstyleVersion, thirdPartyUrls,
+                    () -> buildClassLoader(cpProp, thirdPartyUrls));
+            classLoader = lease.classLoader();
+            classLoaderRelease = CLEANER.register(this, lease::release);
+            if (classLoader instanceof ChildFirstURLClassLoader childFirstClassLoader) {
+                // the loader may be shared, and so outlive the container it was built for
+                childFirstClassLoader.forgetMissingClasses();
+            }
+        } else {
+            classLoader = buildClassLoader(cpProp, thirdPartyUrls);
+            classLoaderRelease = null;
+        }
+    }
+
+    @Nullable
+    private static CheckstyleClassLoaderCache classLoaderCache() {
+        final Application application = ApplicationManager.getApplication();
+        if (application == null) {
+            return null;
+        }
+        return application.getService(CheckstyleClassLoaderCache.class);
+    }
+
+    /**
+     * Release this container's hold on its class loader, which is shared with any other project using the same
+     * Checkstyle version and third-party classpath. Should this not be called, the hold is released when the
+     * container is garbage collected.
+     */
+    void release() {
+        if (classLoaderRelease != null) {
+            classLoaderRelease.clean();
+        }
     }
 
     @NotNull
@@ -101,10 +149,12 @@ public class CheckstyleClassLoaderContainer {
             urls = baseClasspathUrlsForIDEAUnitTests(classPathFromProps);
         }
 
+        final Map<String, Set<String>> prebuiltIndex = prebuiltIndexOf(urls);
         urls.addAll(thirdPartyClasspath);
 
         // The plugin classloader is the new classloader's parent classloader.
-        final ChildFirstURLClassLoader newClassLoader = new ChildFirstURLClassLoader(urls.toArray(new URL[0]), getClass().getClassLoader());
+        final ChildFirstURLClassLoader newClassLoader = new ChildFirstURLClassLoader(
+                urls.toArray(new URL[0]), getClass().getClassLoader(), prebuiltIndex);
         if (weAreDebuggingADifferentVersionOfIdea(newClassLoader)) {
             // if we're debugging from another version of IDEA then child-first will do nasty things to the IDEA classpath
             Notifications.showWarning(project, message("plugin.debugging"));
@@ -114,6 +164,69 @@ public class CheckstyleClassLoaderContainer {
         return newClassLoader;
     }
 
+    /**
+     * Find the directories of the bundled Checkstyle jars, as indexed when the plugin was built, so that the class
+     * loader need not open them to index them itself. A jar whose size differs from that indexed is not the jar
+     * indexed, and so is left to be indexed when loaded.
+     *
+     * @param bundledUrls the URLs of the classes and jars bundled with the plugin.
+     * @return the directories of each jar in the build-time index, keyed by the external form of its URL.
+     */
+    @NotNull
+    private static Map<String, Set<String>> prebuiltIndexOf(@NotNull final List<URL> bundledUrls) {
+        final Properties jarIndex = loadJarIndex();
+        final Map<String, Set<String>> prebuiltIndex = new HashMap<>();
+        for (final URL url : bundledUrls) {
+            final String path = url.getPath();
+            final String jarEntry = jarIndex.getProperty(CSLIB_FOLDER + path.substring(path.lastIndexOf('/') + 1));
+            if (jarEntry == null) {
+                continue;
+            }
+
+            final int endOfSize = jarEntry.indexOf(':');
+            if (endOfSize > 0 && jarEntry.substring(0, endOfSize).equals(Long.toString(sizeOf(url)))) {
+                prebuiltIndex.put(url.toExternalForm(), directoriesOf(jarEntry.substring(endOfSize + 1)));
+            } else {
+                LOG.debug("Bundled jar does not match the jar index, and will be indexed when loaded: ", url);
+            }
+        }
+        return prebuiltIndex;
+    }
+
+    private static long sizeOf(@NotNull final URL url) {
+        try {
+            return new File(url.toURI()).length();
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    @NotNull
+    private static Set<String> directoriesOf(@NotNull final String jarDirectories) {
+        final Set<String> directories = new HashSet<>();
+        for (final String directory : jarDirectories.split(";")) {
+            // each directory is followed by a slash, so that the root directory is not empty
+            if (directory.endsWith("/")) {
+                directories.add(directory.substring(0, directory.length() - 1));
+            }
+        }
+        return directories;
+    }
+
+    @NotNull
+    private static Properties loadJarIndex() {
+        final Properties result = new Properties();
+        try (InputStream is = CheckstyleClassLoaderContainer.class.getClassLoader().getResourceAsStream(JAR_INDEX_FILE)) {
+            if (is != null) {
+                result.load(is);
+            }
+        } catch (IOException e) {
+            // the index only saves time, so the jars will be indexed when loaded instead
+            LOG.warn("Could not read plugin-internal file: " + JAR_INDEX_FILE, e);
+        }
+        return result;
+    }
+
     private static List<URL> baseClasspathUrlsForPackagedPlugin(@NotNull final String classPathFromProps,
                                                                 @NotNull final String basePath) {
         try {
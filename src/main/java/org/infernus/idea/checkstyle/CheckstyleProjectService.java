@@ -1,5 +1,6 @@
 package org.infernus.idea.checkstyle;
 
+import com.intellij.openapi.Disposable;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.project.Project;
 import org.infernus.idea.checkstyle.config.PluginConfigurationManager;
@@ -19,16 +20,17 @@ import java.util.concurrent.Callable;
 
 /**
  * Makes the Checkstyle tool available to the plugin in the correct version. Registered in {@code plugin.xml}.
- * This must be a project-level service because the Checkstyle version is chosen per project.
+ * This must be a project-level service because the Checkstyle version is chosen per project; the class loaders
+ * themselves are shared between projects by the {@link CheckstyleClassLoaderCache}.
  */
-public class CheckstyleProjectService {
+public class CheckstyleProjectService implements Disposable {
 
     private static final Logger LOG = Logger.getInstance(CheckstyleProjectService.class);
 
     private final Project project;
 
-    private Callable<CheckstyleClassLoaderContainer> checkstyleClassLoaderFactory = null;
-    private CheckstyleClassLoaderContainer checkstyleClassLoaderContainer = null;
+    /** The runtime of the active Checkstyle version, replaced as a whole when another version is activated. */
+    private volatile CheckstyleRuntime checkstyleRuntime = null;
 
     private final SortedSet<String> supportedVersions;
 
@@ -79,33 +81,34 @@ public class CheckstyleProjectService {
     public void activateCheckstyleVersion(@Nullable final String requestedVersion,
                                           @Nullable final List<String> thirdPartyJars) {
         String checkstyleVersionToLoad = versionToLoad(requestedVersion);
-        synchronized (project) {
-            checkstyleClassLoaderContainer = null;
-            checkstyleClassLoaderFactory = new Callable<>() {
-                @Override
-                public CheckstyleClassLoaderContainer call() {
-                    return new CheckstyleClassLoaderContainer(
-                            project,
-                            CheckstyleProjectService.this,
-                            checkstyleVersionToLoad,
-                            toListOfUrls(thirdPartyJars));
-                }
+        final CheckstyleRuntime previousRuntime = checkstyleRuntime;
+        checkstyleRuntime = new CheckstyleRuntime(new Callable<>() {
+            @Override
+            public CheckstyleClassLoaderContainer call() {
+                return new CheckstyleClassLoaderContainer(
+                        project,
+                        CheckstyleProjectService.this,
+                        checkstyleVersionToLoad,
+                        toListOfUrls(thirdPartyJars));
+            }
 
-                @NotNull
-                private List<URL> toListOfUrls(@Nullable final List<String> jarFilePaths) {
-                    List<URL> result = new ArrayList<>();
-                    if (jarFilePaths != null) {
-                        for (final String absolutePath : jarFilePaths) {
-                            try {
-                                result.add(new File(absolutePath).toURI().toURL());
-                            } catch (MalformedURLException e) {
-                                LOG.warn("Skipping malformed third party classpath entry: " + absolutePath, e);
-                            }
+            @NotNull
+            private List<URL> toListOfUrls(@Nullable final List<String> jarFilePaths) {
+                List<URL> result = new ArrayList<>();
+                if (jarFilePaths != null) {
+                    for (final String absolutePath : jarFilePaths) {
+                        try {
+                            result.add(new File(absolutePath).toURI().toURL());
+                        } catch (MalformedURLException e) {
+                            LOG.warn("Skipping malformed third party classpath entry: " + absolutePath, e);
                         }
                     }
-                    return result;
                 }
-            };
+                return result;
+            }
+        });
+        if (previousRuntime != null) {
+            previousRuntime.release();
         }
     }
 
@@ -119,9 +122,7 @@ public class CheckstyleProjectService {
 
     public CheckstyleActions getCheckstyleInstance() {
         try {
-            synchronized (project) {
-                return checkstyleClassLoaderContainer().loadCheckstyleImpl();
-            }
+            return checkstyleRuntime.checkstyleActions();
         } catch (CheckStylePluginException e) {
             throw e;
         } catch (Exception e) {
@@ -132,9 +133,7 @@ public class CheckstyleProjectService {
     @NotNull
     public ClassLoader underlyingClassLoader() {
         try {
-            synchronized (project) {
-                return checkstyleClassLoaderContainer().getClassLoader();
-            }
+            return checkstyleRuntime.classLoaderContainer().getClassLoader();
         } catch (CheckStylePluginException e) {
             throw e;
         } catch (Exception e) {
@@ -142,15 +141,68 @@ public class CheckstyleProjectService {
         }
     }
 
-    private CheckstyleClassLoaderContainer checkstyleClassLoaderContainer() throws Exception {
-        if (checkstyleClassLoaderContainer == null) {
-            checkstyleClassLoaderContainer = checkstyleClassLoaderFactory.call();
-        }
-        // Don't worry about caching, class loaders do lots of caching.
-        return this.checkstyleClassLoaderContainer;
+    @Override
+    public void dispose() {
+        checkstyleRuntime.release();
     }
 
     private static PluginConfigurationManager pluginConfigurationManager(final Project project) {
         return project.getService(PluginConfigurationManager.class);
     }
+
+    /**
+     * The class loader of a Checkstyle version, and the actions loaded through it, each created when first needed.
+     * The actions hold no state of their own, so one instance serves all callers.
+     */
+    private static final class CheckstyleRuntime {
+        private final Callable<CheckstyleClassLoaderContainer> classLoaderFactory;
+
+        private volatile CheckstyleClassLoaderContainer classLoaderContainer;
+        private volatile CheckstyleActions checkstyleActions;
+
+        CheckstyleRuntime(@NotNull final Callable<CheckstyleClassLoaderContainer> classLoaderFactory) {
+            this.classLoaderFactory = classLoaderFactory;
+        }
+
+        @NotNull
+        CheckstyleClassLoaderContainer classLoaderContainer() throws Exception {
+            CheckstyleClassLoaderContainer container = classLoaderContainer;
+            if (container == null) {
+                synchronized (this) {
+                    container = classLoaderContainer;
+                    if (container == null) {
+                        container = classLoaderFactory.call();
+                        classLoaderContainer = container;
+                    }
+                }
+            }
+            return container;
+        }
+
+        @NotNull
+        CheckstyleActions checkstyleActions() throws Exception {
+            CheckstyleActions actions = checkstyleActions;
+            if (actions == null) {
+                synchronized (this) {
+                    actions = checkstyleActions;
+                    if (actions == null) {
+                        actions = classLoaderContainer().loadCheckstyleImpl();
+                        checkstyleActions = actions;
+                    }
+                }
+            }
+            return actions;
+        }
+
+        /**
+         * Release the class loader, should one have been created, for use by others. Checkers already created
+         * with it will continue to work.
+         */
+        void release() {
+            final CheckstyleClassLoaderContainer container = classLoaderContainer;
+            if (container != null) {
+                container.release();
+            }
+        }
+    }
 }
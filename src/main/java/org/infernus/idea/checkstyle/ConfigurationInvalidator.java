@@ -2,6 +2,9 @@ package org.infernus.idea.checkstyle;
 
 import com.intellij.openapi.project.Project;
 import org.infernus.idea.checkstyle.checker.CheckerFactoryCache;
+import org.infernus.idea.checkstyle.checker.CheckerWarmer;
+import org.infernus.idea.checkstyle.checker.ConfigurationFingerprints;
+import org.infernus.idea.checkstyle.checker.ScanResultCache;
 import org.infernus.idea.checkstyle.config.PluginConfiguration;
 import org.infernus.idea.checkstyle.config.PluginConfigurationManager;
 import org.infernus.idea.checkstyle.model.ConfigurationLocation;
@@ -14,16 +17,21 @@ public class ConfigurationInvalidator {
     private final CheckstyleProjectService checkstyleProjectService;
     private final PluginConfigurationManager pluginConfigurationManager;
     private final CheckerFactoryCache checkerFactoryCache;
+    private final InspectionScheduler inspectionScheduler;
 
     ConfigurationInvalidator(@NotNull final Project project) {
         this.project = project;
         this.checkstyleProjectService = project.getService(CheckstyleProjectService.class);
         this.checkerFactoryCache = project.getService(CheckerFactoryCache.class);
+        this.inspectionScheduler = project.getService(InspectionScheduler.class);
         this.pluginConfigurationManager = project.getService(PluginConfigurationManager.class);
     }
 
     public void invalidateCachedResources() {
+        ConfigurationFingerprints.of(project).invalidate();
         checkerFactoryCache.invalidate();
+        project.getService(ScanResultCache.class).invalidate();
+        inspectionScheduler.invalidate();
 
         PluginConfiguration config = pluginConfigurationManager.getCurrent();
         config.getLocations().forEach(ConfigurationLocation::reset);
@@ -32,6 +40,8 @@ public class ConfigurationInvalidator {
         if (!config.isCopyLibs()) {
             new TempDirProvider().deleteCopiedLibrariesDir(project);
         }
+
+        project.getService(CheckerWarmer.class).requestWarmUp();
     }
 
 }
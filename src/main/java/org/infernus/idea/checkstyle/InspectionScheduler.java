@@ -0,0 +1,242 @@
+package org.infernus.idea.checkstyle;
+
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.infernus.idea.checkstyle.checker.Problem;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Schedules on-the-fly inspection scans, coalescing requests for the same file.
+ * <p>
+ * A request for a revision of a file which is already being scanned waits on the existing scan, and a request
+ * for a newer revision supersedes any pending scan: a scan yet to start is dropped before it reaches Checkstyle,
+ * and a running scan is cancelled. The scan of a newer revision only waits briefly before starting when it
+ * supersedes another, so that a burst of edits is scanned once. The result of the last completed scan of each
+ * file is kept, and is returned for further requests for the same revision.
+ */
+public class InspectionScheduler {
+
+    private static final Logger LOG = Logger.getInstance(InspectionScheduler.class);
+
+    private static final long DEBOUNCE_DELAY = 100L;
+    private static final long WAIT_INTERVAL = 50L;
+    private static final int MAX_TRACKED_FILES = 64;
+
+    private final Project project;
+    private final Executor executor;
+    private final AtomicLong coalescedScans = new AtomicLong();
+
+    private final Map<VirtualFile, FileScans> fileScans = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<VirtualFile, FileScans> eldest) {
+            return size() > MAX_TRACKED_FILES;
+        }
+    };
+
+    public InspectionScheduler(@NotNull final Project project) {
+        this(project, AppExecutorUtil.getAppExecutorService());
+    }
+
+    InspectionScheduler(@NotNull final Project project,
+                        @NotNull final Executor executor) {
+        this.project = project;
+        this.executor = executor;
+    }
+
+    /**
+     * Get the problems for the current revision of a file, scanning it if required.
+     *
+     * @param psiFile     the file to inspect.
+     * @param scan        the scan of the file, which will be run on a pooled thread.
+     * @param timeoutInMs how long to wait for the result; should it take longer, no problems are returned and the
+     *                    file is highlighted again once the result is available.
+     * @return the problems found.
+     */
+    @NotNull
+    public List<Problem> inspect(@NotNull final PsiFile psiFile,
+                                 @NotNull final Supplier<List<Problem>> scan,
+                                 final long timeoutInMs) {
+        final VirtualFile virtualFile = psiFile.getViewProvider().getVirtualFile();
+        final long revision = psiFile.getModificationStamp();
+
+        final FileScans scans;
+        synchronized (fileScans) {
+            scans = fileScans.computeIfAbsent(virtualFile, key -> new FileScans());
+        }
+
+        final CompletableFuture<List<Problem>> scanOfRevision;
+        synchronized (scans) {
+            if (scans.completedRevision == revision && allProblemsValid(scans.completedProblems)) {
+                recordCoalescedScan(psiFile);
+                return scans.completedProblems;
+            }
+
+            final boolean scanPending = scans.pending != null && !scans.pending.isDone();
+            if (scans.pendingRevision == revision && scanPending) {
+                recordCoalescedScan(psiFile);
+            } else {
+                if (scanPending) {
+                    recordCoalescedScan(psiFile);
+                    scans.pendingIndicator.cancel();
+                }
+                final ProgressIndicator indicator = new EmptyProgressIndicator(ModalityState.nonModal());
+                scans.pendingRevision = revision;
+                scans.pendingIndicator = indicator;
+                scans.pending = schedule(psiFile, revision, scans, scan, indicator, scanPending);
+            }
+            scanOfRevision = scans.pending;
+        }
+
+        return awaitResult(psiFile, scanOfRevision, timeoutInMs);
+    }
+
+    /**
+     * @return the number of scans avoided since the project was opened.
+     */
+    public long getCoalescedScanCount() {
+        return coalescedScans.get();
+    }
+
+    /**
+     * Forget all completed results, e.g. as the configuration has changed.
+     */
+    public void invalidate() {
+        synchronized (fileScans) {
+            fileScans.clear();
+        }
+    }
+
+    /**
+     * Schedule a scan under its own indicator, which is cancelled should the scan be superseded while running.
+     * A scan which supersedes another is debounced, as further edits are likely to follow.
+     */
+    private CompletableFuture<List<Problem>> schedule(final PsiFile psiFile,
+                                                      final long revision,
+                                                      final FileScans scans,
+                                                      final Supplier<List<Problem>> scan,
+                                                      final ProgressIndicator indicator,
+                                                      final boolean debounce) {
+        final CompletableFuture<List<Problem>> result = new CompletableFuture<>();
+        final Executor scanExecutor;
+        if (debounce) {
+            scanExecutor = CompletableFuture.delayedExecutor(DEBOUNCE_DELAY, TimeUnit.MILLISECONDS, executor);
+        } else {
+            scanExecutor = executor;
+        }
+
+        scanExecutor.execute(() -> {
+            if (indicator.isCanceled() || isSuperseded(scans, result, psiFile, revision)) {
+                LOG.debug("Dropping superseded scan of ", psiFile.getName());
+                result.cancel(false);
+                return;
+            }
+
+            try {
+                final List<Problem> problems = ProgressManager.getInstance().runProcess(scan::get, indicator);
+                if (indicator.isCanceled()) {
+                    // a scan may stop early on cancellation without saying so, and so its result can't be kept
+                    LOG.debug("Discarding the result of the cancelled scan of ", psiFile.getName());
+                    result.cancel(false);
+                    return;
+                }
+                synchronized (scans) {
+                    if (scans.completedRevision <= revision) {
+                        scans.completedRevision = revision;
+                        scans.completedProblems = problems;
+                    }
+                }
+                result.complete(problems);
+            } catch (ProcessCanceledException e) {
+                LOG.debug("Cancelled superseded scan of ", psiFile.getName());
+                result.cancel(false);
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    private boolean isSuperseded(final FileScans scans,
+                                 final CompletableFuture<List<Problem>> scanOfRevision,
+                                 final PsiFile psiFile,
+                                 final long revision) {
+        synchronized (scans) {
+            if (scans.pending != scanOfRevision) {
+                return true;
+            }
+        }
+        return !ReadAction.compute(() -> psiFile.isValid() && psiFile.getModificationStamp() == revision);
+    }
+
+    private List<Problem> awaitResult(final PsiFile psiFile,
+                                      final CompletableFuture<List<Problem>> scanOfRevision,
+                                      final long timeoutInMs) {
+        final long deadline = System.currentTimeMillis() + timeoutInMs;
+        while (System.currentTimeMillis() < deadline) {
+            ProgressManager.checkCanceled();
+            try {
+                return scanOfRevision.get(WAIT_INTERVAL, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException ignored) {
+                // keep waiting
+            } catch (CancellationException e) {
+                throw new ProcessCanceledException();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ProcessCanceledException(e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new CompletionException(e.getCause());
+            }
+        }
+
+        // the last completed result is for an earlier revision, so its offsets can't be trusted
+        LOG.debug("Scan of ", psiFile.getName(), " exceeded ", timeoutInMs, "ms; highlighting again once complete");
+        scanOfRevision.thenRun(() -> restartHighlighting(psiFile));
+        return List.of();
+    }
+
+    private void restartHighlighting(final PsiFile psiFile) {
+        ApplicationManager.getApplication().invokeLater(() -> {
+            if (psiFile.isValid()) {
+                DaemonCodeAnalyzer.getInstance(project).restart(psiFile);
+            }
+        }, project.getDisposed());
+    }
+
+    private boolean allProblemsValid(final List<Problem> problems) {
+        return problems != null && ReadAction.compute(() -> problems.stream().allMatch(Problem::isValid));
+    }
+
+    private void recordCoalescedScan(final PsiFile psiFile) {
+        final long coalesced = coalescedScans.incrementAndGet();
+        LOG.debug("Coalesced scan of ", psiFile.getName(), "; ", coalesced, " scans coalesced in total");
+    }
+
+    private static final class FileScans {
+        private long pendingRevision = -1;
+        private CompletableFuture<List<Problem>> pending;
+        private ProgressIndicator pendingIndicator;
+        private long completedRevision = -1;
+        private List<Problem> completedProblems;
+    }
+}
@@ -9,8 +9,10 @@ import org.infernus.idea.checkstyle.exception.CheckStylePluginException;
 import org.infernus.idea.checkstyle.model.ConfigurationLocation;
 import org.infernus.idea.checkstyle.model.ScanResult;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 
 import static org.infernus.idea.checkstyle.util.Async.executeOnPooledThread;
@@ -41,7 +43,7 @@ public class StaticScanner {
         }
     }
 
-    private <T> Future<T> checkInProgress(final Future<T> checkFuture) {
+    private <T> CompletableFuture<T> checkInProgress(final CompletableFuture<T> checkFuture) {
         synchronized (checksInProgress) {
             if (!checkFuture.isDone()) {
                 checksInProgress.add(checkFuture);
@@ -81,19 +83,46 @@ public class StaticScanner {
     }
 
     public List<ScanResult> scanFiles(@NotNull final List<VirtualFile> files) {
+        return scanFiles(files, null);
+    }
+
+    /**
+     * Scan the given files, waiting for the results.
+     *
+     * @param files            the files to scan.
+     * @param progressListener an optional listener to be notified of the progress of the scan.
+     * @return the results of the scan.
+     */
+    public List<ScanResult> scanFiles(@NotNull final List<VirtualFile> files,
+                                      @Nullable final ScannerListener progressListener) {
         if (files.isEmpty()) {
             return List.of(ScanResult.EMPTY);
         }
 
+        return scanFiles(new ScanFiles(project, files, null), progressListener);
+    }
+
+    /**
+     * Run the given scan, waiting for the results.
+     *
+     * @param checkFiles       the scan to run, which may share what it resolves with other scans.
+     * @param progressListener an optional listener to be notified of the progress of the scan.
+     * @return the results of the scan.
+     */
+    public List<ScanResult> scanFiles(@NotNull final ScanFiles checkFiles,
+                                      @Nullable final ScannerListener progressListener) {
         try {
-            return whenFinished(runAsyncCheck(new ScanFiles(project, files, null)), NO_TIMEOUT).get();
+            if (progressListener != null) {
+                checkFiles.addListener(progressListener);
+            }
+            return whenFinished(runAsyncCheck(checkFiles), NO_TIMEOUT).get();
         } catch (final Throwable e) {
             LOG.warn("Error scanning files", e);
             return List.of(ScanResult.EMPTY);
         }
     }
 
-    private Future<List<ScanResult>> runAsyncCheck(final ScanFiles checker) {
+    private CompletableFuture<List<ScanResult>> runAsyncCheck(final ScanFiles checker) {
         final var checkFilesFuture = checkInProgress(executeOnPooledThread(checker));
         checker.addListener(new ScanCompletionTracker(checkFilesFuture));
         return checkFilesFuture;
@@ -124,6 +153,11 @@ public class StaticScanner {
         public void scanFailedWithError(final CheckStylePluginException error) {
             checkComplete(future);
         }
+
+        @Override
+        public void scanCancelled() {
+            checkComplete(future);
+        }
     }
 
 }
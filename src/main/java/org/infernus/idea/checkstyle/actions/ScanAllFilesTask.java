@@ -1,15 +1,13 @@
 package org.infernus.idea.checkstyle.actions;
 
 import com.intellij.openapi.project.Project;
-import com.intellij.openapi.vfs.VfsUtilCore;
 import com.intellij.openapi.vfs.VirtualFile;
-import com.intellij.openapi.vfs.VirtualFileVisitor;
 import com.intellij.util.ThrowableRunnable;
 import org.infernus.idea.checkstyle.StaticScanner;
 import org.infernus.idea.checkstyle.model.ConfigurationLocation;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 
@@ -27,26 +25,17 @@ abstract class ScanAllFilesTask implements ThrowableRunnable<RuntimeException> {
     @Override
     public void run() {
         project.getService(StaticScanner.class)
-                .asyncScanFiles(flattenFiles(files()), selectedOverride);
+                .asyncScanFiles(filesOrNone(), selectedOverride);
     }
 
     protected abstract VirtualFile[] files();
 
-    private List<VirtualFile> flattenFiles(final VirtualFile[] files) {
-        final List<VirtualFile> flattened = new ArrayList<>();
-        if (files != null) {
-            for (final VirtualFile file : files) {
-                flattened.add(file);
-                VfsUtilCore.visitChildrenRecursively(file, new VirtualFileVisitor<>() {
-                    @Override
-                    @NotNull
-                    public Result visitFileEx(@NotNull final VirtualFile file) {
-                        flattened.add(file);
-                        return CONTINUE;
-                    }
-                });
-            }
+    private List<VirtualFile> filesOrNone() {
+        final VirtualFile[] files = files();
+        if (files == null) {
+            return List.of();
         }
-        return flattened;
+        // directories are searched by the scan itself
+        return Arrays.asList(files);
     }
 }
@@ -1,41 +1,161 @@
 package org.infernus.idea.checkstyle.checker;
 
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressManager;
+import org.infernus.idea.checkstyle.exception.CheckStylePluginException;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
- * Value for checker cache.
+ * Value for checker cache: a pool of identically configured checkers.
+ * <p>
+ * Checkers are not thread-safe, so each caller checks out an instance for the duration of a scan and
+ * returns it afterwards. Further instances are created on demand up to the maximum pool size, after which
+ * callers wait for one to be returned. Checkers which are checked out when the pool is destroyed are
+ * destroyed as they are returned.
  */
 class CachedChecker {
 
+    private static final Logger LOG = Logger.getInstance(CachedChecker.class);
+
+    private static final long CANCELLATION_CHECK_INTERVAL = 100L;
+
+    private final LinkedBlockingDeque<CheckStyleChecker> idleCheckers = new LinkedBlockingDeque<>();
+    private final Object lifecycleLock = new Object();
+    private final Supplier<CheckStyleChecker> checkerSupplier;
+    private final int maxSize;
+    private final long idleTimeout;
+    private final AtomicInteger size = new AtomicInteger(1);
+    private final AtomicInteger checkedOut = new AtomicInteger();
+
+    private volatile long timeStamp;
+    private volatile boolean destroyed;
+
+    CachedChecker(@NotNull final CheckStyleChecker checkStyleChecker,
+                  final int maxSize,
+                  final long idleTimeout,
+                  @NotNull final Supplier<CheckStyleChecker> checkerSupplier) {
+        this.maxSize = Math.max(1, maxSize);
+        this.idleTimeout = idleTimeout;
+        this.checkerSupplier = checkerSupplier;
+        this.timeStamp = System.currentTimeMillis();
+
+        idleCheckers.add(checkStyleChecker);
+    }
+
     /**
-     * We cache purely to ignore repeated requests in a multi-file scan. Hence we'll treat the cached
-     * value as valid for time in ms.
+     * Take a checker from the pool, creating one if none are idle and the pool is not yet full.
+     * The checker must be handed back via {@link #checkin(CheckStyleChecker)}.
+     *
+     * @return a checker for the exclusive use of the caller; or null if the pool is destroyed, e.g. as the
+     * configuration has been invalidated, in which case the caller should check out from a fresh pool.
+     * @throws ProcessCanceledException if the caller is cancelled while waiting.
      */
-    private static final int CACHE_VALID_TIME = 60000;
+    @Nullable
+    public CheckStyleChecker checkout() {
+        this.timeStamp = System.currentTimeMillis();
 
-    private final CheckStyleChecker checkStyleChecker;
+        CheckStyleChecker checker = idleCheckers.pollFirst();
+        if (checker == null) {
+            checker = createIfBelowMaxSize();
+        }
+        while (checker == null) {
+            if (destroyed) {
+                return null;
+            }
+            checker = awaitIdleChecker();
+        }
 
-    private long timeStamp;
+        checkedOut.incrementAndGet();
+        return checker;
+    }
 
-    CachedChecker(@NotNull final CheckStyleChecker checkStyleChecker) {
-        this.checkStyleChecker = checkStyleChecker;
-        this.timeStamp = System.currentTimeMillis();
+    @Nullable
+    private CheckStyleChecker awaitIdleChecker() {
+        ProgressManager.checkCanceled();
+        try {
+            // returns as soon as a checker is checked in; the timeout only bounds how long cancellation may go unseen
+            return idleCheckers.pollFirst(CANCELLATION_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CheckStylePluginException("Interrupted while waiting for a checker", e);
+        }
     }
 
-    public CheckStyleChecker getCheckStyleChecker() {
+    public void checkin(@NotNull final CheckStyleChecker checker) {
+        checkedOut.decrementAndGet();
         this.timeStamp = System.currentTimeMillis();
-        return checkStyleChecker;
+        synchronized (lifecycleLock) {
+            if (!destroyed) {
+                idleCheckers.offerFirst(checker);
+                return;
+            }
+        }
+
+        // the pool was destroyed while the checker was in use
+        checker.destroy();
+    }
+
+    @Nullable
+    private CheckStyleChecker createIfBelowMaxSize() {
+        final int currentSize = size.get();
+        if (destroyed || currentSize >= maxSize || !size.compareAndSet(currentSize, currentSize + 1)) {
+            return null;
+        }
+
+        LOG.debug("Expanding checker pool to ", currentSize + 1);
+        final CheckStyleChecker checker = checkerSupplier.get();
+        if (checker == null) {
+            size.decrementAndGet();
+            return null;
+        }
+
+        synchronized (lifecycleLock) {
+            if (!destroyed) {
+                return checker;
+            }
+        }
+
+        // the pool was destroyed while the checker was being built
+        size.decrementAndGet();
+        checker.destroy();
+        return null;
+    }
+
+    public int size() {
+        return size.get();
     }
 
     private long getTimeStamp() {
         return timeStamp;
     }
 
-    public boolean isValid() {
-        return (getTimeStamp() + CACHE_VALID_TIME) >= System.currentTimeMillis();
+    /**
+     * @return true if no checker is in use and none has been used for longer than the idle timeout.
+     */
+    public boolean isExpired() {
+        return checkedOut.get() == 0 && (getTimeStamp() + idleTimeout) < System.currentTimeMillis();
+    }
+
+    public boolean isDestroyed() {
+        return destroyed;
     }
 
     public void destroy() {
-        checkStyleChecker.destroy();
+        final List<CheckStyleChecker> checkersToDestroy = new ArrayList<>();
+        synchronized (lifecycleLock) {
+            destroyed = true;
+            idleCheckers.drainTo(checkersToDestroy);
+        }
+
+        checkersToDestroy.forEach(CheckStyleChecker::destroy);
     }
 }
@@ -5,15 +5,15 @@ import com.intellij.psi.PsiFile;
 import com.intellij.psi.search.scope.packageSet.NamedScope;
 import org.infernus.idea.checkstyle.csapi.CheckstyleActions;
 import org.infernus.idea.checkstyle.csapi.CheckstyleInternalObject;
-import org.infernus.idea.checkstyle.model.NamedScopeHelper;
+import org.infernus.idea.checkstyle.csapi.FileResultsListener;
 import org.infernus.idea.checkstyle.util.ClassLoaderDumper;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 
 public class CheckStyleChecker {
@@ -47,16 +47,23 @@ public class CheckStyleChecker {
     @NotNull
     public Map<PsiFile, List<Problem>> scan(@NotNull final List<ScannableFile> scannableFiles,
                                             final boolean suppressErrors) {
-        final List<ScannableFile> filteredFiles = this.namedScope.map(scope -> scannableFiles.stream()
-                        .filter(scannableFile -> NamedScopeHelper.isFileInScope(scannableFile.getPsiFile(), scope))
-                        .collect(Collectors.toList()))
+        return scan(scannableFiles, suppressErrors, null);
+    }
+
+    @NotNull
+    public Map<PsiFile, List<Problem>> scan(@NotNull final List<ScannableFile> scannableFiles,
+                                            final boolean suppressErrors,
+                                            @Nullable final FileResultsListener fileResultsListener) {
+        final List<ScannableFile> filteredFiles = this.namedScope
+                .map(scope -> NamedScopeIndex.filesInScope(scannableFiles, scope))
                 .orElse(scannableFiles);
 
         if (filteredFiles.isEmpty()) {
             return Collections.emptyMap();
         }
 
-        return csServiceInstance.scan(checkerWithConfig, filteredFiles, suppressErrors, tabWidth, baseDir);
+        return csServiceInstance.scan(checkerWithConfig, filteredFiles, suppressErrors, tabWidth, baseDir,
+                fileResultsListener);
     }
 
     public void destroy() {
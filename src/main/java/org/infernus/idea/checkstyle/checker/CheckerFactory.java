@@ -1,11 +1,21 @@
 package org.infernus.idea.checkstyle.checker;
 
+import com.intellij.application.options.CodeStyle;
+import com.intellij.ide.highlighter.JavaFileType;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.module.Module;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.project.ProjectUtil;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.infernus.idea.checkstyle.CheckstyleProjectService;
+import org.infernus.idea.checkstyle.config.PluginConfiguration;
+import org.infernus.idea.checkstyle.config.PluginConfigurationManager;
+import org.infernus.idea.checkstyle.csapi.FileResultsListener;
 import org.infernus.idea.checkstyle.exception.CheckStylePluginException;
 import org.infernus.idea.checkstyle.exception.CheckstyleToolException;
 import org.infernus.idea.checkstyle.model.ConfigurationLocation;
@@ -15,9 +25,21 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 import static org.infernus.idea.checkstyle.CheckStyleBundle.message;
 import static org.infernus.idea.checkstyle.util.Exceptions.rootCauseOf;
@@ -30,9 +52,12 @@ import static org.infernus.idea.checkstyle.util.Strings.isBlank;
 public class CheckerFactory {
     private static final Logger LOG = Logger.getInstance(CheckerFactory.class);
 
+    private static final long BUILD_WAIT_INTERVAL = 100L;
+
     private final Project project;
     private CheckstyleProjectService checkstyleProjectService;
     private  CheckerFactoryCache cache;
+    private final ConcurrentMap<String, CompletableFuture<CachedChecker>> pendingBuilds = new ConcurrentHashMap<>();
 
     @SuppressWarnings("unused") // IDEA's DI
     public CheckerFactory(@NotNull final Project project) {
@@ -51,42 +76,242 @@ public class CheckerFactory {
     }
 
     public void verify(final ConfigurationLocation location) {
-        checker(null, location);
+        try {
+            getOrCreateCachedChecker(location, null);
+        } catch (Exception e) {
+            throw new CheckStylePluginException("Couldn't create Checker from " + location, e);
+        }
     }
 
-    public Optional<CheckStyleChecker> checker(@Nullable final Module module,
-                                               @NotNull final ConfigurationLocation location) {
-        LOG.debug("Getting CheckStyle checker with location ", location);
-
+    /**
+     * Build and cache a checker for the location and module, unless a suitable one is already cached.
+     *
+     * @return true if a checker was built.
+     */
+    public boolean prepare(@Nullable final Module module,
+                           @NotNull final ConfigurationLocation location) {
         try {
-            final CachedChecker cachedChecker = getOrCreateCachedChecker(location, module);
-            if (cachedChecker != null) {
-                return Optional.of(cachedChecker.getCheckStyleChecker());
+            final String contentHash = contentHashOf(location, module);
+            if (cache.get(location, null, contentHash).isPresent()) {
+                return false;
             }
-            return Optional.empty();
+
+            final CompletableFuture<CachedChecker> build = new CompletableFuture<>();
+            if (pendingBuilds.putIfAbsent(contentHash, build) != null) {
+                // another caller is building it
+                return false;
+            }
+            // a build may have completed since we looked
+            final AtomicBoolean built = new AtomicBoolean();
+            final CachedChecker cachedChecker = completeBuild(build, contentHash,
+                    () -> cache.get(location, null, contentHash).orElseGet(() -> {
+                        built.set(true);
+                        return createCachedChecker(location, module, contentHash);
+                    }));
+            return built.get() && cachedChecker != null;
         } catch (Exception e) {
             throw new CheckStylePluginException("Couldn't create Checker from " + location, e);
         }
     }
 
+    /**
+     * Scan the given files with a checker for the location, checked out from the pool for the duration of the scan.
+     *
+     * @return the problems found, or empty if no checker could be created for the location.
+     */
+    public Optional<Map<PsiFile, List<Problem>>> scan(@Nullable final Module module,
+                                                      @NotNull final ConfigurationLocation location,
+                                                      @NotNull final List<ScannableFile> scannableFiles,
+                                                      final boolean suppressErrors) {
+        return scan(module, location, scannableFiles, suppressErrors, null);
+    }
+
+    /**
+     * Scan the given files with a checker for the location, checked out from the pool for the duration of the scan,
+     * passing the problems found in each file to the listener as soon as the file has been processed.
+     *
+     * @return the problems found, or empty if no checker could be created for the location.
+     */
+    public Optional<Map<PsiFile, List<Problem>>> scan(@Nullable final Module module,
+                                                      @NotNull final ConfigurationLocation location,
+                                                      @NotNull final List<ScannableFile> scannableFiles,
+                                                      final boolean suppressErrors,
+                                                      @Nullable final FileResultsListener fileResultsListener) {
+        LOG.debug("Getting CheckStyle checker with location ", location);
+
+        CachedChecker cachedChecker = cachedCheckerFor(location, module);
+        CheckStyleChecker checker = cachedChecker != null ? cachedChecker.checkout() : null;
+        while (cachedChecker != null && checker == null) {
+            // the pool was destroyed while we waited, e.g. as the configuration was invalidated
+            LOG.debug("Checker pool destroyed while waiting; checking out from a fresh pool for ", location);
+            cachedChecker = cachedCheckerFor(location, module);
+            checker = cachedChecker != null ? cachedChecker.checkout() : null;
+        }
+        if (cachedChecker == null) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(checker.scan(scannableFiles, suppressErrors, fileResultsListener));
+        } finally {
+            cachedChecker.checkin(checker);
+        }
+    }
+
+    @Nullable
+    private CachedChecker cachedCheckerFor(@NotNull final ConfigurationLocation location,
+                                           @Nullable final Module module) {
+        try {
+            return getOrCreateCachedChecker(location, module);
+        } catch (Exception e) {
+            throw new CheckStylePluginException("Couldn't create Checker from " + location, e);
+        }
+    }
 
     private CachedChecker getOrCreateCachedChecker(@NotNull final ConfigurationLocation location,
                                                    @Nullable final Module module) {
-        final Optional<CachedChecker> cachedChecker = cache.get(location, module);
+        final String contentHash = contentHashOf(location, module);
+        final Optional<CachedChecker> cachedChecker = cache.get(location, null, contentHash);
         if (cachedChecker.isPresent()) {
             return cachedChecker.get();
         }
 
+        // only one checker is built for each key at a time, as a pool built concurrently would replace the other
+        final CompletableFuture<CachedChecker> build = new CompletableFuture<>();
+        final CompletableFuture<CachedChecker> pendingBuild = pendingBuilds.putIfAbsent(contentHash, build);
+        if (pendingBuild != null) {
+            return awaitBuild(pendingBuild);
+        }
+        // a build may have completed since we looked
+        return completeBuild(build, contentHash, () -> cache.get(location, null, contentHash)
+                .orElseGet(() -> createCachedChecker(location, module, contentHash)));
+    }
+
+    /**
+     * Complete a build claimed by this caller, and then release the claim, so that a later caller builds afresh
+     * should this build have failed. Once the claim is released, the pool built is found in the cache.
+     */
+    @Nullable
+    private CachedChecker completeBuild(@NotNull final CompletableFuture<CachedChecker> build,
+                                        @NotNull final String contentHash,
+                                        @NotNull final Supplier<CachedChecker> builder) {
+        try {
+            final CachedChecker cachedChecker = builder.get();
+            build.complete(cachedChecker);
+            return cachedChecker;
+        } catch (RuntimeException | Error e) {
+            build.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingBuilds.remove(contentHash, build);
+        }
+    }
+
+    @Nullable
+    private CachedChecker awaitBuild(@NotNull final CompletableFuture<CachedChecker> pendingBuild) {
+        while (true) {
+            ProgressManager.checkCanceled();
+            try {
+                return pendingBuild.get(BUILD_WAIT_INTERVAL, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException ignored) {
+                // keep waiting
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ProcessCanceledException(e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new CheckStylePluginException("Couldn't create Checker", e.getCause());
+            }
+        }
+    }
+
+    @Nullable
+    private CachedChecker createCachedChecker(@NotNull final ConfigurationLocation location,
+                                              @Nullable final Module module,
+                                              @NotNull final String contentHash) {
         LOG.debug("No cached checker found, creating a new one for ", location);
-        final CachedChecker checker = createChecker(location, module);
+        final CheckStyleChecker checker = createChecker(location, module);
         if (checker != null) {
-            cache.put(location, module, checker);
-            return checker;
+            final PluginConfiguration configuration = currentConfiguration();
+            final CachedChecker pool = new CachedChecker(checker,
+                    configuration.getCheckerPoolSize(),
+                    TimeUnit.MINUTES.toMillis(configuration.getCheckerIdleTimeout()),
+                    () -> createChecker(location, module));
+            cache.put(location, null, contentHash, pool, configuration.getCheckerCacheSize());
+            return pool;
         }
 
         return null;
     }
 
+    /**
+     * Hash the effective inputs to a checker for the location: the fingerprint of the configuration content, the
+     * values of the properties it references, including those added for the module such as {@code basedir}, the
+     * associated files it names as resolved for the module, and the default tab width. The content itself is only
+     * read when its fingerprint may have changed.
+     * <p>
+     * As everything which may differ between modules is part of the hash, checkers are shared between any modules
+     * for which the hash is the same.
+     */
+    @NotNull
+    private String contentHashOf(@NotNull final ConfigurationLocation location,
+                                 @Nullable final Module module) {
+        try {
+            return inputsHashOf(location, module);
+        } catch (IOException | RuntimeException e) {
+            // creating the checker will fail in the same way, and report the problem
+            LOG.debug("Unable to resolve location for hashing: " + location, e);
+            final MessageDigest digest = DigestUtils.getSha256Digest();
+            digest.update(String.valueOf(e).getBytes(StandardCharsets.UTF_8));
+            digest.update(Integer.toString(defaultTabWidth()).getBytes(StandardCharsets.UTF_8));
+            return Hex.encodeHexString(digest.digest());
+        }
+    }
+
+    /**
+     * Hash the effective inputs to a checker for the location, as {@link #contentHashOf} does.
+     *
+     * @throws IOException if the location or its associated files cannot be resolved.
+     */
+    @NotNull
+    String inputsHashOf(@NotNull final ConfigurationLocation location,
+                        @Nullable final Module module) throws IOException {
+        final MessageDigest digest = DigestUtils.getSha256Digest();
+        final ConfigurationFingerprints fingerprints = ConfigurationFingerprints.of(project);
+        final ClassLoader checkstyleClassLoader = checkstyleProjectService.underlyingClassLoader();
+        final ConfigurationFingerprints.Fingerprint fingerprint =
+                fingerprints.fingerprintOf(location, checkstyleClassLoader);
+        digest.update(fingerprint.contentHash().getBytes(StandardCharsets.UTF_8));
+
+        final Map<String, String> properties = addEclipseCsProperties(location, module,
+                removeEmptyProperties(location.getProperties()));
+        for (final Map.Entry<String, String> property : new TreeMap<>(properties).entrySet()) {
+            if (fingerprint.references(property.getKey())) {
+                digest.update((property.getKey() + "=" + property.getValue() + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        digest.update(fingerprints.associatedFilesOf(location, fingerprint, module, properties, checkstyleClassLoader)
+                .getBytes(StandardCharsets.UTF_8));
+
+        digest.update(Integer.toString(defaultTabWidth()).getBytes(StandardCharsets.UTF_8));
+        return Hex.encodeHexString(digest.digest());
+    }
+
+    private int defaultTabWidth() {
+        try {
+            return CodeStyle.getSettings(project).getTabSize(JavaFileType.INSTANCE);
+        } catch (RuntimeException | AssertionError e) {
+            return 0;
+        }
+    }
+
+    private PluginConfiguration currentConfiguration() {
+        return project.getService(PluginConfigurationManager.class).getCurrent();
+    }
+
     private Map<String, String> addEclipseCsProperties(final ConfigurationLocation location,
                                                        final Module module,
                                                        final Map<String, String> properties) {
@@ -123,7 +348,8 @@ public class CheckerFactory {
         }
     }
 
-    private CachedChecker createChecker(@NotNull final ConfigurationLocation location,
+    @Nullable
+    private CheckStyleChecker createChecker(@NotNull final ConfigurationLocation location,
                                         @Nullable final Module module) {
         final ListPropertyResolver propertyResolver;
         try {
@@ -146,7 +372,7 @@ public class CheckerFactory {
             return blockAndShowException(location, module, (Throwable) workerResult);
         }
 
-        return (CachedChecker) workerResult;
+        return (CheckStyleChecker) workerResult;
     }
 
     private Map<String, String> removeEmptyProperties(final Map<String, String> properties) {
@@ -178,7 +404,7 @@ public class CheckerFactory {
         return worker.getResult();
     }
 
-    private CachedChecker blockAndShowMessage(final ConfigurationLocation location,
+    private CheckStyleChecker blockAndShowMessage(final ConfigurationLocation location,
                                               final Module module,
                                               final Throwable cause,
                                               final String messageKey,
@@ -193,7 +419,7 @@ public class CheckerFactory {
         });
     }
 
-    private CachedChecker blockAndShowException(final ConfigurationLocation location,
+    private CheckStyleChecker blockAndShowException(final ConfigurationLocation location,
                                                 final Module module,
                                                 final Throwable t) {
         return blockAnd(location, () -> {
@@ -208,7 +434,7 @@ public class CheckerFactory {
     }
 
     @Nullable
-    private CachedChecker blockAnd(final ConfigurationLocation location,
+    private CheckStyleChecker blockAnd(final ConfigurationLocation location,
                                    final Runnable ifNotBlocked) {
         if (!location.isBlocked()) {
             location.block();
@@ -217,7 +443,7 @@ public class CheckerFactory {
         return null;
     }
 
-    private CachedChecker blockAndShowMessageFromException(final ConfigurationLocation location,
+    private CheckStyleChecker blockAndShowMessageFromException(final ConfigurationLocation location,
                                                            final Module module,
                                                            final CheckstyleToolException checkstyleException) {
         if (checkstyleException.getMessage().contains("Unable to instantiate DoubleCheckedLocking")) {
@@ -3,59 +3,121 @@ package org.infernus.idea.checkstyle.checker;
 import com.intellij.openapi.Disposable;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.module.Module;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import org.infernus.idea.checkstyle.model.ConfigurationLocation;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of checker pools, keyed on the location together with a hash of the inputs used to build the checkers,
+ * so that a change to the configuration content or properties results in a new entry. Modules whose inputs
+ * are identical share an entry; the module is only part of the key when the caller requires it.
+ * <p>
+ * Entries built from inputs which have since changed are no longer requested, and so age out.
+ * <p>
+ * Entries are discarded once idle for longer than their timeout, by a sweeper which runs in the background
+ * while the cache is non-empty, or when the cache exceeds the configured maximum size, in least-recently-used order.
+ */
 public class CheckerFactoryCache implements Disposable {
 
     private static final Logger LOG = Logger.getInstance(CheckerFactoryCache.class);
 
-    private final Map<CheckerFactoryCacheKey, CachedChecker> cache = new ConcurrentHashMap<>();
+    private static final long SWEEP_INTERVAL_SECONDS = 60L;
 
-    public Optional<CachedChecker> get(@NotNull final ConfigurationLocation location,
-                                       @Nullable final Module module) {
-        cleanUpExpiredCachedCheckers();
+    private final Map<CheckerFactoryCacheKey, CachedChecker> cache = new LinkedHashMap<>(16, 0.75f, true);
 
-        final CheckerFactoryCacheKey key = new CheckerFactoryCacheKey(location, module);
+    private ScheduledFuture<?> sweeper;
+    private boolean disposed;
 
-        final CachedChecker cachedChecker = cache.get(key);
-        if (cachedChecker != null && cachedChecker.isValid()) {
-            LOG.debug("Valid cached checker found; returning for ", location);
-            return Optional.of(cachedChecker);
-        }
+    public Optional<CachedChecker> get(@NotNull final ConfigurationLocation location,
+                                       @Nullable final Module module,
+                                       @NotNull final String contentHash) {
+        final CheckerFactoryCacheKey key = new CheckerFactoryCacheKey(location, module, contentHash);
 
-        if (cachedChecker != null) {
-            LOG.debug("Invalid cached checker found; deleting and returning empty for ", location);
-            cache.remove(key);
-            destroyChecker(cachedChecker);
+        final CachedChecker cachedChecker;
+        synchronized (cache) {
+            cachedChecker = cache.get(key);
+        }
+        if (cachedChecker != null && !cachedChecker.isDestroyed()) {
+            LOG.debug("Cached checker found; returning for ", location);
+            return Optional.of(cachedChecker);
         }
         return Optional.empty();
     }
 
     @Override
     public void dispose() {
+        synchronized (cache) {
+            disposed = true;
+        }
         invalidate();
     }
 
+    /**
+     * Cache a checker, discarding the least recently used entries should the cache then exceed its maximum size.
+     *
+     * @param location    the location the checker was built from.
+     * @param module      the module the checker was built for, if it is part of the key.
+     * @param contentHash the hash of the inputs the checker was built from.
+     * @param checker     the checker.
+     * @param maxEntries  the maximum number of entries to keep.
+     */
     public void put(@NotNull final ConfigurationLocation location,
                     @Nullable final Module module,
-                    @NotNull final CachedChecker checker) {
-        cache.put(new CheckerFactoryCacheKey(location, module), checker);
+                    @NotNull final String contentHash,
+                    @NotNull final CachedChecker checker,
+                    final int maxEntries) {
+        final CheckerFactoryCacheKey key = new CheckerFactoryCacheKey(location, module, contentHash);
+
+        final List<CachedChecker> checkersToDestroy = new ArrayList<>();
+        synchronized (cache) {
+            final CachedChecker replaced = cache.put(key, checker);
+            if (replaced != null && replaced != checker) {
+                checkersToDestroy.add(replaced);
+            }
+            final Iterator<CachedChecker> leastRecentlyUsed = cache.values().iterator();
+            while (cache.size() > Math.max(1, maxEntries)) {
+                checkersToDestroy.add(leastRecentlyUsed.next());
+                leastRecentlyUsed.remove();
+            }
+
+            startSweeperIfRequired();
+        }
+
+        checkersToDestroy.forEach(this::destroyChecker);
     }
 
     public void invalidate() {
         LOG.debug("Cache invalidation requested");
 
-        List<CachedChecker> existingCheckers = new ArrayList<>(cache.values());
-        cache.clear();
+        final List<CachedChecker> existingCheckers;
+        synchronized (cache) {
+            existingCheckers = new ArrayList<>(cache.values());
+            cache.clear();
+            stopSweeperIfEmpty();
+        }
 
         existingCheckers.forEach(this::destroyChecker);
     }
 
+    private void startSweeperIfRequired() {
+        if (sweeper == null && !disposed) {
+            sweeper = AppExecutorUtil.getAppScheduledExecutorService().scheduleWithFixedDelay(
+                    this::cleanUpExpiredCachedCheckers, SWEEP_INTERVAL_SECONDS, SWEEP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    private void stopSweeperIfEmpty() {
+        if (sweeper != null && cache.isEmpty()) {
+            sweeper.cancel(false);
+            sweeper = null;
+        }
+    }
+
     private void destroyChecker(final CachedChecker cachedChecker) {
         try {
             if (cachedChecker != null) {
@@ -67,17 +129,23 @@ public class CheckerFactoryCache implements Disposable {
 
     private void cleanUpExpiredCachedCheckers() {
         try {
-            List<CachedChecker> checkersToDestroy = new ArrayList<>();
-
-            for (Iterator<Map.Entry<CheckerFactoryCacheKey, CachedChecker>> i = cache.entrySet().iterator(); i.hasNext();) {
-                Map.Entry<CheckerFactoryCacheKey, CachedChecker> cacheEntry = i.next();
-                if (cacheEntry.getValue() == null || !cacheEntry.getValue().isValid()) {
-                    checkersToDestroy.add(cacheEntry.getValue());
-                    i.remove();
+            final List<CachedChecker> checkersToDestroy = new ArrayList<>();
+
+            synchronized (cache) {
+                for (final Iterator<CachedChecker> i = cache.values().iterator(); i.hasNext();) {
+                    final CachedChecker cachedChecker = i.next();
+                    if (cachedChecker == null || cachedChecker.isExpired()) {
+                        checkersToDestroy.add(cachedChecker);
+                        i.remove();
+                    }
                 }
+                stopSweeperIfEmpty();
             }
 
-            checkersToDestroy.forEach(this::destroyChecker);
+            if (!checkersToDestroy.isEmpty()) {
+                LOG.debug("Discarding idle checkers: ", checkersToDestroy.size());
+                checkersToDestroy.forEach(this::destroyChecker);
+            }
 
         } catch (Exception e) {
             LOG.error("Cleanup failed", e);
@@ -13,18 +13,23 @@ class CheckerFactoryCacheKey {
     private final String projectName;
     private final String moduleName;
     private final ConfigurationLocation location;
+    private final String contentHash;
 
     // We can disregard Checkstyle version and third party jars as elements of the cache key, because the cache
-    // must be invalidated when any of these properties change anyway.
+    // must be invalidated when any of these properties change anyway. The content hash covers the resolved
+    // configuration and the properties passed to it, which may change without any change to the location.
+    // The module is null for checkers shared between modules.
 
 
-    CheckerFactoryCacheKey(@NotNull final ConfigurationLocation location, @Nullable final Module module) {
+    CheckerFactoryCacheKey(@NotNull final ConfigurationLocation location,
+                           @Nullable final Module module,
+                           @NotNull final String contentHash) {
         this.projectName = module != null ? module.getProject().getName() : "noProject";
         this.moduleName = module != null ? module.getName() : "noModule";
         this.location = location;
+        this.contentHash = contentHash;
     }
 
-
     @Override
     public boolean equals(final Object pOther) {
         if (this == pOther) {
@@ -36,12 +41,13 @@ class CheckerFactoryCacheKey {
         final CheckerFactoryCacheKey other = (CheckerFactoryCacheKey) pOther;
         return Objects.equals(projectName, other.projectName)
                 && Objects.equals(moduleName, other.moduleName)
-                && Objects.equals(location, other.location);
+                && Objects.equals(location, other.location)
+                && Objects.equals(contentHash, other.contentHash);
     }
 
 
     @Override
     public int hashCode() {
-        return Objects.hash(projectName, moduleName, location);
+        return Objects.hash(projectName, moduleName, location, contentHash);
     }
 }
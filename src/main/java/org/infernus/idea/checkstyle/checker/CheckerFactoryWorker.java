@@ -32,10 +32,9 @@ class CheckerFactoryWorker extends Thread {
         super.run();
 
         try {
-            final CheckStyleChecker checker = checkstyleProjectService
+            threadReturn = checkstyleProjectService
                     .getCheckstyleInstance()
                     .createChecker(module, location, properties);
-            threadReturn = new CachedChecker(checker);
         } catch (RuntimeException e) {
             threadReturn = e;
         }
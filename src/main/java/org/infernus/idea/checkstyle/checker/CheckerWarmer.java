@@ -0,0 +1,165 @@
+package org.infernus.idea.checkstyle.checker;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.module.ModuleUtilCore;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Pair;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.infernus.idea.checkstyle.config.ConfigurationListener;
+import org.infernus.idea.checkstyle.config.ConfigurationLocationSource;
+import org.infernus.idea.checkstyle.config.PluginConfigurationManager;
+import org.infernus.idea.checkstyle.model.ConfigurationLocation;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.infernus.idea.checkstyle.CheckStyleBundle.message;
+
+/**
+ * Builds checkers in the background, so that they are ready before the first inspection needs them.
+ * <p>
+ * Modules with files open in the editor are prepared first. Modules with identical inputs share a checker,
+ * so most modules need no further work; as the checker cache is bounded, no more checkers are built than
+ * it can hold.
+ */
+public class CheckerWarmer implements ConfigurationListener {
+
+    private static final Logger LOG = Logger.getInstance(CheckerWarmer.class);
+
+    private final Project project;
+
+    private final Object lock = new Object();
+    private boolean warmUpQueued;
+    private ProgressIndicator inProgress;
+
+    public CheckerWarmer(@NotNull final Project project) {
+        this.project = project;
+
+        project.getService(PluginConfigurationManager.class).addConfigurationListener(this);
+    }
+
+    @Override
+    public void configurationChanged() {
+        requestWarmUp();
+    }
+
+    /**
+     * Request that checkers be built for all active locations. Requests made in the same event are
+     * coalesced, and any warm-up already running is cancelled in favour of the new one.
+     */
+    public void requestWarmUp() {
+        synchronized (lock) {
+            if (warmUpQueued) {
+                return;
+            }
+            warmUpQueued = true;
+        }
+
+        // deferred so that the cache invalidation following a configuration change has happened first
+        ApplicationManager.getApplication().invokeLater(this::startWarmUp, project.getDisposed());
+    }
+
+    private void startWarmUp() {
+        synchronized (lock) {
+            warmUpQueued = false;
+            if (inProgress != null) {
+                inProgress.cancel();
+            }
+        }
+
+        new Task.Backgroundable(project, message("checker.warm-up.title"), true) {
+            @Override
+            public void run(@NotNull final ProgressIndicator indicator) {
+                synchronized (lock) {
+                    inProgress = indicator;
+                }
+                try {
+                    warmUp(indicator);
+                } finally {
+                    synchronized (lock) {
+                        if (inProgress == indicator) {
+                            inProgress = null;
+                        }
+                    }
+                }
+            }
+        }.queue();
+    }
+
+    private void warmUp(final ProgressIndicator indicator) {
+        final List<Pair<Module, ConfigurationLocation>> toBuild = checkersToBuild();
+        LOG.debug("Preparing checkers in advance: ", toBuild.size());
+
+        indicator.setIndeterminate(false);
+        final int maxCheckers = project.getService(PluginConfigurationManager.class).getCurrent().getCheckerCacheSize();
+        int built = 0;
+        for (int i = 0; i < toBuild.size() && built < maxCheckers; ++i) {
+            indicator.checkCanceled();
+
+            final Module module = toBuild.get(i).first;
+            final ConfigurationLocation location = toBuild.get(i).second;
+            indicator.setText(message("checker.warm-up.text", location.getDescription(), module.getName()));
+            indicator.setFraction((double) i / toBuild.size());
+
+            try {
+                if (checkerFactory().prepare(module, location)) {
+                    ++built;
+                }
+            } catch (ProcessCanceledException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                // the error will be reported when the location is next used
+                LOG.debug("Failed to build checker in advance for " + location, e);
+            }
+        }
+        indicator.setFraction(1.0);
+    }
+
+    private List<Pair<Module, ConfigurationLocation>> checkersToBuild() {
+        final List<Pair<Module, ConfigurationLocation>> toBuild = new ArrayList<>();
+        for (final Module module : modulesInPriorityOrder()) {
+            for (final ConfigurationLocation location : configurationLocationSource().getConfigurationLocations(module, null)) {
+                if (!location.isBlocked()) {
+                    toBuild.add(Pair.create(module, location));
+                }
+            }
+        }
+        return toBuild;
+    }
+
+    private Set<Module> modulesInPriorityOrder() {
+        return ReadAction.compute(() -> {
+            final Set<Module> modules = new LinkedHashSet<>();
+            if (project.isDisposed()) {
+                return modules;
+            }
+            for (final VirtualFile openFile : FileEditorManager.getInstance(project).getOpenFiles()) {
+                final Module module = ModuleUtilCore.findModuleForFile(openFile, project);
+                if (module != null) {
+                    modules.add(module);
+                }
+            }
+            modules.addAll(List.of(ModuleManager.getInstance(project).getModules()));
+            return modules;
+        });
+    }
+
+    private CheckerFactory checkerFactory() {
+        return project.getService(CheckerFactory.class);
+    }
+
+    private ConfigurationLocationSource configurationLocationSource() {
+        return project.getService(ConfigurationLocationSource.class);
+    }
+}
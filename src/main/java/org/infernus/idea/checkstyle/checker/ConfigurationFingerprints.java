@@ -0,0 +1,349 @@
+package org.infernus.idea.checkstyle.checker;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.infernus.idea.checkstyle.model.ConfigurationLocation;
+import org.infernus.idea.checkstyle.model.FileConfigurationLocation;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.infernus.idea.checkstyle.util.Strings.isBlank;
+
+/**
+ * Fingerprints of the content of configuration locations, which key the checker cache, the scan result cache and
+ * the parsed configurations. A location's content is read and hashed once, rather than on every scan, and the
+ * fingerprint is remembered until the location's file or any file it refers to changes, as seen by its stamp or
+ * by a VFS event, or until the cached resources are invalidated. The content of a location which is not a file,
+ * such as a URL or a classpath resource, cannot be watched, and so is read again once its fingerprint is a minute old.
+ * <p>
+ * The fingerprint covers the files included in the configuration as external entities, as their content is part
+ * of the configuration Checkstyle reads. The associated files a configuration names, such as suppressions or
+ * import control files, may be found relative to a module, and so are resolved for each module by
+ * {@link #associatedFilesOf}, which is likewise remembered until any of the files change.
+ */
+public class ConfigurationFingerprints implements Disposable {
+
+    private static final Pattern PROPERTY_REFERENCE = Pattern.compile("\\$\\{([^}]+)}");
+    private static final Pattern EXTERNAL_ENTITY = Pattern.compile(
+            "<!ENTITY\\s+(?:%\\s+)?\\S+\\s+(?:SYSTEM|PUBLIC\\s+[\"'][^\"']*[\"'])\\s+[\"']([^\"']+)[\"']");
+    private static final Pattern PROPERTY_ELEMENT = Pattern.compile("<property\\b([^>]*)>");
+    private static final Pattern NAME_ATTRIBUTE = Pattern.compile("\\bname\\s*=\\s*[\"']([^\"']*)[\"']");
+    private static final Pattern VALUE_ATTRIBUTE = Pattern.compile("\\bvalue\\s*=\\s*[\"']([^\"']*)[\"']");
+    private static final Set<String> ASSOCIATED_FILE_PROPERTIES = Set.of("file", "headerFile");
+    private static final long UNWATCHED_LOCATION_TIME_TO_LIVE_MS = 60_000L;
+
+    private final ConcurrentMap<ConfigurationLocation, Memo> memos = new ConcurrentHashMap<>();
+    private final ConcurrentMap<AssociationKey, Memo> associations = new ConcurrentHashMap<>();
+
+    public ConfigurationFingerprints(@NotNull final Project project) {
+        project.getMessageBus().connect(this).subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+            @Override
+            public void after(@NotNull final List<? extends VFileEvent> events) {
+                filesChanged(events);
+            }
+        });
+    }
+
+    private ConfigurationFingerprints() {
+    }
+
+    /**
+     * @return the project's fingerprints; or, where there are no project services, fingerprints which are not
+     * shared, and so are calculated afresh.
+     */
+    @NotNull
+    public static ConfigurationFingerprints of(@NotNull final Project project) {
+        final ConfigurationFingerprints fingerprints = project.getService(ConfigurationFingerprints.class);
+        if (fingerprints != null) {
+            return fingerprints;
+        }
+        return new ConfigurationFingerprints();
+    }
+
+    /**
+     * Get the fingerprint of a location's content, reading the content only if it may have changed since it was
+     * last read.
+     *
+     * @param location              the location.
+     * @param checkstyleClassLoader the class loader of the configured Checkstyle.
+     * @return the fingerprint.
+     * @throws IOException if the location cannot be read.
+     */
+    @NotNull
+    public Fingerprint fingerprintOf(@NotNull final ConfigurationLocation location,
+                                     @NotNull final ClassLoader checkstyleClassLoader) throws IOException {
+        final Memo memo = memos.get(location);
+        if (memo != null && memo.isCurrent()) {
+            return memo.fingerprint();
+        }
+
+        // the stamp is taken before reading, so that a change made while reading is seen on the next request
+        final File locationFile = locationFileOf(location);
+        final List<File> files = new ArrayList<>();
+        final StringBuilder stamp = new StringBuilder();
+        if (locationFile != null) {
+            files.add(locationFile);
+            stamp.append(stampOf(locationFile)).append(';');
+        }
+
+        final byte[] content;
+        try (InputStream contentStream = location.resolve(checkstyleClassLoader)) {
+            content = contentStream != null ? contentStream.readAllBytes() : new byte[0];
+        }
+        final String text = new String(content, StandardCharsets.UTF_8);
+
+        final MessageDigest digest = DigestUtils.getSha256Digest();
+        digest.update(content);
+        final Set<String> referencedProperties = new HashSet<>(referencedPropertiesOf(text));
+        final Set<String> associatedFileNames = new HashSet<>(associatedFileNamesOf(text));
+        for (final File entityFile : externalEntitiesOf(location, text)) {
+            final String entityStamp = stampOf(entityFile);
+            files.add(entityFile);
+            stamp.append(entityStamp).append(';');
+            update(digest, entityFile.getAbsolutePath());
+            update(digest, entityStamp);
+
+            // the modules an entity includes may refer to properties and associated files of their own
+            if (entityFile.isFile()) {
+                final String entityText = new String(Files.readAllBytes(entityFile.toPath()),
+                        StandardCharsets.UTF_8);
+                referencedProperties.addAll(referencedPropertiesOf(entityText));
+                associatedFileNames.addAll(associatedFileNamesOf(entityText));
+            }
+        }
+
+        final Fingerprint fingerprint = new Fingerprint(DigestUtils.sha256Hex(digest.digest()),
+                Set.copyOf(referencedProperties), Set.copyOf(associatedFileNames));
+        final long expiresAt = locationFile != null
+                ? Long.MAX_VALUE
+                : System.currentTimeMillis() + UNWATCHED_LOCATION_TIME_TO_LIVE_MS;
+        memos.put(location, new Memo(stamp.toString(), List.copyOf(files), pathsOf(files), fingerprint, expiresAt));
+        return fingerprint;
+    }
+
+    /**
+     * Resolve the associated files named by a location's configuration for a module, as the checker built for the
+     * module would resolve them.
+     *
+     * @param location              the location.
+     * @param fingerprint           the fingerprint of the location's content.
+     * @param module                the module, if any.
+     * @param properties            the properties passed to the configuration for the module.
+     * @param checkstyleClassLoader the class loader of the configured Checkstyle.
+     * @return a description of the resolved files and their stamps, which differs should any of them differ.
+     * @throws IOException if a file cannot be resolved.
+     */
+    @NotNull
+    public String associatedFilesOf(@NotNull final ConfigurationLocation location,
+                                    @NotNull final Fingerprint fingerprint,
+                                    @Nullable final Module module,
+                                    @NotNull final Map<String, String> properties,
+                                    @NotNull final ClassLoader checkstyleClassLoader) throws IOException {
+        if (fingerprint.associatedFileNames().isEmpty()) {
+            return "";
+        }
+
+        final AssociationKey key = new AssociationKey(location, module, fingerprint.contentHash(),
+                new TreeMap<>(properties));
+        final Memo memo = associations.get(key);
+        if (memo != null && memo.isCurrent()) {
+            return memo.fingerprint().contentHash();
+        }
+
+        final List<File> files = new ArrayList<>();
+        final Set<String> paths = new HashSet<>();
+        final StringBuilder stamp = new StringBuilder();
+        final StringBuilder description = new StringBuilder();
+        for (final String fileName : new TreeSet<>(fingerprint.associatedFileNames())) {
+            final String expandedFileName = expand(fileName, properties);
+            final String resolvedFile = location.resolveAssociatedFile(expandedFileName, module, checkstyleClassLoader);
+            description.append(expandedFileName).append('=');
+            if (resolvedFile != null) {
+                final File file = new File(resolvedFile);
+                final String fileStamp = stampOf(file);
+                files.add(file);
+                stamp.append(fileStamp).append(';');
+                description.append(resolvedFile).append('@').append(fileStamp);
+            }
+            description.append(';');
+            // a file of the same name appearing elsewhere may change how the name resolves
+            paths.add(new File(expandedFileName).getName());
+        }
+
+        final String associatedFiles = description.toString();
+        associations.put(key, new Memo(stamp.toString(), List.copyOf(files), Set.copyOf(paths),
+                new Fingerprint(associatedFiles, Set.of(), Set.of()), Long.MAX_VALUE));
+        return associatedFiles;
+    }
+
+    /**
+     * Forget all fingerprints, so that every location is read again when next used.
+     */
+    public void invalidate() {
+        memos.clear();
+        associations.clear();
+    }
+
+    @Override
+    public void dispose() {
+        invalidate();
+    }
+
+    private void filesChanged(@NotNull final List<? extends VFileEvent> events) {
+        for (final VFileEvent event : events) {
+            if (event instanceof VFileMoveEvent
+                    || (event instanceof VFilePropertyChangeEvent && ((VFilePropertyChangeEvent) event).isRename())) {
+                invalidate();
+                return;
+            }
+            final String changedPath = event.getPath();
+            memos.values().removeIf(memo -> memo.paths().contains(changedPath));
+            final String changedName = changedPath.substring(changedPath.lastIndexOf('/') + 1);
+            associations.values().removeIf(memo -> memo.paths().contains(changedName));
+        }
+    }
+
+    @Nullable
+    private static File locationFileOf(@NotNull final ConfigurationLocation location) {
+        if (location instanceof FileConfigurationLocation && location.getLocation() != null) {
+            final File file = new File(location.getLocation());
+            if (file.isFile()) {
+                return file;
+            }
+        }
+        return null;
+    }
+
+    @NotNull
+    private static List<File> externalEntitiesOf(@NotNull final ConfigurationLocation location,
+                                                 @NotNull final String content) {
+        final List<File> entityFiles = new ArrayList<>();
+        final Matcher matcher = EXTERNAL_ENTITY.matcher(content);
+        while (matcher.find()) {
+            final String systemId = matcher.group(1);
+            if (systemId.contains("://") && !systemId.startsWith("file:")) {
+                continue;
+            }
+            File entityFile = new File(systemId.startsWith("file:") ? systemId.substring("file:".length()) : systemId);
+            if (!entityFile.isAbsolute() && location.getBaseDir() != null) {
+                entityFile = new File(location.getBaseDir(), entityFile.getPath());
+            }
+            entityFiles.add(entityFile);
+        }
+        return entityFiles;
+    }
+
+    @NotNull
+    private static Set<String> associatedFileNamesOf(@NotNull final String content) {
+        final Set<String> fileNames = new HashSet<>();
+        final Matcher propertyMatcher = PROPERTY_ELEMENT.matcher(content);
+        while (propertyMatcher.find()) {
+            final Matcher nameMatcher = NAME_ATTRIBUTE.matcher(propertyMatcher.group(1));
+            final Matcher valueMatcher = VALUE_ATTRIBUTE.matcher(propertyMatcher.group(1));
+            if (nameMatcher.find() && ASSOCIATED_FILE_PROPERTIES.contains(nameMatcher.group(1))
+                    && valueMatcher.find() && !isBlank(valueMatcher.group(1))) {
+                fileNames.add(valueMatcher.group(1));
+            }
+        }
+        return Set.copyOf(fileNames);
+    }
+
+    @NotNull
+    private static String expand(@NotNull final String value,
+                                 @NotNull final Map<String, String> properties) {
+        final Matcher matcher = PROPERTY_REFERENCE.matcher(value);
+        final StringBuilder expanded = new StringBuilder();
+        while (matcher.find()) {
+            final String propertyValue = properties.get(matcher.group(1));
+            matcher.appendReplacement(expanded, Matcher.quoteReplacement(
+                    propertyValue != null ? propertyValue : matcher.group()));
+        }
+        matcher.appendTail(expanded);
+        return expanded.toString();
+    }
+
+    @NotNull
+    private static Set<String> referencedPropertiesOf(@NotNull final String content) {
+        final Set<String> properties = new HashSet<>();
+        final Matcher matcher = PROPERTY_REFERENCE.matcher(content);
+        while (matcher.find()) {
+            properties.add(matcher.group(1));
+        }
+        return Set.copyOf(properties);
+    }
+
+    @NotNull
+    private static String stampOf(@NotNull final List<File> files) {
+        final StringBuilder stamp = new StringBuilder();
+        for (final File file : files) {
+            stamp.append(stampOf(file)).append(';');
+        }
+        return stamp.toString();
+    }
+
+    @NotNull
+    private static String stampOf(@NotNull final File file) {
+        return file.lastModified() + ":" + file.length();
+    }
+
+    @NotNull
+    private static Set<String> pathsOf(@NotNull final List<File> files) {
+        final Set<String> paths = new HashSet<>();
+        for (final File file : files) {
+            paths.add(FileUtil.toSystemIndependentName(file.getAbsolutePath()));
+        }
+        return Set.copyOf(paths);
+    }
+
+    private static void update(final MessageDigest digest, final String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    /**
+     * @param contentHash          a hash of the location's content, and of the files it includes.
+     * @param referencedProperties the names of the properties the content refers to.
+     * @param associatedFileNames  the names of the associated files the content refers to, before expansion.
+     */
+    public record Fingerprint(@NotNull String contentHash,
+                              @NotNull Set<String> referencedProperties,
+                              @NotNull Set<String> associatedFileNames) {
+
+        public boolean references(@NotNull final String propertyName) {
+            return referencedProperties.contains(propertyName);
+        }
+    }
+
+    private record Memo(String stamp, List<File> files, Set<String> paths, Fingerprint fingerprint, long expiresAt) {
+
+        boolean isCurrent() {
+            return System.currentTimeMillis() < expiresAt && stamp.equals(stampOf(files));
+        }
+    }
+
+    private record AssociationKey(ConfigurationLocation location,
+                                  Module module,
+                                  String contentHash,
+                                  Map<String, String> properties) {
+    }
+}
@@ -0,0 +1,158 @@
+package org.infernus.idea.checkstyle.checker;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.fileTypes.FileTypeEvent;
+import com.intellij.openapi.fileTypes.FileTypeListener;
+import com.intellij.openapi.fileTypes.FileTypeManager;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ModuleRootEvent;
+import com.intellij.openapi.roots.ModuleRootListener;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import com.intellij.packageDependencies.DependencyValidationManager;
+import com.intellij.psi.search.scope.packageSet.NamedScopeManager;
+import com.intellij.util.messages.MessageBusConnection;
+import org.infernus.idea.checkstyle.config.ConfigurationListener;
+import org.infernus.idea.checkstyle.config.PluginConfigurationManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Holds the parts of {@link PsiFileValidator}'s decision which depend only on where a file is, rather than on
+ * its content: whether it is in a source root, a test root, generated code or a named scope; and which module
+ * it belongs to. These are otherwise worked out afresh on every inspection. The {@link NamedScopeIndex} used
+ * when filtering files by a location's scope is held here too.
+ * <p>
+ * Everything is forgotten when the project roots, the named scopes, the file types or the plugin configuration
+ * change, or when files are moved, renamed or deleted. The validations are also forgotten should they grow
+ * beyond {@link #MAX_ENTRIES} files.
+ */
+public class FileValidationCache implements Disposable, ConfigurationListener {
+
+    static final int MAX_ENTRIES = 100_000;
+
+    private final int maxEntries;
+
+    private volatile ConcurrentMap<VirtualFile, Validation> validations = new ConcurrentHashMap<>();
+    private volatile NamedScopeIndex namedScopeIndex = new NamedScopeIndex();
+
+    public FileValidationCache(@NotNull final Project project) {
+        this(MAX_ENTRIES);
+
+        final MessageBusConnection connection = project.getMessageBus().connect(this);
+        connection.subscribe(ModuleRootListener.TOPIC, new ModuleRootListener() {
+            @Override
+            public void rootsChanged(@NotNull final ModuleRootEvent event) {
+                invalidate();
+            }
+        });
+        connection.subscribe(FileTypeManager.TOPIC, new FileTypeListener() {
+            @Override
+            public void fileTypesChanged(@NotNull final FileTypeEvent event) {
+                invalidate();
+            }
+        });
+        connection.subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+            @Override
+            public void after(@NotNull final List<? extends VFileEvent> events) {
+                filesChanged(events);
+            }
+        });
+
+        NamedScopeManager.getInstance(project).addScopeListener(this::invalidate, this);
+        DependencyValidationManager.getInstance(project).addScopeListener(this::invalidate, this);
+
+        project.getService(PluginConfigurationManager.class).addConfigurationListener(this);
+    }
+
+    FileValidationCache(final int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Get the validation of a file, working it out if it is not already known. The validation is worked out
+     * outside the map, as it may be slow, so a file validated by two threads at once may be validated twice;
+     * both receive the validation stored first.
+     *
+     * @param file     the file.
+     * @param validate the means of validating the file.
+     * @return the validation of the file.
+     */
+    @NotNull
+    Validation get(@NotNull final VirtualFile file,
+                   @NotNull final Supplier<Validation> validate) {
+        final ConcurrentMap<VirtualFile, Validation> currentValidations = validations;
+        final Validation cachedValidation = currentValidations.get(file);
+        if (cachedValidation != null) {
+            return cachedValidation;
+        }
+
+        final Validation validation = validate.get();
+        if (currentValidations.size() >= maxEntries) {
+            currentValidations.clear();
+        }
+        // should the cache be invalidated meanwhile, the result is stored in the map discarded
+        final Validation storedValidation = currentValidations.putIfAbsent(file, validation);
+        return storedValidation != null ? storedValidation : validation;
+    }
+
+    /**
+     * @return the named scopes of the files, which share the lifetime of the validations.
+     */
+    @NotNull
+    NamedScopeIndex namedScopeIndex() {
+        return namedScopeIndex;
+    }
+
+    public void invalidate() {
+        validations = new ConcurrentHashMap<>();
+        namedScopeIndex = new NamedScopeIndex();
+    }
+
+    @Override
+    public void configurationChanged() {
+        invalidate();
+    }
+
+    private void filesChanged(final List<? extends VFileEvent> events) {
+        for (final VFileEvent event : events) {
+            if (event instanceof VFileMoveEvent
+                    || (event instanceof VFilePropertyChangeEvent && ((VFilePropertyChangeEvent) event).isRename())) {
+                invalidate();
+                return;
+            }
+            if (event instanceof VFileDeleteEvent) {
+                final VirtualFile deletedFile = ((VFileDeleteEvent) event).getFile();
+                if (deletedFile.isDirectory()) {
+                    invalidate();
+                    return;
+                }
+                validations.remove(deletedFile);
+                namedScopeIndex.remove(deletedFile);
+            }
+        }
+    }
+
+    @Override
+    public void dispose() {
+        invalidate();
+    }
+
+    /**
+     * @param scannable true if the file may be scanned, so far as its location is concerned.
+     * @param module    the module the file belongs to, if any.
+     */
+    record Validation(boolean scannable, @Nullable Module module) {
+    }
+}
@@ -0,0 +1,123 @@
+package org.infernus.idea.checkstyle.checker;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.search.scope.packageSet.NamedScope;
+import com.intellij.psi.search.scope.packageSet.NamedScopesHolder;
+import org.infernus.idea.checkstyle.model.NamedScopeHelper;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Which named scopes each file is in, held as a bit per scope, so that a file is matched against each scope's
+ * pattern only once. Files are added as they are checked; the index is held by the {@link FileValidationCache},
+ * and is discarded with it when the scopes or roots change.
+ * <p>
+ * Scopes are identified by their holder as well as their ID, as a local and a shared scope may have the same ID.
+ * A scope held by neither is matched afresh each time.
+ */
+final class NamedScopeIndex {
+
+    private final ConcurrentMap<ScopeKey, Integer> scopeBits = new ConcurrentHashMap<>();
+    private final AtomicInteger nextScopeBit = new AtomicInteger();
+    private final ConcurrentMap<VirtualFile, Membership> memberships = new ConcurrentHashMap<>();
+
+    /**
+     * Filter files by a scope, using the project's index where there is one.
+     *
+     * @param scannableFiles the files to filter.
+     * @param namedScope     the scope.
+     * @return those files in the scope.
+     */
+    @NotNull
+    static List<ScannableFile> filesInScope(@NotNull final List<ScannableFile> scannableFiles,
+                                            @NotNull final NamedScope namedScope) {
+        if (scannableFiles.isEmpty()) {
+            return scannableFiles;
+        }
+
+        final NamedScopeIndex index = indexFor(scannableFiles.get(0).getPsiFile().getProject());
+        return scannableFiles.stream()
+                .filter(scannableFile -> isInScope(index, scannableFile.getPsiFile(), namedScope))
+                .toList();
+    }
+
+    /**
+     * Check whether a file is in a scope, using the project's index where there is one.
+     *
+     * @param psiFile    the file.
+     * @param namedScope the scope.
+     * @return true if the file is in the scope.
+     */
+    static boolean isFileInScope(@NotNull final PsiFile psiFile,
+                                 @NotNull final NamedScope namedScope) {
+        return isInScope(indexFor(psiFile.getProject()), psiFile, namedScope);
+    }
+
+    @Nullable
+    private static NamedScopeIndex indexFor(@Nullable final Project project) {
+        if (project == null) {
+            return null;
+        }
+        final FileValidationCache fileValidationCache = project.getService(FileValidationCache.class);
+        if (fileValidationCache == null) {
+            return null;
+        }
+        return fileValidationCache.namedScopeIndex();
+    }
+
+    private static boolean isInScope(@Nullable final NamedScopeIndex index,
+                                     @NotNull final PsiFile psiFile,
+                                     @NotNull final NamedScope namedScope) {
+        if (index == null) {
+            return NamedScopeHelper.isFileInScope(psiFile, namedScope);
+        }
+        return index.contains(psiFile, namedScope);
+    }
+
+    boolean contains(@NotNull final PsiFile psiFile,
+                     @NotNull final NamedScope namedScope) {
+        final VirtualFile virtualFile = psiFile.getVirtualFile();
+        if (virtualFile == null) {
+            return NamedScopeHelper.isFileInScope(psiFile, namedScope);
+        }
+
+        final NamedScopesHolder holder = NamedScopeHelper.getHolderOf(psiFile.getProject(), namedScope);
+        if (holder == null) {
+            return NamedScopeHelper.isFileInScope(psiFile, namedScope);
+        }
+
+        final int scopeBit = scopeBits.computeIfAbsent(new ScopeKey(holder, namedScope.getScopeId()),
+                scopeKey -> nextScopeBit.getAndIncrement());
+        return memberships.computeIfAbsent(virtualFile, key -> new Membership())
+                .isInScope(scopeBit, () -> NamedScopeHelper.isFileInScope(psiFile, namedScope));
+    }
+
+    void remove(@NotNull final VirtualFile virtualFile) {
+        memberships.remove(virtualFile);
+    }
+
+    private record ScopeKey(NamedScopesHolder holder, String scopeId) {
+    }
+
+    private static final class Membership {
+        private final BitSet known = new BitSet();
+        private final BitSet inScope = new BitSet();
+
+        synchronized boolean isInScope(final int scopeBit, final BooleanSupplier check) {
+            if (!known.get(scopeBit)) {
+                inScope.set(scopeBit, check.getAsBoolean());
+                known.set(scopeBit);
+            }
+            return inScope.get(scopeBit);
+        }
+    }
+}
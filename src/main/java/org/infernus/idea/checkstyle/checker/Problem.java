@@ -4,29 +4,91 @@ import com.intellij.codeInspection.InspectionManager;
 import com.intellij.codeInspection.LocalQuickFix;
 import com.intellij.codeInspection.ProblemDescriptor;
 import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.openapi.editor.Document;
+import com.intellij.psi.PsiDocumentManager;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
 import org.infernus.idea.checkstyle.CheckStyleBundle;
+import org.infernus.idea.checkstyle.csapi.ProcessResultsThread.LineIndex;
 import org.infernus.idea.checkstyle.csapi.SeverityLevel;
 import org.infernus.idea.checkstyle.util.DisplayFormats;
 import org.infernus.idea.checkstyle.util.Objects;
 import org.jetbrains.annotations.NotNull;
 
-public record Problem(@NotNull PsiElement target,
+/**
+ * A problem found by Checkstyle.
+ * <p>
+ * The position is held as an offset into the file as it was when scanned, and is only resolved to a PSI element
+ * when needed, so that holding the results of a scan does not keep the PSI trees of the files scanned alive.
+ *
+ * @param file               the file the problem was found in.
+ * @param offset             the offset of the problem, or {@link #NO_OFFSET} if it applies to the file as a whole.
+ * @param modificationStamp  the modification stamp of the file when scanned, which the offset is valid for.
+ * @param tabWidth           the width of a tab when scanned, with which the column was calculated.
+ */
+public record Problem(@NotNull PsiFile file,
+                      int offset,
+                      long modificationStamp,
                       @NotNull String message,
                       @NotNull SeverityLevel severityLevel,
                       int line,
                       int column,
+                      int tabWidth,
                       String sourceName,
                       boolean afterEndOfLine,
                       boolean suppressErrors) implements Comparable<Problem> {
 
+    public static final int NO_OFFSET = -1;
+
+    /**
+     * Is the problem still applicable, i.e. does its file still exist? Must be called from a read action.
+     */
+    public boolean isValid() {
+        return file.isValid();
+    }
+
+    /**
+     * Resolve the element the problem applies to. Must be called from a read action.
+     * <p>
+     * If the file has been modified since the scan, the offset no longer applies, and the position is
+     * estimated from the line and column instead, expanding tabs as the scan did.
+     *
+     * @return the element, or the file if no narrower element can be found.
+     */
+    @NotNull
+    public PsiElement target() {
+        final int targetOffset = currentOffset();
+        if (targetOffset == NO_OFFSET) {
+            return file;
+        }
+        final PsiElement element = file.findElementAt(targetOffset);
+        if (element != null) {
+            return element;
+        }
+        return file;
+    }
+
+    private int currentOffset() {
+        if (offset == NO_OFFSET || file.getModificationStamp() == modificationStamp) {
+            return offset;
+        }
+
+        final Document document = PsiDocumentManager.getInstance(file.getProject()).getDocument(file);
+        if (document == null || line < 1 || line > document.getLineCount()) {
+            return NO_OFFSET;
+        }
+        return LineIndex.offsetOfColumn(document.getCharsSequence(), document.getLineStartOffset(line - 1),
+                document.getLineEndOffset(line - 1), column, tabWidth);
+    }
+
     @NotNull
     public ProblemDescriptor toProblemDescriptor(final InspectionManager inspectionManager,
                                                  final boolean onTheFly) {
         String sourceCheck = DisplayFormats.shortenClassName(sourceName);
+        final PsiElement target = target();
         return inspectionManager.createProblemDescriptor(target,
                 CheckStyleBundle.message("inspection.message", message, sourceCheck),
-                quickFixes(sourceCheck), problemHighlightType(), onTheFly, afterEndOfLine);
+                quickFixes(sourceCheck), problemHighlightType(), onTheFly, afterEndOfLine && target != file);
     }
 
     private LocalQuickFix[] quickFixes(final String sourceCheck) {
@@ -2,6 +2,7 @@ package org.infernus.idea.checkstyle.checker;
 
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.module.ModuleUtil;
+import com.intellij.openapi.project.Project;
 import com.intellij.openapi.roots.JavaProjectRootsUtil;
 import com.intellij.openapi.roots.ModuleRootManager;
 import com.intellij.openapi.roots.ProjectFileIndex;
@@ -9,6 +10,7 @@ import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiDocumentManager;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
+import org.infernus.idea.checkstyle.checker.FileValidationCache.Validation;
 import org.infernus.idea.checkstyle.config.PluginConfigurationManager;
 import org.infernus.idea.checkstyle.model.ConfigurationLocation;
 import org.infernus.idea.checkstyle.model.NamedScopeHelper;
@@ -30,15 +32,75 @@ final class PsiFileValidator {
                                       @NotNull final Optional<Module> module,
                                       @NotNull final PluginConfigurationManager pluginConfig,
                                       @Nullable final ConfigurationLocation overrideConfigLocation) {
-        return psiFile != null
-                && psiFile.isValid()
-                && psiFile.isPhysical()
-                && hasDocument(psiFile)
-                && isInSource(psiFile, pluginConfig, overrideConfigLocation)
+        if (psiFile == null
+                || !psiFile.isValid()
+                || !psiFile.isPhysical()
+                || !hasDocument(psiFile)) {
+            return false;
+        }
+
+        final Validation validation = validationOf(psiFile, pluginConfig, overrideConfigLocation);
+        return validation.scannable()
+                && modulesMatch(validation.module(), module);
+    }
+
+    /**
+     * The checks which depend only on the location of the file are remembered, unless an override location is
+     * given, as they are not affected by the file's content.
+     */
+    private static Validation validationOf(@NotNull final PsiFile psiFile,
+                                           @NotNull final PluginConfigurationManager pluginConfig,
+                                           @Nullable final ConfigurationLocation overrideConfigLocation) {
+        final VirtualFile virtualFile = psiFile.getVirtualFile();
+        if (overrideConfigLocation != null || virtualFile == null) {
+            return validate(psiFile, pluginConfig, overrideConfigLocation);
+        }
+        return psiFile.getProject().getService(FileValidationCache.class)
+                .get(virtualFile, () -> validate(psiFile, pluginConfig, null));
+    }
+
+    private static Validation validate(@NotNull final PsiFile psiFile,
+                                       @NotNull final PluginConfigurationManager pluginConfig,
+                                       @Nullable final ConfigurationLocation overrideConfigLocation) {
+        final boolean scannable = isInSource(psiFile, pluginConfig, overrideConfigLocation)
                 && isValidFileType(psiFile, pluginConfig)
                 && isScannableIfTest(psiFile, pluginConfig)
-                && modulesMatch(psiFile, module)
                 && !isGenerated(psiFile);
+        return new Validation(scannable, ModuleUtil.findModuleForPsiElement(psiFile));
+    }
+
+    /**
+     * A cheaper check than {@link #isScannable}, which needs no PSI, for use while searching for files to scan.
+     * It rejects only those files which {@link #isScannable} would also reject.
+     */
+    static boolean isCandidate(@NotNull final VirtualFile file,
+                               @NotNull final Project project,
+                               @NotNull final PluginConfigurationManager pluginConfig,
+                               @Nullable final ConfigurationLocation overrideConfigLocation) {
+        final ScanScope scanScope = pluginConfig.getCurrent().getScanScope();
+        final ProjectFileIndex fileIndex = ProjectFileIndex.getInstance(project);
+        return !file.isDirectory()
+                && (scanScope.includeNonJavaSources() || FileTypes.isJava(file.getFileType()))
+                && (scanScope == ScanScope.Everything || fileIndex.isInSourceContent(file))
+                && (scanScope.includeTestClasses() || !fileIndex.isInTestSourceContent(file))
+                && !JavaProjectRootsUtil.isInGeneratedCode(file, project)
+                && locationsFor(pluginConfig, overrideConfigLocation).stream()
+                        .map(ConfigurationLocation::getNamedScope)
+                        .flatMap(Optional::stream)
+                        .anyMatch(scope -> NamedScopeHelper.mayFileBeInScope(file, project, scope));
+    }
+
+    /**
+     * @return false if nothing in the directory can be scanned, and so there is no need to visit its children.
+     */
+    static boolean mayContainCandidates(@NotNull final VirtualFile directory,
+                                        @NotNull final Project project,
+                                        @NotNull final PluginConfigurationManager pluginConfig) {
+        final ScanScope scanScope = pluginConfig.getCurrent().getScanScope();
+        final ProjectFileIndex fileIndex = ProjectFileIndex.getInstance(project);
+        return (scanScope == ScanScope.Everything || !fileIndex.isExcluded(directory))
+                && (scanScope.includeTestClasses() || !fileIndex.isInTestSourceContent(directory))
+                && !JavaProjectRootsUtil.isInGeneratedCode(directory, project);
     }
 
     private static boolean hasDocument(final PsiFile psiFile) {
@@ -70,9 +132,15 @@ final class PsiFileValidator {
                         && ProjectFileIndex.getInstance(psiFile.getProject()).isInSourceContent(psiFile.getVirtualFile()));
         return shouldBeScanned && isInNamedScopeIfPresent(
                 psiFile,
-                overrideConfigLocation != null
-                        ? Collections.singletonList(overrideConfigLocation)
-                        : pluginConfig.getCurrent().getActiveLocations());
+                locationsFor(pluginConfig, overrideConfigLocation));
+    }
+
+    private static Collection<ConfigurationLocation> locationsFor(
+            @NotNull final PluginConfigurationManager pluginConfig,
+            @Nullable final ConfigurationLocation overrideConfigLocation) {
+        return overrideConfigLocation != null
+                ? Collections.singletonList(overrideConfigLocation)
+                : pluginConfig.getCurrent().getActiveLocations();
     }
 
     /**
@@ -84,7 +152,7 @@ final class PsiFileValidator {
         return activeLocations.stream()
                 .map(ConfigurationLocation::getNamedScope)
                 .flatMap(Optional::stream)
-                .anyMatch(scope -> NamedScopeHelper.isFileInScope(psiFile, scope));
+                .anyMatch(scope -> NamedScopeIndex.isFileInScope(psiFile, scope));
     }
 
     private static boolean isTestClass(final PsiElement element) {
@@ -103,12 +171,11 @@ final class PsiFileValidator {
                 && moduleRootManager.getFileIndex().isInTestSourceContent(elementFile);
     }
 
-    private static boolean modulesMatch(final PsiFile psiFile,
+    private static boolean modulesMatch(@Nullable final Module elementModule,
                                         final Optional<Module> module) {
         if (module.isEmpty()) {
             return true;
         }
-        final Module elementModule = ModuleUtil.findModuleForPsiElement(psiFile);
         return elementModule != null && elementModule.equals(module.get());
     }
 
@@ -0,0 +1,53 @@
+package org.infernus.idea.checkstyle.checker;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * The executor which runs the work of parallel scans. All scans of a project share it, so that scans running at
+ * the same time use no more than the configured number of threads between them. Registered in {@code plugin.xml}.
+ */
+public class ScanExecutor implements Disposable {
+
+    private static final Logger LOG = Logger.getInstance(ScanExecutor.class);
+
+    private final Object lock = new Object();
+    private ExecutorService executor;
+    private int scanThreads;
+
+    /**
+     * Get the executor, replacing it should the number of threads have changed. Work already submitted to a
+     * replaced executor still runs.
+     *
+     * @param scanThreads the maximum number of threads to scan with.
+     * @return the executor.
+     */
+    @NotNull
+    ExecutorService executorFor(final int scanThreads) {
+        synchronized (lock) {
+            if (executor == null || this.scanThreads != scanThreads) {
+                if (executor != null) {
+                    LOG.debug("Scan threads changed to ", scanThreads);
+                    executor.shutdown();
+                }
+                executor = AppExecutorUtil.createBoundedApplicationPoolExecutor("CheckStyle-IDEA Scan", scanThreads);
+                this.scanThreads = scanThreads;
+            }
+            return executor;
+        }
+    }
+
+    @Override
+    public void dispose() {
+        synchronized (lock) {
+            if (executor != null) {
+                executor.shutdownNow();
+                executor = null;
+            }
+        }
+    }
+}
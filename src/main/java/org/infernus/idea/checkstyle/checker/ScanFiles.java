@@ -4,7 +4,11 @@ import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.module.ModuleUtil;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Ref;
 import com.intellij.openapi.vfs.VfsUtilCore;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.openapi.vfs.VirtualFileVisitor;
@@ -22,7 +26,13 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static java.util.Collections.emptyMap;
@@ -35,30 +45,57 @@ public class ScanFiles implements Callable<List<ScanResult>> {
 
     private static final Logger LOG = Logger.getInstance(ScanFiles.class);
 
-    private final List<PsiFile> files;
-    private final Map<Module, Set<PsiFile>> moduleToFiles;
+    private final List<VirtualFile> virtualFiles;
+    private List<PsiFile> files;
+    private Map<Module, Set<PsiFile>> moduleToFiles;
     private final Set<ScannerListener> listeners = new CopyOnWriteArraySet<>();
     private final Project project;
     @Nullable
     private final ConfigurationLocation overrideConfigLocation;
+    private final ScanContext context;
 
     public ScanFiles(@NotNull final Project project,
                      @NotNull final List<VirtualFile> virtualFiles,
                      @Nullable final ConfigurationLocation overrideConfigLocation) {
+        this(project, virtualFiles, overrideConfigLocation, new ScanContext());
+    }
+
+    private ScanFiles(@NotNull final Project project,
+                      @NotNull final List<VirtualFile> virtualFiles,
+                      @Nullable final ConfigurationLocation overrideConfigLocation,
+                      @NotNull final ScanContext context) {
         this.project = project;
         this.overrideConfigLocation = overrideConfigLocation;
+        this.virtualFiles = List.copyOf(virtualFiles);
+        this.context = context;
+    }
 
-        files = findAllFilesFor(virtualFiles);
-        moduleToFiles = mapsModulesToFiles();
+    /**
+     * Create a scan of further files which shares the configuration locations and fingerprints resolved by this
+     * scan, so that a scan run in batches resolves them once. Listeners are not shared.
+     *
+     * @param virtualFiles the files to scan.
+     * @return the scan.
+     */
+    @NotNull
+    public ScanFiles withFiles(@NotNull final List<VirtualFile> virtualFiles) {
+        return new ScanFiles(project, virtualFiles, overrideConfigLocation, context);
     }
 
+    /**
+     * Find the files to scan in a single walk of the given files and directories, rejecting what cheap checks
+     * can before any PSI is created. The files found are validated in full when they are scanned.
+     */
     private List<PsiFile> findAllFilesFor(@NotNull final List<VirtualFile> virtualFiles) {
-        final List<PsiFile> childFiles = new ArrayList<>();
-        final PsiManager psiManager = PsiManager.getInstance(project);
+        final FindChildFiles visitor = new FindChildFiles(project, configurationManager(), overrideConfigLocation);
         for (final VirtualFile virtualFile : virtualFiles) {
-            childFiles.addAll(buildFilesList(psiManager, virtualFile));
+            ReadAction.run(() -> {
+                if (virtualFile.isValid()) {
+                    VfsUtilCore.visitChildrenRecursively(virtualFile, visitor);
+                }
+            });
         }
-        return childFiles;
+        return visitor.locatedFiles;
     }
 
     private Map<Module, Set<PsiFile>> mapsModulesToFiles() {
@@ -76,10 +113,18 @@ public class ScanFiles implements Callable<List<ScanResult>> {
     @Override
     public final List<ScanResult> call() {
         try {
+            // the files are found as part of the scan, rather than by the caller, which may be the EDT
+            files = findAllFilesFor(virtualFiles);
+            moduleToFiles = mapsModulesToFiles();
+
             fireCheckStarting(files);
             final List<ScanResult> scanResults = processFilesForModuleInfoAndScan();
             return scanCompletedSuccessfully(scanResults);
 
+        } catch (ProcessCanceledException e) {
+            LOG.debug("Scan cancelled", e);
+            fireScanCancelled();
+            return List.of(ScanResult.EMPTY);
         } catch (CheckStylePluginParseException e) {
             LOG.debug("Parse exception caught during scan", e);
             return scanFailedWithError(e, false);
@@ -104,6 +149,10 @@ public class ScanFiles implements Callable<List<ScanResult>> {
     }
 
     private List<ScanResult> scanCompletedSuccessfully(final List<ScanResult> results) {
+        if (context.saveRequested.compareAndSet(false, true)) {
+            // later scans sharing the context are persisted by the same, debounced, save
+            scanResultCache().requestSave();
+        }
         fireScanCompletedSuccessfully(results);
         return results;
     }
@@ -124,27 +173,36 @@ public class ScanFiles implements Callable<List<ScanResult>> {
         listeners.forEach(listener -> listener.scanFailedWithError(error));
     }
 
+    private void fireScanCancelled() {
+        listeners.forEach(ScannerListener::scanCancelled);
+    }
+
     private void fireFilesScanned(final int count) {
         listeners.forEach(listener -> listener.filesScanned(count));
     }
 
-    private List<PsiFile> buildFilesList(final PsiManager psiManager, final VirtualFile virtualFile) {
-        return ReadAction.compute(() -> {
-            final FindChildFiles visitor = new FindChildFiles(virtualFile, psiManager);
-            VfsUtilCore.visitChildrenRecursively(virtualFile, visitor);
-            return visitor.locatedFiles;
-        });
+    private void fireFileResultsAvailable(final Module module,
+                                          final ConfigurationLocation configurationLocation,
+                                          final PsiFile psiFile,
+                                          final List<Problem> problems) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        final ScanResult fileResult = new ScanResult(ConfigurationLocationResult.of(configurationLocation, PRESENT),
+                module, Map.of(psiFile, problems));
+        listeners.forEach(listener -> listener.fileResultsAvailable(fileResult));
     }
 
     private List<ScanResult> processFilesForModuleInfoAndScan() {
-        final List<ScanResult> scanResults = new ArrayList<>();
+        final Map<Module, List<ConfigurationLocation>> moduleToLocations = new LinkedHashMap<>();
 
         for (final Module module : moduleToFiles.keySet()) {
             if (module == null) {
                 continue;
             }
 
-            final List<ConfigurationLocationResult> locationResults = configurationLocation(overrideConfigLocation, module);
+            final List<ConfigurationLocationResult> locationResults = context.locationsByModule.computeIfAbsent(
+                    module, key -> configurationLocation(overrideConfigLocation, key));
             if (locationResults.isEmpty()) {
                 return List.of(new ScanResult(ConfigurationLocationResult.NOT_PRESENT, module, emptyMap()));
             }
@@ -159,14 +217,98 @@ public class ScanFiles implements Callable<List<ScanResult>> {
                     .map(ConfigurationLocationResult::location)
                     .collect(Collectors.toList());
 
-            scanResults.addAll(checkFiles(module, filesForModule, locationsToCheck));
+            moduleToLocations.put(module, locationsToCheck);
+        }
+
+        final int scanThreads = configurationManager().getCurrent().getScanThreads();
+        final int workUnits = moduleToLocations.values().stream().mapToInt(List::size).sum();
+        if (scanThreads > 1 && workUnits > 1) {
+            return scanInParallel(moduleToLocations, scanThreads);
+        }
+        return scanSequentially(moduleToLocations);
+    }
+
+    private List<ScanResult> scanSequentially(final Map<Module, List<ConfigurationLocation>> moduleToLocations) {
+        final List<ScanResult> scanResults = new ArrayList<>();
+
+        moduleToLocations.forEach((module, locations) -> {
+            final Set<PsiFile> filesForModule = moduleToFiles.get(module);
+            scanResults.addAll(checkFiles(module, filesForModule, locations));
 
             fireFilesScanned(filesForModule.size());
+        });
+
+        return scanResults;
+    }
+
+    /**
+     * Each module/location pair is checked as a separate work unit on the project's scan executor. Modules with
+     * the same configuration share a pool of checkers, and each unit checks a checker out of it for the duration,
+     * waiting for one should the pool be at its limit; so concurrent units never share a checker.
+     */
+    private List<ScanResult> scanInParallel(final Map<Module, List<ConfigurationLocation>> moduleToLocations,
+                                            final int scanThreads) {
+        final ExecutorService executor = project.getService(ScanExecutor.class).executorFor(scanThreads);
+        final boolean suppressErrors = configurationManager().getCurrent().isSuppressErrors();
+        final ProgressIndicator indicator = ProgressManager.getGlobalProgressIndicator();
+
+        final List<CompletableFuture<List<ScanResult>>> moduleScans = new ArrayList<>();
+        moduleToLocations.forEach((module, locations) -> moduleScans.add(
+                scanModule(module, moduleToFiles.get(module), locations, suppressErrors, executor, indicator)));
+
+        try {
+            CompletableFuture.allOf(moduleScans.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new CheckStylePluginException("An error occurred while scanning a file.", e.getCause());
         }
 
+        final List<ScanResult> scanResults = new ArrayList<>();
+        moduleScans.forEach(moduleScan -> scanResults.addAll(moduleScan.join()));
         return scanResults;
     }
 
+    private CompletableFuture<List<ScanResult>> scanModule(final Module module,
+                                                           final Set<PsiFile> filesToScan,
+                                                           final List<ConfigurationLocation> configurationLocations,
+                                                           final boolean suppressErrors,
+                                                           final ExecutorService executor,
+                                                           @Nullable final ProgressIndicator indicator) {
+        final CompletableFuture<List<ScannableFile>> scannableFiles = CompletableFuture.supplyAsync(
+                () -> underProgress(indicator, () -> ScannableFile.createAndValidate(
+                        filesToScan, module.getProject(), module, overrideConfigLocation)),
+                executor);
+
+        final List<CompletableFuture<ScanResult>> locationScans = configurationLocations.stream()
+                .map(location -> scannableFiles.thenApplyAsync(
+                        toScan -> underProgress(indicator, () -> checkLocation(module, location, toScan, suppressErrors)),
+                        executor))
+                .toList();
+
+        return CompletableFuture.allOf(locationScans.toArray(new CompletableFuture[0]))
+                .whenComplete((ignored, error) -> {
+                    scannableFiles.thenAccept(toDelete -> toDelete.forEach(ScannableFile::deleteIfRequired));
+                    if (error == null) {
+                        fireFilesScanned(filesToScan.size());
+                    }
+                })
+                .thenApply(ignored -> locationScans.stream().map(CompletableFuture::join).toList());
+    }
+
+    /**
+     * Run a unit of work under the scan's indicator, so that cancelling the scan also cancels its pooled work.
+     */
+    private static <T> T underProgress(@Nullable final ProgressIndicator indicator, final Supplier<T> work) {
+        if (indicator == null) {
+            return work.get();
+        }
+        final Ref<T> result = new Ref<>();
+        ProgressManager.getInstance().executeProcessUnderProgress(() -> result.set(work.get()), indicator);
+        return result.get();
+    }
+
     @NotNull
     private List<ConfigurationLocationResult> configurationLocation(
             final ConfigurationLocation override,
@@ -187,15 +329,10 @@ public class ScanFiles implements Callable<List<ScanResult>> {
         try {
             scannableFiles.addAll(ScannableFile.createAndValidate(filesToScan, module.getProject(), module, this.overrideConfigLocation));
 
+            final boolean suppressErrors = configurationManager().getCurrent().isSuppressErrors();
             final List<ScanResult> scanResults = new ArrayList<>();
             for (ConfigurationLocation configurationLocation : configurationLocations) {
-                var checker = checkerFactory().checker(module, configurationLocation);
-                if (checker.isPresent()) {
-                    var problems = checker.get().scan(scannableFiles, configurationManager().getCurrent().isSuppressErrors());
-                    scanResults.add(new ScanResult(ConfigurationLocationResult.of(configurationLocation, PRESENT), module, problems));
-                } else {
-                    throw new CheckStylePluginException("Could not create checker for location " + configurationLocation + ", see logs for details.");
-                }
+                scanResults.add(checkLocation(module, configurationLocation, scannableFiles, suppressErrors));
             }
             return scanResults;
 
@@ -204,6 +341,63 @@ public class ScanFiles implements Callable<List<ScanResult>> {
         }
     }
 
+    /**
+     * Scan the files with the location, reusing cached results for any files unchanged since they were last scanned.
+     */
+    private ScanResult checkLocation(final Module module,
+                                     final ConfigurationLocation configurationLocation,
+                                     final List<ScannableFile> scannableFiles,
+                                     final boolean suppressErrors) {
+        final ScanResultCache resultCache = scanResultCache();
+        final Optional<String> fingerprint = context.fingerprints.computeIfAbsent(
+                new LocationKey(module, configurationLocation),
+                key -> resultCache.fingerprintOf(module, configurationLocation));
+
+        final Map<PsiFile, List<Problem>> problems = new HashMap<>();
+        final Map<ScannableFile, String> cacheKeys = new HashMap<>();
+        final List<ScannableFile> filesToScan = new ArrayList<>();
+        for (final ScannableFile scannableFile : scannableFiles) {
+            final PsiFile psiFile = scannableFile.getPsiFile();
+            final Optional<List<Problem>> cachedProblems = fingerprint.map(it -> resultCache.keyFor(it, scannableFile))
+                    .flatMap(cacheKey -> {
+                        cacheKeys.put(scannableFile, cacheKey);
+                        return resultCache.get(cacheKey, psiFile, suppressErrors);
+                    });
+            if (cachedProblems.isPresent()) {
+                if (!cachedProblems.get().isEmpty()) {
+                    problems.put(psiFile, cachedProblems.get());
+                    fireFileResultsAvailable(module, configurationLocation, psiFile, cachedProblems.get());
+                }
+            } else {
+                filesToScan.add(scannableFile);
+            }
+        }
+        LOG.debug("Scanning ", filesToScan.size(), " of ", scannableFiles.size(), " files with ", configurationLocation);
+
+        if (!filesToScan.isEmpty()) {
+            var scannedProblems = checkerFactory().scan(module, configurationLocation, filesToScan, suppressErrors,
+                    (psiFile, fileProblems) -> fireFileResultsAvailable(module, configurationLocation, psiFile, fileProblems));
+            if (scannedProblems.isEmpty()) {
+                throw new CheckStylePluginException("Could not create checker for location " + configurationLocation + ", see logs for details.");
+            }
+            problems.putAll(scannedProblems.get());
+
+            for (final ScannableFile scannedFile : filesToScan) {
+                final String cacheKey = cacheKeys.get(scannedFile);
+                if (cacheKey != null) {
+                    final PsiFile psiFile = scannedFile.getPsiFile();
+                    resultCache.put(cacheKey, scannedProblems.get().getOrDefault(psiFile, List.of()));
+                }
+            }
+        }
+
+        return new ScanResult(ConfigurationLocationResult.of(configurationLocation, PRESENT), module, problems);
+    }
+
+    private ScanResultCache scanResultCache() {
+        return project.getService(ScanResultCache.class);
+    }
+
     private CheckerFactory checkerFactory() {
         return project.getService(CheckerFactory.class);
     }
@@ -216,27 +410,58 @@ public class ScanFiles implements Callable<List<ScanResult>> {
         return project.getService(ConfigurationLocationSource.class);
     }
 
-    private static class FindChildFiles extends VirtualFileVisitor {
+    /**
+     * What a scan resolves other than its files, which may be shared by scans of further files.
+     */
+    private static final class ScanContext {
+        private final Map<Module, List<ConfigurationLocationResult>> locationsByModule = new ConcurrentHashMap<>();
+        private final Map<LocationKey, Optional<String>> fingerprints = new ConcurrentHashMap<>();
+        private final AtomicBoolean saveRequested = new AtomicBoolean();
+    }
+
+    private record LocationKey(Module module, ConfigurationLocation location) {
+    }
+
+    private static final class FindChildFiles extends VirtualFileVisitor<Void> {
 
-        private final VirtualFile virtualFile;
+        private final Project project;
         private final PsiManager psiManager;
+        private final PluginConfigurationManager pluginConfig;
+        @Nullable
+        private final ConfigurationLocation overrideConfigLocation;
 
+        private final Set<VirtualFile> visitedFiles = new HashSet<>();
         private final List<PsiFile> locatedFiles = new ArrayList<>();
 
-        FindChildFiles(final VirtualFile virtualFile, final PsiManager psiManager) {
-            this.virtualFile = virtualFile;
-            this.psiManager = psiManager;
+        FindChildFiles(@NotNull final Project project,
+                       @NotNull final PluginConfigurationManager pluginConfig,
+                       @Nullable final ConfigurationLocation overrideConfigLocation) {
+            this.project = project;
+            this.psiManager = PsiManager.getInstance(project);
+            this.pluginConfig = pluginConfig;
+            this.overrideConfigLocation = overrideConfigLocation;
         }
 
         @Override
-        public boolean visitFile(@NotNull final VirtualFile file) {
-            if (!file.isDirectory()) {
-                final PsiFile psiFile = psiManager.findFile(virtualFile);
+        @NotNull
+        public Result visitFileEx(@NotNull final VirtualFile file) {
+            ProgressManager.checkCanceled();
+
+            if (!visitedFiles.add(file)) {
+                return SKIP_CHILDREN; // the given files may overlap
+            }
+
+            if (file.isDirectory()) {
+                return PsiFileValidator.mayContainCandidates(file, project, pluginConfig) ? CONTINUE : SKIP_CHILDREN;
+            }
+
+            if (PsiFileValidator.isCandidate(file, project, pluginConfig, overrideConfigLocation)) {
+                final PsiFile psiFile = psiManager.findFile(file);
                 if (psiFile != null) {
                     locatedFiles.add(psiFile);
                 }
             }
-            return true;
+            return CONTINUE;
         }
     }
 }
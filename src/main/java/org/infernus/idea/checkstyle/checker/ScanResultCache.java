@@ -0,0 +1,363 @@
+package org.infernus.idea.checkstyle.checker;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.search.scope.packageSet.NamedScope;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.infernus.idea.checkstyle.config.PluginConfiguration;
+import org.infernus.idea.checkstyle.config.PluginConfigurationManager;
+import org.infernus.idea.checkstyle.csapi.SeverityLevel;
+import org.infernus.idea.checkstyle.model.ConfigurationLocation;
+import org.infernus.idea.checkstyle.util.SymbolTable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Persistent cache of static scan results, stored in the project's {@code .idea} directory.
+ * <p>
+ * Entries are keyed on a hash of the file's path and content, together with a fingerprint of everything
+ * else that may affect the result: the configuration location and the effective inputs to its checker
+ * (its content, the properties it uses and the associated files it names), the Checkstyle version and the
+ * third-party classpath. Problems are stored as offsets and rebound to the PSI when read back.
+ * <p>
+ * Changes are written to disk a little after the scan that made them, so that a run of scans writes the
+ * cache once, and when the project is closed.
+ */
+public class ScanResultCache implements Disposable {
+
+    private static final Logger LOG = Logger.getInstance(ScanResultCache.class);
+
+    private static final String CACHE_FILE_NAME = "checkstyle-idea-results.cache";
+    private static final int FORMAT_VERSION = 3;
+    private static final int MAX_ENTRIES = 50000;
+    private static final long SAVE_DELAY_SECONDS = 30;
+
+    private final Project project;
+
+    private final Map<String, List<CachedProblem>> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, List<CachedProblem>> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private boolean loaded;
+    private boolean modified;
+    private ScheduledFuture<?> pendingSave;
+
+    public ScanResultCache(@NotNull final Project project) {
+        this.project = project;
+    }
+
+    /**
+     * Calculate the fingerprint of the inputs, other than the file itself, which affect the results
+     * of scanning with the given location.
+     *
+     * @return the fingerprint, or empty if the location could not be resolved.
+     */
+    public Optional<String> fingerprintOf(@Nullable final Module module,
+                                          @NotNull final ConfigurationLocation location) {
+        final PluginConfiguration configuration = configurationManager().getCurrent();
+        final MessageDigest digest = DigestUtils.getSha256Digest();
+        try {
+            update(digest, configuration.getCheckstyleVersion());
+            update(digest, module != null ? module.getName() : "");
+            update(digest, location.getId());
+            update(digest, location.getLocation());
+            update(digest, location.getNamedScope().map(NamedScope::getScopeId).orElse(""));
+            for (final String classpathEntry : configuration.getThirdPartyClasspath()) {
+                final File classpathFile = new File(classpathEntry);
+                update(digest, classpathEntry);
+                update(digest, classpathFile.lastModified() + ":" + classpathFile.length());
+            }
+            update(digest, checkerFactory().inputsHashOf(location, module));
+        } catch (IOException | RuntimeException e) {
+            LOG.debug("Unable to fingerprint location; results will not be cached: " + location, e);
+            return Optional.empty();
+        }
+        return Optional.of(DigestUtils.sha256Hex(digest.digest()));
+    }
+
+    /**
+     * Calculate the key of a file's results, from the content captured when the file was prepared for scanning,
+     * so that the key always describes the content scanned.
+     */
+    @NotNull
+    public String keyFor(@NotNull final String fingerprint,
+                         @NotNull final ScannableFile scannableFile) {
+        final PsiFile psiFile = scannableFile.getPsiFile();
+        final MessageDigest digest = DigestUtils.getSha256Digest();
+        update(digest, fingerprint);
+        ReadAction.run(() -> {
+            final VirtualFile virtualFile = psiFile.getVirtualFile();
+            update(digest, virtualFile != null ? virtualFile.getPath() : psiFile.getName());
+            update(digest, Objects.requireNonNullElseGet(scannableFile.getContentHash(),
+                    () -> DigestUtils.sha256Hex(psiFile.getViewProvider().getContents().toString())));
+        });
+        return DigestUtils.sha256Hex(digest.digest());
+    }
+
+    /**
+     * @return the cached problems for the file, or empty if the file has not been scanned with the key.
+     */
+    public Optional<List<Problem>> get(@NotNull final String key,
+                                       @NotNull final PsiFile psiFile,
+                                       final boolean suppressErrors) {
+        final List<CachedProblem> cachedProblems;
+        synchronized (entries) {
+            ensureLoaded();
+            cachedProblems = entries.get(key);
+        }
+        if (cachedProblems == null) {
+            return Optional.empty();
+        }
+
+        return ReadAction.compute(() -> {
+            if (!psiFile.isValid()) {
+                return Optional.empty();
+            }
+            final List<Problem> problems = new ArrayList<>(cachedProblems.size());
+            for (final CachedProblem cachedProblem : cachedProblems) {
+                problems.add(cachedProblem.toProblem(psiFile, suppressErrors));
+            }
+            return Optional.of(problems);
+        });
+    }
+
+    public void put(@NotNull final String key,
+                    @NotNull final List<Problem> problems) {
+        final List<CachedProblem> cachedProblems = new ArrayList<>(problems.size());
+        for (final Problem problem : problems) {
+            cachedProblems.add(CachedProblem.from(problem));
+        }
+
+        synchronized (entries) {
+            ensureLoaded();
+            entries.put(key, cachedProblems);
+            modified = true;
+        }
+    }
+
+    public void invalidate() {
+        synchronized (entries) {
+            entries.clear();
+            loaded = true;
+            modified = true;
+        }
+    }
+
+    /**
+     * Write any changes to disk shortly, unless a write is already pending.
+     */
+    public void requestSave() {
+        synchronized (entries) {
+            if (!modified || pendingSave != null) {
+                return;
+            }
+            pendingSave = AppExecutorUtil.getAppScheduledExecutorService().schedule(
+                    this::save, SAVE_DELAY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Write any changes to disk.
+     */
+    public void save() {
+        final Path cacheFile = cacheFile();
+        if (cacheFile == null) {
+            return;
+        }
+
+        synchronized (entries) {
+            if (pendingSave != null) {
+                pendingSave.cancel(false);
+                pendingSave = null;
+            }
+            if (!modified) {
+                return;
+            }
+
+            try {
+                final Path tempFile = Files.createTempFile(cacheFile.getParent(), CACHE_FILE_NAME, ".tmp");
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                        new GZIPOutputStream(Files.newOutputStream(tempFile))))) {
+                    writeEntries(out);
+                }
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+                modified = false;
+            } catch (IOException e) {
+                LOG.warn("Failed to write scan result cache to " + cacheFile, e);
+            }
+        }
+    }
+
+    @Override
+    public void dispose() {
+        save();
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+
+        final Path cacheFile = cacheFile();
+        if (cacheFile == null || !Files.exists(cacheFile)) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(cacheFile))))) {
+            readEntries(in);
+        } catch (IOException | RuntimeException e) {
+            LOG.info("Discarding unreadable scan result cache " + cacheFile, e);
+            entries.clear();
+        }
+    }
+
+    private void writeEntries(final DataOutputStream out) throws IOException {
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(entries.size());
+        for (final Map.Entry<String, List<CachedProblem>> entry : entries.entrySet()) {
+            writeString(out, entry.getKey());
+            out.writeInt(entry.getValue().size());
+            for (final CachedProblem problem : entry.getValue()) {
+                problem.writeTo(out);
+            }
+        }
+    }
+
+    private void readEntries(final DataInputStream in) throws IOException {
+        if (in.readInt() != FORMAT_VERSION) {
+            return;
+        }
+
+        final SymbolTable symbols = new SymbolTable();
+        final int entryCount = in.readInt();
+        for (int i = 0; i < entryCount; ++i) {
+            final String key = readString(in);
+            final int problemCount = in.readInt();
+            final List<CachedProblem> problems = new ArrayList<>(problemCount);
+            for (int j = 0; j < problemCount; ++j) {
+                problems.add(CachedProblem.readFrom(in, symbols));
+            }
+            entries.put(key, problems);
+        }
+    }
+
+    /**
+     * Strings are written as their length and UTF-8 bytes, as {@link DataOutputStream#writeUTF} is limited to
+     * 64KB, which a message may exceed.
+     */
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid string length: " + length);
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Nullable
+    private Path cacheFile() {
+        final String basePath = project.getBasePath();
+        if (basePath == null) {
+            return null;
+        }
+
+        final Path storeDirectory = Paths.get(basePath, Project.DIRECTORY_STORE_FOLDER);
+        if (!Files.isDirectory(storeDirectory)) {
+            return null;
+        }
+        return storeDirectory.resolve(CACHE_FILE_NAME);
+    }
+
+    private static void update(final MessageDigest digest, final String value) {
+        if (value != null) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+    }
+
+    private PluginConfigurationManager configurationManager() {
+        return project.getService(PluginConfigurationManager.class);
+    }
+
+    private CheckerFactory checkerFactory() {
+        return project.getService(CheckerFactory.class);
+    }
+
+    private record CachedProblem(int offset,
+                                 @NotNull String message,
+                                 @NotNull SeverityLevel severityLevel,
+                                 int line,
+                                 int column,
+                                 int tabWidth,
+                                 @Nullable String sourceName,
+                                 boolean afterEndOfLine) {
+
+        static CachedProblem from(@NotNull final Problem problem) {
+            return new CachedProblem(problem.offset(), problem.message(), problem.severityLevel(), problem.line(),
+                    problem.column(), problem.tabWidth(), problem.sourceName(), problem.afterEndOfLine());
+        }
+
+        Problem toProblem(@NotNull final PsiFile psiFile, final boolean suppressErrors) {
+            return new Problem(psiFile, offset, psiFile.getModificationStamp(), message, severityLevel, line, column,
+                    tabWidth, sourceName, afterEndOfLine, suppressErrors);
+        }
+
+        void writeTo(final DataOutputStream out) throws IOException {
+            out.writeInt(offset);
+            writeString(out, message);
+            writeString(out, severityLevel.name());
+            out.writeInt(line);
+            out.writeInt(column);
+            out.writeInt(tabWidth);
+            out.writeBoolean(sourceName != null);
+            if (sourceName != null) {
+                writeString(out, sourceName);
+            }
+            out.writeBoolean(afterEndOfLine);
+        }
+
+        static CachedProblem readFrom(final DataInputStream in, final SymbolTable symbols) throws IOException {
+            final int offset = in.readInt();
+            final String message = symbols.intern(readString(in));
+            final SeverityLevel severityLevel = SeverityLevel.valueOf(readString(in));
+            final int line = in.readInt();
+            final int column = in.readInt();
+            final int tabWidth = in.readInt();
+            final String sourceName = in.readBoolean() ? symbols.intern(readString(in)) : null;
+            final boolean afterEndOfLine = in.readBoolean();
+            return new CachedProblem(offset, message, severityLevel, line, column, tabWidth, sourceName,
+                    afterEndOfLine);
+        }
+    }
+}
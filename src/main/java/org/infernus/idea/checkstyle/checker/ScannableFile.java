@@ -13,7 +13,9 @@ import com.intellij.openapi.vfs.LocalFileSystem;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiJavaFile;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.infernus.idea.checkstyle.config.PluginConfigurationManager;
+import org.infernus.idea.checkstyle.exception.CheckStylePluginException;
 import org.infernus.idea.checkstyle.model.ConfigurationLocation;
 import org.infernus.idea.checkstyle.util.TempDirProvider;
 import org.jetbrains.annotations.NotNull;
@@ -49,25 +51,71 @@ public class ScannableFile {
     private final File realFile;
     private final File baseTempDir;
     private final PsiFile psiFile;
+    private final String content;
+    private final String contentHash;
+    private final String lineSeparator;
+    private final Charset charset;
+
+    private boolean temporaryCopyWritten;
 
     /**
      * Create a new scannable file from a PSI file.
      * <p>
-     * If required this will create a temporary copy of the file.
+     * If the file is not on disk or has unsaved changes then its content is captured. This is passed to
+     * Checkstyle directly where possible, and otherwise written to a temporary copy on first use of
+     * {@link #getFile()}. In either case a hash of the content is taken, so that the result of the scan may be
+     * matched to the content scanned.
      *
      * @param psiFile the psiFile to create the file from.
      * @param module  the module the file belongs to.
-     * @throws IOException if file creation is required and fails.
      */
-    public ScannableFile(@NotNull final PsiFile psiFile, @Nullable final Module module) throws IOException {
+    public ScannableFile(@NotNull final PsiFile psiFile, @Nullable final Module module) {
         this.psiFile = psiFile;
 
         if (!existsOnFilesystem(psiFile) || documentIsModifiedAndUnsaved(psiFile)) {
             baseTempDir = prepareBaseTmpDirFor(psiFile);
-            realFile = createTemporaryFileFor(psiFile, module, baseTempDir);
+            realFile = new File(parentDirFor(psiFile, module, baseTempDir), psiFile.getName());
+            content = psiFile.getText();
+            contentHash = DigestUtils.sha256Hex(content);
+            lineSeparator = CodeStyle.getSettings(psiFile.getProject()).getLineSeparator();
+            charset = charSetOf(psiFile);
         } else {
             baseTempDir = null;
             realFile = new File(pathOf(psiFile));
+            content = null;
+            // the document is unmodified, and so matches the file on disk which is scanned
+            contentHash = DigestUtils.sha256Hex(psiFile.getViewProvider().getContents().toString());
+            lineSeparator = null;
+            charset = null;
+        }
+    }
+
+    /**
+     * Create a new scannable file without reference to the IDE, for use in tests and benchmarks.
+     *
+     * @param psiFile       the psiFile the file represents.
+     * @param realFile      the file on disk; if content is given, the location to write the temporary copy to.
+     * @param content       the unsaved content of the file, or null if the file on disk is current.
+     * @param lineSeparator the line separator to use in the temporary copy.
+     * @param charset       the charset to use in the temporary copy.
+     */
+    ScannableFile(@NotNull final PsiFile psiFile,
+                  @NotNull final File realFile,
+                  @Nullable final String content,
+                  @NotNull final String lineSeparator,
+                  @NotNull final Charset charset) {
+        this.psiFile = psiFile;
+        this.realFile = realFile;
+        this.content = content;
+        this.contentHash = content != null ? DigestUtils.sha256Hex(content) : null;
+        if (content != null) {
+            this.baseTempDir = realFile.getParentFile();
+            this.lineSeparator = lineSeparator;
+            this.charset = charset;
+        } else {
+            this.baseTempDir = null;
+            this.lineSeparator = null;
+            this.charset = null;
         }
     }
 
@@ -94,16 +142,9 @@ public class ScannableFile {
     @Nullable
     private static ScannableFile create(@NotNull final PsiFile psiFile, @Nullable final Module module) {
         try {
-            final CreateScannableFileAction fileAction = new CreateScannableFileAction(psiFile, module);
-            ReadAction.run(fileAction);
-
-            if (fileAction.getFailure() != null) {
-                throw fileAction.getFailure();
-            }
-
-            return fileAction.getFile();
-        } catch (IOException e) {
-            LOG.warn("Failure when creating temporary file", e);
+            return ReadAction.compute(() -> new ScannableFile(psiFile, module));
+        } catch (IllegalStateException e) {
+            LOG.warn("Failure when preparing file for scanning", e);
             return null;
         }
     }
@@ -114,17 +155,6 @@ public class ScannableFile {
                 .orElseThrow(() -> new IllegalStateException("PSIFile " + "does not have associated virtual file: " + file));
     }
 
-    private File createTemporaryFileFor(@NotNull final PsiFile file,
-                                        @Nullable final Module module,
-                                        @NotNull final File tempDir) throws IOException {
-        final File temporaryFile = new File(parentDirFor(file, module, tempDir), file.getName());
-        temporaryFile.deleteOnExit();
-
-        writeContentsToFile(file, temporaryFile);
-
-        return temporaryFile;
-    }
-
     private File parentDirFor(@NotNull final PsiFile file,
                               @Nullable final Module module,
                               @NotNull final File baseTmpDir) {
@@ -142,9 +172,6 @@ public class ScannableFile {
             tmpDirForFile = baseTmpDir;
         }
 
-        //noinspection ResultOfMethodCallIgnored
-        tmpDirForFile.mkdirs();
-
         return tmpDirForFile;
     }
 
@@ -213,19 +240,14 @@ public class ScannableFile {
                 .map(fileDocumentManager::isDocumentUnsaved).orElse(false);
     }
 
-    private void writeContentsToFile(final PsiFile file, final File outFile) throws IOException {
-        final String lineSeparator = CodeStyle.getSettings(file.getProject()).getLineSeparator();
+    private void writeContentsToFile(final File outFile) throws IOException {
+        //noinspection ResultOfMethodCallIgnored
+        outFile.getParentFile().mkdirs();
+        outFile.deleteOnExit();
 
-        final Writer tempFileOut = writerTo(outFile, charSetOf(file));
-        for (final char character : file.getText().toCharArray()) {
-            if (character == '\n') { // IDEA uses \n internally
-                tempFileOut.write(lineSeparator);
-            } else {
-                tempFileOut.write(character);
-            }
+        try (Writer tempFileOut = writerTo(outFile, charset)) {
+            tempFileOut.write(content.replace("\n", lineSeparator)); // IDEA uses \n internally
         }
-        tempFileOut.flush();
-        tempFileOut.close();
     }
 
     @NotNull
@@ -242,10 +264,37 @@ public class ScannableFile {
         return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outFile), charset.newEncoder()));
     }
 
-    public File getFile() {
+    /**
+     * @return the file on disk; for unsaved or non-local files this is a temporary copy, written on demand.
+     */
+    public synchronized File getFile() {
+        if (content != null && !temporaryCopyWritten) {
+            try {
+                writeContentsToFile(realFile);
+                temporaryCopyWritten = true;
+            } catch (IOException e) {
+                throw new CheckStylePluginException("Failure when creating temporary file " + realFile, e);
+            }
+        }
         return realFile;
     }
 
+    /**
+     * @return the current text of the file if it differs from, or is absent from, the disk; otherwise null.
+     */
+    @Nullable
+    public String getContent() {
+        return content;
+    }
+
+    /**
+     * @return a hash of the content of the file when this was created, or null if it was not taken.
+     */
+    @Nullable
+    public String getContentHash() {
+        return contentHash;
+    }
+
     public static void deleteIfRequired(@Nullable final ScannableFile scannableFile) {
         if (scannableFile != null) {
             scannableFile.deleteIfRequired();
@@ -6,14 +6,36 @@ import org.infernus.idea.checkstyle.model.ScanResult;
 
 import java.util.List;
 
+/**
+ * Notified of the progress of a scan.
+ * <p>
+ * A parallel scan reports the files scanned, and the results of each file, from each of its worker threads, and so
+ * {@link #filesScanned(int)} and {@link #fileResultsAvailable(ScanResult)} may be called concurrently.
+ */
 public interface ScannerListener {
 
     void scanStarting(List<PsiFile> filesToScan);
 
     void filesScanned(int count);
 
+    /**
+     * Called with the problems found in a single file by a single configuration location, as soon as they are
+     * available and before the scan completes. Only files with problems are reported.
+     *
+     * @param fileResult the result for the file.
+     */
+    default void fileResultsAvailable(ScanResult fileResult) {
+    }
+
     void scanCompletedSuccessfully(List<ScanResult> scanResults);
 
     void scanFailedWithError(CheckStylePluginException error);
 
+    /**
+     * Called if the scan is cancelled before it completes, in place of any other notice of completion. Results
+     * reported for individual files before the cancellation are incomplete.
+     */
+    default void scanCancelled() {
+    }
+
 }
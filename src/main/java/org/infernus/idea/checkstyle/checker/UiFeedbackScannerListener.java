@@ -3,6 +3,7 @@ package org.infernus.idea.checkstyle.checker;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.psi.PsiFile;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import org.infernus.idea.checkstyle.CheckStyleBundle;
 import org.infernus.idea.checkstyle.exception.CheckStylePluginException;
 import org.infernus.idea.checkstyle.model.ConfigurationLocation;
@@ -12,10 +13,27 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Shows the progress and results of a scan in the tool window.
+ * <p>
+ * Callbacks may arrive from several of a scan's threads at once. The tool window is only updated on the event
+ * thread, and the results awaiting display are guarded by their own lock.
+ */
 public class UiFeedbackScannerListener implements ScannerListener {
+    /**
+     * Results for individual files are collected and displayed together at most this often, as redrawing the
+     * results tree for each file would swamp the EDT on large scans.
+     */
+    private static final long PARTIAL_RESULTS_INTERVAL_MS = 250L;
+
     private final Project project;
 
+    private final List<ScanResult> pendingFileResults = new ArrayList<>();
+    private boolean partialResultsUpdateScheduled;
+    private volatile boolean scanFinished;
+
     public UiFeedbackScannerListener(final Project project) {
         this.project = project;
     }
@@ -41,8 +59,50 @@ public class UiFeedbackScannerListener implements ScannerListener {
         });
     }
 
+    @Override
+    public void fileResultsAvailable(final ScanResult fileResult) {
+        synchronized (pendingFileResults) {
+            pendingFileResults.add(fileResult);
+            if (partialResultsUpdateScheduled) {
+                return;
+            }
+            partialResultsUpdateScheduled = true;
+        }
+
+        AppExecutorUtil.getAppScheduledExecutorService().schedule(
+                () -> ApplicationManager.getApplication().invokeLater(this::displayPendingFileResults),
+                PARTIAL_RESULTS_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private void displayPendingFileResults() {
+        final List<ScanResult> fileResults;
+        synchronized (pendingFileResults) {
+            fileResults = new ArrayList<>(pendingFileResults);
+            pendingFileResults.clear();
+            partialResultsUpdateScheduled = false;
+        }
+
+        // the final results replace any partial ones, so anything arriving afterwards is stale
+        if (scanFinished || fileResults.isEmpty()) {
+            return;
+        }
+
+        final CheckStyleToolWindowPanel toolWindowPanel = toolWindowPanel();
+        if (toolWindowPanel != null) {
+            toolWindowPanel.displayPartialResults(fileResults);
+        }
+    }
+
+    private void finishScan() {
+        scanFinished = true;
+        synchronized (pendingFileResults) {
+            pendingFileResults.clear();
+        }
+    }
+
     @Override
     public void scanCompletedSuccessfully(final List<ScanResult> scanResults) {
+        finishScan();
         ApplicationManager.getApplication().invokeLater(() -> {
             final CheckStyleToolWindowPanel toolWindowPanel = toolWindowPanel();
             if (toolWindowPanel != null) {
@@ -75,6 +135,7 @@ public class UiFeedbackScannerListener implements ScannerListener {
 
     @Override
     public void scanFailedWithError(final CheckStylePluginException error) {
+        finishScan();
         ApplicationManager.getApplication().invokeLater(() -> {
             final CheckStyleToolWindowPanel toolWindowPanel = toolWindowPanel();
             if (toolWindowPanel != null) {
@@ -83,6 +144,18 @@ public class UiFeedbackScannerListener implements ScannerListener {
         });
     }
 
+    @Override
+    public void scanCancelled() {
+        finishScan();
+        ApplicationManager.getApplication().invokeLater(() -> {
+            final CheckStyleToolWindowPanel toolWindowPanel = toolWindowPanel();
+            if (toolWindowPanel != null) {
+                // any partial results are incomplete, and so are cleared
+                toolWindowPanel.displayWarningResult("plugin.status.aborted");
+            }
+        });
+    }
+
     @Nullable
     private CheckStyleToolWindowPanel toolWindowPanel() {
         return CheckStyleToolWindowPanel.panelFor(project);
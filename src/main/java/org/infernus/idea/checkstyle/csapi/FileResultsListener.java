@@ -0,0 +1,24 @@
+package org.infernus.idea.checkstyle.csapi;
+
+import com.intellij.psi.PsiFile;
+import org.infernus.idea.checkstyle.checker.Problem;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+
+/**
+ * Receives the problems found in each file of a scan as soon as Checkstyle has finished with the file, rather than
+ * when the whole scan is complete.
+ */
+public interface FileResultsListener {
+
+    /**
+     * Called for each file in which problems were found. This is called on the scanning thread, and so should
+     * return promptly.
+     *
+     * @param psiFile  the file.
+     * @param problems the problems found in the file.
+     */
+    void fileScanned(@NotNull PsiFile psiFile, @NotNull List<Problem> problems);
+}
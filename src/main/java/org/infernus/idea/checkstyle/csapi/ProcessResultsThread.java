@@ -1,15 +1,15 @@
 package org.infernus.idea.checkstyle.csapi;
 
 import com.intellij.openapi.diagnostic.Logger;
-import com.intellij.psi.PsiElement;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.psi.PsiFile;
-import com.intellij.psi.PsiInvalidElementAccessException;
 import com.intellij.util.ThrowableRunnable;
 import org.infernus.idea.checkstyle.checker.Problem;
 import org.infernus.idea.checkstyle.checks.Check;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.File;
+import java.nio.CharBuffer;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Paths;
 import java.util.*;
@@ -29,29 +29,6 @@ public class ProcessResultsThread implements ThrowableRunnable<RuntimeException>
     private final Map<PsiFile, List<Problem>> problems = new HashMap<>();
 
 
-    private static final class Position {
-        private final boolean afterEndOfLine;
-        private final int offset;
-
-        public static Position at(final int offset, final boolean afterEndOfLine) {
-            return new Position(offset, afterEndOfLine);
-        }
-
-        public static Position at(final int offset) {
-            return new Position(offset, false);
-        }
-
-        private Position(final int offset, final boolean afterEndOfLine) {
-            this.offset = offset;
-            this.afterEndOfLine = afterEndOfLine;
-        }
-
-        private PsiElement element(final PsiFile psiFile) {
-            return psiFile.findElementAt(offset);
-        }
-    }
-
-
     public ProcessResultsThread(final boolean suppressErrors,
                                 final List<Check> checks,
                                 final int tabWidth,
@@ -69,26 +46,33 @@ public class ProcessResultsThread implements ThrowableRunnable<RuntimeException>
 
     @Override
     public void run() {
-        final Map<PsiFile, List<Integer>> lineLengthCachesByFile = new HashMap<>();
+        final Map<String, PsiFile> psiFilesByEventFileName = new HashMap<>();
+        final Map<PsiFile, LineIndex> lineIndicesByFile = new HashMap<>();
+        final Set<String> unmappedEventFileNames = new HashSet<>();
 
         for (final Issue event : errors) {
-            final PsiFile psiFile = fileNamesToPsiFiles.get(filenameFrom(event));
+            ProgressManager.checkCanceled();
+
+            final PsiFile psiFile = psiFilesByEventFileName.computeIfAbsent(event.fileName,
+                    eventFileName -> fileNamesToPsiFiles.get(filenameFrom(event)));
             if (psiFile == null) {
-                LOG.info("Could not find mapping for file: " + event.fileName + " in " + fileNamesToPsiFiles);
-                return;
+                // the issues of the other files still apply
+                if (unmappedEventFileNames.add(event.fileName)) {
+                    LOG.info("Could not find mapping for file: " + event.fileName + " in " + fileNamesToPsiFiles);
+                }
+                continue;
             }
-
-            List<Integer> lineLengthCache = lineLengthCachesByFile.get(psiFile);
-            if (lineLengthCache == null) {
-                // we cache the offset of each line as it is created, so as to
-                // avoid retreating ground we've already covered.
-                lineLengthCache = new ArrayList<>();
-                lineLengthCache.add(0); // line 1 is offset 0
-
-                lineLengthCachesByFile.put(psiFile, lineLengthCache);
+            if (!psiFile.isValid()) {
+                // the file has changed or been deleted since it was scanned, and the results no longer apply
+                LOG.debug("Skipping results for invalidated file: ", event.fileName);
+                continue;
             }
 
-            processEvent(psiFile, lineLengthCache, event);
+            // the index is built once per file, as taking the text of a PSI file copies it
+            final LineIndex lineIndex = lineIndicesByFile.computeIfAbsent(psiFile,
+                    file -> new LineIndex(file.textToCharArray(), tabWidth));
+
+            processEvent(psiFile, lineIndex, event);
         }
     }
 
@@ -115,33 +99,16 @@ public class ProcessResultsThread implements ThrowableRunnable<RuntimeException>
         return path;
     }
 
-    private void processEvent(final PsiFile psiFile, final List<Integer> lineLengthCache, final Issue event) {
+    private void processEvent(final PsiFile psiFile, final LineIndex lineIndex, final Issue event) {
         if (additionalChecksFail(psiFile, event)) {
             return;
         }
 
-        final Position position = findPosition(lineLengthCache, event, psiFile.textToCharArray());
-        final PsiElement victim = position.element(psiFile);
-
-        if (victim != null) {
-            addProblemTo(victim, psiFile, event, position.afterEndOfLine);
-        } else {
-            addProblemTo(psiFile, psiFile, event, false);
-            LOG.debug("Couldn't find victim for error: " + event.fileName + "(" + event.lineNumber + ":"
-                    + event.columnNumber + ") " + event.message);
-        }
-    }
-
-    private void addProblemTo(final PsiElement victim,
-                              final PsiFile psiFile,
-                              @NotNull final Issue event,
-                              final boolean afterEndOfLine) {
-        try {
-            addProblem(psiFile, new Problem(victim, event.message, event.severityLevel, event.lineNumber,
-                    event.columnNumber, event.sourceName, afterEndOfLine, suppressErrors));
-        } catch (PsiInvalidElementAccessException e) {
-            LOG.warn("Element access failed", e);
-        }
+        // the element is only resolved when needed, as finding it would require the file to be parsed
+        addProblem(psiFile, new Problem(psiFile, lineIndex.offsetOf(event.lineNumber, event.columnNumber),
+                psiFile.getModificationStamp(), event.message, event.severityLevel, event.lineNumber,
+                event.columnNumber, tabWidth, event.sourceName,
+                lineIndex.isAfterEndOfLine(event.lineNumber, event.columnNumber), suppressErrors));
     }
 
     private boolean additionalChecksFail(final PsiFile psiFile, final Issue event) {
@@ -154,72 +121,116 @@ public class ProcessResultsThread implements ThrowableRunnable<RuntimeException>
     }
 
     @NotNull
-    private Position findPosition(final List<Integer> lineLengthCache, final Issue event, final char[] text) {
-        if (event.lineNumber == 0) {
-            return Position.at(event.columnNumber);
-        } else if (event.lineNumber <= lineLengthCache.size()) {
-            return Position.at(lineLengthCache.get(event.lineNumber - 1) + event.columnNumber);
-        } else {
-            return searchFromEndOfCachedData(lineLengthCache, event, text);
-        }
+    public Map<PsiFile, List<Problem>> getProblems() {
+        return Collections.unmodifiableMap(problems);
     }
 
-    @NotNull
-    private Position searchFromEndOfCachedData(final List<Integer> lineLengthCache,
-                                               final Issue event,
-                                               final char[] text) {
-        final Position position;
-        int offset = lineLengthCache.get(lineLengthCache.size() - 1);
-        boolean afterEndOfLine = false;
-        int line = lineLengthCache.size();
-
-        int column = 0;
-        for (int i = offset; i < text.length; ++i) {
-            final char character = text[i];
-
-            // for linefeeds we need to handle CR, LF and CRLF,
-            // hence we accept either and only trigger a new
-            // line on the LF of CRLF.
-            final char nextChar = nextCharacter(text, i);
-            if (character == '\n' || character == '\r' && nextChar != '\n') {
-                ++line;
-                ++offset;
-                lineLengthCache.add(offset);
-                column = 0;
-            } else if (character == '\t') {
-                column += tabWidth;
-                ++offset;
-            } else {
-                ++column;
-                ++offset;
-            }
+    private void addProblem(final PsiFile psiFile, final Problem problem) {
+        problems.computeIfAbsent(psiFile, key -> new ArrayList<>()).add(problem);
+    }
 
-            if (event.lineNumber == line && event.columnNumber == column) {
-                if (column == 0 && Character.isWhitespace(nextChar)) {
-                    afterEndOfLine = true;
+    /**
+     * The start offset of each line of a file, built in a single pass over its text, so that issues may be
+     * mapped to offsets without further allocation or rescanning of the text.
+     */
+    public static final class LineIndex {
+        private final char[] text;
+        private final CharSequence textView;
+        private final int tabWidth;
+        private final int[] lineStarts;
+        private final int lineCount;
+
+        LineIndex(@NotNull final char[] text, final int tabWidth) {
+            this.text = text;
+            this.textView = CharBuffer.wrap(text);
+            this.tabWidth = tabWidth;
+
+            int[] starts = new int[Math.max(16, text.length / 32)];
+            int count = 1; // line 1 starts at offset 0
+            for (int i = 0; i < text.length; ++i) {
+                // accept CR, LF and CRLF, only starting a new line on the LF of CRLF
+                final char character = text[i];
+                if (character == '\n' || character == '\r' && (i + 1 >= text.length || text[i + 1] != '\n')) {
+                    if (count == starts.length) {
+                        starts = Arrays.copyOf(starts, starts.length * 2);
+                    }
+                    starts[count++] = i + 1;
                 }
-                break;
             }
+            this.lineStarts = starts;
+            this.lineCount = count;
         }
 
-        position = Position.at(offset, afterEndOfLine);
-        return position;
-    }
+        /**
+         * Find the offset of an issue reported by Checkstyle.
+         *
+         * @param line   the line, starting at 1; or 0 if the issue applies to the file, in which case the column is
+         *               taken as the offset.
+         * @param column the column, starting at 1, with tabs expanded to the next tab stop as Checkstyle does;
+         *               or 0 for the start of the line.
+         * @return the offset of the text following the column, bounded by the end of the line.
+         */
+        int offsetOf(final int line, final int column) {
+            if (line == 0) {
+                return Math.min(Math.max(column, 0), text.length);
+            }
+            if (line > lineCount) {
+                return text.length;
+            }
 
-    private char nextCharacter(final char[] text, final int i) {
-        if ((i + 1) < text.length) {
-            return text[i + 1];
+            return offsetOfColumn(textView, lineStart(line), lineEnd(line), column, tabWidth);
+        }
+
+        /**
+         * Find the offset of a column within a line of text, such as that of a file modified since it was scanned.
+         *
+         * @param text      the text.
+         * @param lineStart the offset of the start of the line.
+         * @param lineEnd   the offset of the end of the line, excluding the line separator.
+         * @param column    the column, with tabs expanded to the next tab stop as Checkstyle does.
+         * @param tabWidth  the width of a tab.
+         * @return the offset of the text following the column, bounded by the end of the line.
+         */
+        public static int offsetOfColumn(@NotNull final CharSequence text,
+                                         final int lineStart,
+                                         final int lineEnd,
+                                         final int column,
+                                         final int tabWidth) {
+            final int tabStop = Math.max(tabWidth, 1);
+            int expandedColumn = 0;
+            int offset = lineStart;
+            while (expandedColumn < column && offset < lineEnd) {
+                if (text.charAt(offset) == '\t') {
+                    expandedColumn = (expandedColumn / tabStop + 1) * tabStop;
+                } else {
+                    ++expandedColumn;
+                }
+                ++offset;
+            }
+            return offset;
         }
-        return '\0';
-    }
 
+        /**
+         * Issues for a whole line are shown after the end of line, if the line begins with whitespace.
+         */
+        boolean isAfterEndOfLine(final int line, final int column) {
+            if (line <= 1 || line > lineCount || column != 0) {
+                return false;
+            }
+            final int lineStart = lineStart(line);
+            return lineStart < text.length && Character.isWhitespace(text[lineStart]);
+        }
 
-    @NotNull
-    public Map<PsiFile, List<Problem>> getProblems() {
-        return Collections.unmodifiableMap(problems);
-    }
+        private int lineStart(final int line) {
+            return lineStarts[line - 1];
+        }
 
-    private void addProblem(final PsiFile psiFile, final Problem problem) {
-        problems.computeIfAbsent(psiFile, key -> new ArrayList<>()).add(problem);
+        private int lineEnd(final int line) {
+            int lineEnd = line < lineCount ? lineStarts[line] : text.length;
+            while (lineEnd > lineStart(line) && (text[lineEnd - 1] == '\n' || text[lineEnd - 1] == '\r')) {
+                --lineEnd;
+            }
+            return lineEnd;
+        }
     }
 }
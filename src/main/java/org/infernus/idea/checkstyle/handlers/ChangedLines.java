@@ -0,0 +1,162 @@
+package org.infernus.idea.checkstyle.handlers;
+
+import com.intellij.diff.comparison.ComparisonManager;
+import com.intellij.diff.comparison.ComparisonPolicy;
+import com.intellij.diff.comparison.DiffTooBigException;
+import com.intellij.diff.fragments.LineFragment;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.vcs.VcsException;
+import com.intellij.openapi.vcs.changes.Change;
+import com.intellij.openapi.vcs.changes.ContentRevision;
+import com.intellij.psi.PsiComment;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiWhiteSpace;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+/**
+ * The lines of a file altered by a change, ignoring alterations to whitespace alone.
+ * <p>
+ * Lines are numbered from 1, as Checkstyle numbers them. Problems reported on line 0 apply to the file as a whole,
+ * and so are held to be on a changed line of any file with significant changes.
+ */
+final class ChangedLines {
+
+    private static final Logger LOG = Logger.getInstance(ChangedLines.class);
+
+    static final ChangedLines WHOLE_FILE = new ChangedLines(new BitSet(), true, true);
+
+    private final BitSet lines;
+    private final boolean wholeFile;
+    private final boolean codeChanged;
+
+    ChangedLines(@NotNull final BitSet lines,
+                 final boolean wholeFile,
+                 final boolean codeChanged) {
+        this.lines = lines;
+        this.wholeFile = wholeFile;
+        this.codeChanged = codeChanged;
+    }
+
+    /**
+     * Find the lines of a file altered by a change.
+     *
+     * @param change    the change to the file.
+     * @param psiFile   the file as it is to be committed.
+     * @param indicator the progress of the comparison.
+     * @return the changed lines; or the whole file if it is new, or cannot be compared with its previous revision.
+     */
+    @NotNull
+    static ChangedLines of(@NotNull final Change change,
+                           @NotNull final PsiFile psiFile,
+                           @NotNull final ProgressIndicator indicator) {
+        final ContentRevision beforeRevision = change.getBeforeRevision();
+        if (beforeRevision == null) {
+            return WHOLE_FILE;
+        }
+
+        final String before;
+        try {
+            before = beforeRevision.getContent();
+        } catch (VcsException e) {
+            LOG.debug("Unable to read previous revision; treating the whole file as changed: " + psiFile.getName(), e);
+            return WHOLE_FILE;
+        }
+        if (before == null) {
+            return WHOLE_FILE;
+        }
+
+        // the text scanned is that of the PSI, so the lines compared must be too
+        final String after = ReadAction.compute(psiFile::getText);
+        final List<LineFragment> fragments;
+        try {
+            fragments = ComparisonManager.getInstance()
+                    .compareLines(before, after, ComparisonPolicy.IGNORE_WHITESPACES, indicator);
+        } catch (DiffTooBigException e) {
+            LOG.debug("File too large to compare; treating the whole file as changed: ", psiFile.getName());
+            return WHOLE_FILE;
+        }
+
+        return ReadAction.compute(() -> fromFragments(fragments,
+                (startOffset, endOffset) -> psiFile.isValid() && containsCode(psiFile, startOffset, endOffset)));
+    }
+
+    /**
+     * Find the changed lines described by the fragments of a comparison.
+     * <p>
+     * A fragment which only deletes lines has no lines of its own in the file, and so the lines either side of the
+     * deletion are held to be changed. As the text deleted cannot be examined, such a fragment is held to have
+     * changed code.
+     *
+     * @param fragments    the fragments of the comparison of the previous revision with the file.
+     * @param containsCode tests whether the file has code, rather than whitespace or comments, between two offsets.
+     * @return the changed lines.
+     */
+    @NotNull
+    static ChangedLines fromFragments(@NotNull final List<LineFragment> fragments,
+                                      @NotNull final BiPredicate<Integer, Integer> containsCode) {
+        final BitSet changedLines = new BitSet();
+        boolean codeChanged = false;
+        for (final LineFragment fragment : fragments) {
+            if (fragment.getStartLine2() == fragment.getEndLine2()) {
+                changedLines.set(Math.max(1, fragment.getStartLine2()), fragment.getStartLine2() + 2);
+                codeChanged = true;
+            } else {
+                changedLines.set(fragment.getStartLine2() + 1, fragment.getEndLine2() + 1);
+                if (!codeChanged) {
+                    codeChanged = containsCode.test(fragment.getStartOffset2(), fragment.getEndOffset2());
+                }
+            }
+        }
+        return new ChangedLines(changedLines, false, codeChanged);
+    }
+
+    private static boolean containsCode(final PsiFile psiFile, final int startOffset, final int endOffset) {
+        PsiElement leaf = psiFile.findElementAt(startOffset);
+        while (leaf != null && leaf.getTextRange().getStartOffset() < endOffset) {
+            if (!(leaf instanceof PsiWhiteSpace) && PsiTreeUtil.getParentOfType(leaf, PsiComment.class, false) == null) {
+                return true;
+            }
+            leaf = PsiTreeUtil.nextLeaf(leaf);
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the change is worth scanning, i.e. it alters more than whitespace and comments.
+     */
+    boolean isSignificant() {
+        return wholeFile || codeChanged;
+    }
+
+    /**
+     * @return the number of lines changed, or {@link Integer#MAX_VALUE} if the whole file is taken as changed.
+     */
+    int changedLineCount() {
+        if (wholeFile) {
+            return Integer.MAX_VALUE;
+        }
+        return lines.cardinality();
+    }
+
+    /**
+     * @param line the line, numbered from 1; or 0 for the file as a whole.
+     * @return true if a problem on the line should be reported.
+     */
+    boolean contains(final int line) {
+        if (wholeFile) {
+            return true;
+        }
+        if (line == 0) {
+            return isSignificant();
+        }
+        return lines.get(line);
+    }
+}
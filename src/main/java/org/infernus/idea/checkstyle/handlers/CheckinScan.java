@@ -0,0 +1,361 @@
+package org.infernus.idea.checkstyle.handlers;
+
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vcs.changes.Change;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import org.infernus.idea.checkstyle.StaticScanner;
+import org.infernus.idea.checkstyle.checker.Problem;
+import org.infernus.idea.checkstyle.checker.ScanFiles;
+import org.infernus.idea.checkstyle.checker.ScannerListener;
+import org.infernus.idea.checkstyle.csapi.SeverityLevel;
+import org.infernus.idea.checkstyle.exception.CheckStylePluginException;
+import org.infernus.idea.checkstyle.model.ScanResult;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.infernus.idea.checkstyle.CheckStyleBundle.message;
+
+/**
+ * The scan of the files in a commit.
+ * <p>
+ * When the scan has a time limit, files are scanned in batches, those with the most lines changed first, so that
+ * a scan which runs out of time has covered the largest changes; and it may then be resumed, in the foreground or
+ * the background, from where it stopped.
+ */
+final class CheckinScan {
+
+    private static final Logger LOG = Logger.getInstance(CheckinScan.class);
+
+    static final int NO_TIME_LIMIT = 0;
+
+    private static final int FILES_PER_BATCH = 20;
+
+    /**
+     * Changes are compared to find which files to scan first for no more than a quarter of the time limit, as the time
+     * taken to do so comes out of that allowed for the scan.
+     */
+    private static final int ORDERING_TIME_DIVISOR = 4;
+
+    private final Project project;
+    private final StaticScanner staticScanner;
+    private final ScanFiles scanContext;
+    private final boolean changedLinesOnly;
+    private final Map<VirtualFile, Change> changesByFile;
+    private final Map<VirtualFile, ChangedLines> changedLinesByFile;
+    private final Deque<VirtualFile> filesToScan;
+    private final int fileCount;
+    private final List<ScanResult> scanResults = new ArrayList<>();
+
+    private final long preparationStartTime;
+    private boolean resumed;
+    private int filesScanned;
+    private long scanNanos;
+
+    CheckinScan(@NotNull final Project project,
+                @NotNull final StaticScanner staticScanner,
+                @NotNull final ScanFiles scanContext,
+                final boolean changedLinesOnly,
+                @NotNull final Map<VirtualFile, Change> changesByFile,
+                @NotNull final Map<VirtualFile, ChangedLines> changedLinesByFile,
+                @NotNull final List<VirtualFile> filesToScan,
+                final long preparationStartTime) {
+        this.project = project;
+        this.staticScanner = staticScanner;
+        this.scanContext = scanContext;
+        this.changedLinesOnly = changedLinesOnly;
+        this.changesByFile = changesByFile;
+        this.changedLinesByFile = new HashMap<>(changedLinesByFile);
+        this.filesToScan = new ArrayDeque<>(filesToScan);
+        this.fileCount = filesToScan.size();
+        this.preparationStartTime = preparationStartTime;
+    }
+
+    /**
+     * Work out which files to scan, and in which order.
+     * <p>
+     * When the scan has a time limit, the time taken to order the files counts towards it; and so changes are
+     * only compared for a share of the limit, and those not compared in time are scanned last.
+     *
+     * @param project          the current project.
+     * @param staticScanner    the scanner to use.
+     * @param files            the files to be committed.
+     * @param changes          the changes to be committed.
+     * @param changedLinesOnly true if only problems on changed lines should be reported.
+     * @param timeLimitSeconds the time allowed for the scan, in seconds, or {@link #NO_TIME_LIMIT}.
+     * @param indicator        the progress of the preparation.
+     * @return the scan, ready to run.
+     */
+    @NotNull
+    static CheckinScan prepare(@NotNull final Project project,
+                               @NotNull final StaticScanner staticScanner,
+                               @NotNull final Collection<VirtualFile> files,
+                               @NotNull final Collection<Change> changes,
+                               final boolean changedLinesOnly,
+                               final int timeLimitSeconds,
+                               @NotNull final ProgressIndicator indicator) {
+        final long startTime = System.nanoTime();
+
+        final Map<VirtualFile, Change> changesByFile = new HashMap<>();
+        for (final Change change : changes) {
+            final VirtualFile virtualFile = change.getVirtualFile();
+            if (virtualFile != null) { // null if deleted
+                changesByFile.put(virtualFile, change);
+            }
+        }
+
+        final List<VirtualFile> filesToScan = new ArrayList<>(files);
+        final Map<VirtualFile, ChangedLines> changedLinesByFile = new HashMap<>();
+        if (timeLimitSeconds != NO_TIME_LIMIT) {
+            final long orderingDeadline = startTime + TimeUnit.SECONDS.toNanos(timeLimitSeconds) / ORDERING_TIME_DIVISOR;
+            int changeIndex = 0;
+            for (final Map.Entry<VirtualFile, Change> change : changesByFile.entrySet()) {
+                if (System.nanoTime() >= orderingDeadline) {
+                    LOG.debug("Stopped ordering files by changed lines with changes remaining: ",
+                            changesByFile.size() - changeIndex);
+                    break;
+                }
+                indicator.checkCanceled();
+                indicator.setFraction((double) changeIndex++ / changesByFile.size());
+                changedLinesByFile.put(change.getKey(), changedLinesOf(project, change.getKey(), change.getValue(), indicator));
+            }
+
+            // files we know nothing of, such as those in unversioned directories or not compared in time, go last
+            filesToScan.sort(Comparator.comparingInt(
+                    (VirtualFile file) -> changedLineCountOf(changedLinesByFile.get(file))).reversed());
+        }
+
+        return new CheckinScan(project, staticScanner, new ScanFiles(project, List.of(), null),
+                changedLinesOnly, changesByFile, changedLinesByFile, filesToScan, startTime);
+    }
+
+    @NotNull
+    private static ChangedLines changedLinesOf(@NotNull final Project project,
+                                               @NotNull final VirtualFile virtualFile,
+                                               @NotNull final Change change,
+                                               @NotNull final ProgressIndicator indicator) {
+        indicator.setText(message("handler.before.checkin.scan.changed-lines", virtualFile.getName()));
+
+        final PsiFile psiFile = ReadAction.compute(() -> virtualFile.isValid()
+                ? PsiManager.getInstance(project).findFile(virtualFile) : null);
+        if (psiFile == null) {
+            return ChangedLines.WHOLE_FILE;
+        }
+        return ChangedLines.of(change, psiFile, indicator);
+    }
+
+    private static int changedLineCountOf(final ChangedLines changedLines) {
+        if (changedLines == null) {
+            return -1;
+        }
+        return changedLines.changedLineCount();
+    }
+
+    /**
+     * Scan until all files have been scanned, or the time limit is reached. As files are scanned in batches, the
+     * limit may be overrun by the time taken to scan a single batch.
+     * <p>
+     * The time taken to prepare the scan counts towards the limit of the first call; a resumed scan is allowed the
+     * limit in full.
+     *
+     * @param timeLimitSeconds the time allowed, in seconds, or {@link #NO_TIME_LIMIT}.
+     * @param indicator        the progress of the scan.
+     * @return true if all files have been scanned.
+     */
+    boolean scan(final int timeLimitSeconds, @NotNull final ProgressIndicator indicator) {
+        indicator.setIndeterminate(false);
+
+        final long startTime = resumed ? System.nanoTime() : preparationStartTime;
+        resumed = true;
+        final long timeLimitNanos = TimeUnit.SECONDS.toNanos(timeLimitSeconds);
+        // without a time limit there is nothing to be gained by scanning in batches
+        final int batchSize = timeLimitSeconds != NO_TIME_LIMIT ? FILES_PER_BATCH : Integer.MAX_VALUE;
+
+        while (!filesToScan.isEmpty()) {
+            if (timeLimitSeconds != NO_TIME_LIMIT && System.nanoTime() - startTime >= timeLimitNanos) {
+                LOG.debug("Scan time limit reached with files remaining: ", filesToScan.size());
+                return false;
+            }
+            indicator.checkCanceled();
+
+            final List<VirtualFile> batch = new ArrayList<>(Math.min(batchSize, filesToScan.size()));
+            for (int polled = 0; !filesToScan.isEmpty() && polled < batchSize; ++polled) {
+                final VirtualFile file = filesToScan.poll();
+                if (isWorthScanning(file, indicator)) {
+                    batch.add(file);
+                } else {
+                    ++filesScanned;
+                }
+            }
+            indicator.setText(message("handler.before.checkin.scan.in-progress"));
+
+            if (!batch.isEmpty()) {
+                final long batchStartTime = System.nanoTime();
+                final List<ScanResult> batchResults = staticScanner.scanFiles(scanContext.withFiles(batch),
+                        new ProgressIndicatorScannerListener(indicator, filesScanned, fileCount));
+                scanNanos += System.nanoTime() - batchStartTime;
+                filesScanned += batch.size();
+
+                for (final ScanResult batchResult : batchResults) {
+                    scanResults.add(changedLinesOnly ? onChangedLines(batchResult) : batchResult);
+                }
+            }
+            indicator.setFraction((double) filesScanned / fileCount);
+            indicator.setText2(message("handler.before.checkin.scan.throughput",
+                    filesScanned, fileCount, filesPerSecond()));
+        }
+        return true;
+    }
+
+    /**
+     * Files whose changes alter only whitespace or comments need not be scanned when only problems on changed
+     * lines are reported. The changes are compared as the files are reached, so that files which are never
+     * reached are never compared.
+     */
+    private boolean isWorthScanning(@NotNull final VirtualFile file, @NotNull final ProgressIndicator indicator) {
+        if (!changedLinesOnly) {
+            return true;
+        }
+
+        ChangedLines changedLines = changedLinesByFile.get(file);
+        if (changedLines == null) {
+            final Change change = changesByFile.get(file);
+            if (change == null) {
+                return true;
+            }
+            changedLines = changedLinesOf(project, file, change, indicator);
+            changedLinesByFile.put(file, changedLines);
+        }
+
+        if (!changedLines.isSignificant()) {
+            LOG.debug("Skipping file with only whitespace or comment changes: ", file.getPath());
+            return false;
+        }
+        return true;
+    }
+
+    private ScanResult onChangedLines(final ScanResult scanResult) {
+        final Map<PsiFile, List<Problem>> problemsOnChangedLines = new HashMap<>();
+        scanResult.problems().forEach((psiFile, problems) -> {
+            final ChangedLines changedLines = changedLinesByFile.getOrDefault(psiFile.getVirtualFile(),
+                    ChangedLines.WHOLE_FILE);
+            final List<Problem> filteredProblems = problems.stream()
+                    .filter(problem -> changedLines.contains(problem.line()))
+                    .toList();
+            if (!filteredProblems.isEmpty()) {
+                problemsOnChangedLines.put(psiFile, filteredProblems);
+            }
+        });
+        return new ScanResult(scanResult.configurationLocationResult(), scanResult.module(), problemsOnChangedLines);
+    }
+
+    boolean isComplete() {
+        return filesToScan.isEmpty();
+    }
+
+    boolean isChangedLinesOnly() {
+        return changedLinesOnly;
+    }
+
+    /**
+     * @return the results of the files scanned so far.
+     */
+    @NotNull
+    List<ScanResult> results() {
+        return Collections.unmodifiableList(scanResults);
+    }
+
+    int filesScanned() {
+        return filesScanned;
+    }
+
+    int fileCount() {
+        return fileCount;
+    }
+
+    /**
+     * @return the number of files scanned per second of scanning, or 0 if nothing has been scanned.
+     */
+    double filesPerSecond() {
+        if (filesScanned == 0 || scanNanos == 0) {
+            return 0.0;
+        }
+        return filesScanned / (scanNanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * @return the number of problems found so far, indexed by the ordinal of their {@link SeverityLevel}.
+     */
+    long[] countsBySeverity() {
+        final long[] counts = new long[SeverityLevel.values().length];
+        for (final ScanResult scanResult : scanResults) {
+            for (final List<Problem> problems : scanResult.problems().values()) {
+                for (final Problem problem : problems) {
+                    ++counts[problem.severityLevel().ordinal()];
+                }
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Reports the progress of a batch as a fraction of the files in the whole scan.
+     */
+    private static final class ProgressIndicatorScannerListener implements ScannerListener {
+
+        private final ProgressIndicator progressIndicator;
+        private final int filesAlreadyScanned;
+        private final int fileCount;
+        private int filesToScan;
+        private int filesScanned;
+
+        ProgressIndicatorScannerListener(@NotNull final ProgressIndicator progressIndicator,
+                                         final int filesAlreadyScanned,
+                                         final int fileCount) {
+            this.progressIndicator = progressIndicator;
+            this.filesAlreadyScanned = filesAlreadyScanned;
+            this.fileCount = fileCount;
+        }
+
+        @Override
+        public synchronized void scanStarting(final List<PsiFile> filesToScan) {
+            this.filesToScan = filesToScan.size();
+            this.filesScanned = 0;
+        }
+
+        @Override
+        public synchronized void filesScanned(final int count) {
+            filesScanned += count;
+            if (filesToScan > 0 && fileCount > 0) {
+                // files may be counted once per configuration location
+                final double batchFraction = Math.min(1.0, (double) filesScanned / filesToScan);
+                final int batchSize = Math.min(filesToScan, fileCount - filesAlreadyScanned);
+                progressIndicator.setFraction((filesAlreadyScanned + batchFraction * batchSize) / fileCount);
+            }
+        }
+
+        @Override
+        public void scanCompletedSuccessfully(final List<ScanResult> scanResults) {
+            // progress is updated by the scan once the batch is complete
+        }
+
+        @Override
+        public void scanFailedWithError(final CheckStylePluginException error) {
+            // the error is reported by the scanner
+        }
+    }
+}
@@ -9,15 +9,15 @@ import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.Messages;
 import com.intellij.openapi.vcs.CheckinProjectPanel;
+import com.intellij.openapi.vcs.changes.Change;
 import com.intellij.openapi.vcs.changes.CommitExecutor;
 import com.intellij.openapi.vcs.checkin.CheckinHandler;
 import com.intellij.openapi.vcs.ui.RefreshableOnComponent;
 import com.intellij.openapi.vfs.VirtualFile;
-import com.intellij.psi.PsiFile;
 import com.intellij.util.PairConsumer;
 import com.intellij.util.ui.UIUtil;
 import org.infernus.idea.checkstyle.StaticScanner;
-import org.infernus.idea.checkstyle.checker.Problem;
+import org.infernus.idea.checkstyle.config.PluginConfiguration;
 import org.infernus.idea.checkstyle.config.PluginConfigurationBuilder;
 import org.infernus.idea.checkstyle.config.PluginConfigurationManager;
 import org.infernus.idea.checkstyle.csapi.SeverityLevel;
@@ -49,17 +49,23 @@ public class ScanFilesBeforeCheckinHandler extends CheckinHandler {
     @Nullable
     public RefreshableOnComponent getBeforeCheckinConfigurationPanel() {
         final JCheckBox checkBox = new JCheckBox(message("handler.before.checkin.checkbox"));
+        final JCheckBox changedLinesCheckBox = new JCheckBox(message("handler.before.checkin.changed-lines.checkbox"));
+        checkBox.addItemListener(event -> changedLinesCheckBox.setEnabled(checkBox.isSelected()));
 
         return new RefreshableOnComponent() {
             public JComponent getComponent() {
                 final JPanel panel = new JPanel(new BorderLayout());
-                panel.add(checkBox);
+                panel.add(checkBox, BorderLayout.NORTH);
+                panel.add(changedLinesCheckBox, BorderLayout.SOUTH);
                 return panel;
             }
 
             public void saveState() {
                 settings().ifPresent(settings -> settings.setCurrent(
-                        PluginConfigurationBuilder.from(settings.getCurrent()).withScanBeforeCheckin(checkBox.isSelected()).build(),
+                        PluginConfigurationBuilder.from(settings.getCurrent())
+                                .withScanBeforeCheckin(checkBox.isSelected())
+                                .withScanChangedLinesOnly(changedLinesCheckBox.isSelected())
+                                .build(),
                         false));
             }
 
@@ -67,6 +73,10 @@ public class ScanFilesBeforeCheckinHandler extends CheckinHandler {
                 checkBox.setSelected(
                         settings().map(c -> c.getCurrent().isScanBeforeCheckin())
                                 .orElse(Boolean.FALSE));
+                changedLinesCheckBox.setSelected(
+                        settings().map(c -> c.getCurrent().isScanChangedLinesOnly())
+                                .orElse(Boolean.FALSE));
+                changedLinesCheckBox.setEnabled(checkBox.isSelected());
             }
         };
     }
@@ -82,18 +92,37 @@ public class ScanFilesBeforeCheckinHandler extends CheckinHandler {
             return COMMIT;
         }
 
-        if (configurationManager(project).getCurrent().isScanBeforeCheckin()) {
+        final PluginConfiguration configuration = configurationManager(project).getCurrent();
+        if (configuration.isScanBeforeCheckin()) {
+            final boolean changedLinesOnly = configuration.isScanChangedLinesOnly();
+            final int timeLimit = configuration.getCheckinScanTimeLimit();
             try {
-                var scanResult = new AtomicReference<List<ScanResult>>();
+                var checkinScan = new AtomicReference<CheckinScan>();
+                var scanError = new AtomicReference<Throwable>();
                 new Task.Modal(project, message("handler.before.checkin.scan.text"), false) {
                     public void run(@NotNull final ProgressIndicator progressIndicator) {
-                        progressIndicator.setText(message("handler.before.checkin.scan.in-progress"));
-                        progressIndicator.setIndeterminate(true);
-                        scanResult.set(staticScanner.scanFiles(new ArrayList<>(getVirtualFiles())));
+                        progressIndicator.setIndeterminate(false);
+                        final CheckinScan scan = CheckinScan.prepare(project, staticScanner,
+                                getVirtualFiles(), getChanges(), changedLinesOnly, timeLimit, progressIndicator);
+                        checkinScan.set(scan);
+                        scan.scan(timeLimit, progressIndicator);
+                    }
+
+                    @Override
+                    public void onThrowable(@NotNull final Throwable error) {
+                        scanError.set(error);
                     }
                 }.queue();
 
-                return processScanResults(scanResult.get(), executor, project);
+                if (checkinScan.get() == null || scanError.get() != null) {
+                    // as with errors within the scan itself, a failure to scan does not hold up the commit
+                    LOG.warn("Scan before checkin failed, committing without it", scanError.get());
+                    return COMMIT;
+                }
+                if (!checkinScan.get().isComplete()) {
+                    return onTimeLimitReached(checkinScan.get(), executor, project);
+                }
+                return processScanResults(checkinScan.get(), executor, project);
 
             } catch (ProcessCanceledException e) {
                 return CANCEL;
@@ -110,23 +139,88 @@ public class ScanFilesBeforeCheckinHandler extends CheckinHandler {
         return files.get();
     }
 
+    private Collection<Change> getChanges() {
+        AtomicReference<Collection<Change>> changes = new AtomicReference<>();
+        ApplicationManager.getApplication().invokeAndWait(() -> changes.set(checkinPanel.getSelectedChanges()));
+        return changes.get();
+    }
+
     private Optional<PluginConfigurationManager> settings() {
         final Project project = checkinPanel.getProject();
         return ofNullable(configurationManager(project));
     }
 
-    private ReturnResult processScanResults(final List<ScanResult> scanResults,
+    private ReturnResult onTimeLimitReached(final CheckinScan checkinScan,
                                             final CommitExecutor executor,
                                             final Project project) {
-        final long errorCount = countOf(scanResults, SeverityLevel.Error);
-        final long warningCount = countOf(scanResults, SeverityLevel.Warning);
-        if (errorCount == 0 && warningCount == 0) {
+        final long[] countsBySeverity = checkinScan.countsBySeverity();
+        final String[] buttons = new String[]{
+                message("handler.before.checkin.error.review"),
+                message("handler.before.checkin.time-limit.commit", commitButtonText(executor)),
+                message("handler.before.checkin.time-limit.wait"),
+                CommonBundle.getCancelButtonText()};
+
+        final int answer = Messages.showDialog(project,
+                message("handler.before.checkin.time-limit.text",
+                        checkinScan.filesScanned(), checkinScan.fileCount(),
+                        countsBySeverity[SeverityLevel.Error.ordinal()],
+                        countsBySeverity[SeverityLevel.Warning.ordinal()])
+                        + "\n" + throughputOf(checkinScan),
+                message("handler.before.checkin.error.title"),
+                buttons, 2, UIUtil.getWarningIcon());
+        switch (answer) {
+            case 0:
+                showResultsInToolWindow(checkinScan.results(), project);
+                return CLOSE_WINDOW;
+
+            case 1:
+                finishInBackground(checkinScan, project);
+                return COMMIT;
+
+            case 2:
+                new Task.Modal(project, message("handler.before.checkin.scan.text"), false) {
+                    public void run(@NotNull final ProgressIndicator progressIndicator) {
+                        checkinScan.scan(CheckinScan.NO_TIME_LIMIT, progressIndicator);
+                    }
+                }.queue();
+                return processScanResults(checkinScan, executor, project);
+
+            default:
+                return CANCEL;
+        }
+    }
+
+    /**
+     * Finish the scan while the commit goes ahead, and show the results in the tool window should there be any
+     * problems worth mentioning.
+     */
+    private void finishInBackground(final CheckinScan checkinScan,
+                                    final Project project) {
+        new Task.Backgroundable(project, message("handler.before.checkin.scan.text"), true) {
+            public void run(@NotNull final ProgressIndicator progressIndicator) {
+                checkinScan.scan(CheckinScan.NO_TIME_LIMIT, progressIndicator);
+            }
+
+            @Override
+            public void onSuccess() {
+                if (hasErrorsOrWarnings(checkinScan.countsBySeverity())) {
+                    showResultsInToolWindow(checkinScan.results(), project);
+                }
+            }
+        }.queue();
+    }
+
+    private ReturnResult processScanResults(final CheckinScan checkinScan,
+                                            final CommitExecutor executor,
+                                            final Project project) {
+        final long[] countsBySeverity = checkinScan.countsBySeverity();
+        if (!hasErrorsOrWarnings(countsBySeverity)) {
             return COMMIT;
         }
 
-        final int answer = promptUser(project, errorCount, warningCount, executor);
+        final int answer = promptUser(project, countsBySeverity, checkinScan, executor);
         if (answer == Messages.OK) {
-            showResultsInToolWindow(scanResults, project);
+            showResultsInToolWindow(checkinScan.results(), project);
             return CLOSE_WINDOW;
 
         } else if (answer == Messages.CANCEL || answer < 0) {
@@ -136,25 +230,37 @@ public class ScanFilesBeforeCheckinHandler extends CheckinHandler {
         return COMMIT;
     }
 
-    private long countOf(final List<ScanResult> scanResults, final SeverityLevel level) {
-        return scanResults.stream().map(ScanResult::problems)
-                .flatMap(problems -> problems.entrySet().stream())
-                .map(entry -> problemsAtLevel(entry, level))
-                .mapToLong(Long::longValue)
-                .sum();
-    }
-
-    private long problemsAtLevel(final Map.Entry<PsiFile, List<Problem>> entry, final SeverityLevel level) {
-        return entry.getValue()
-                .stream()
-                .filter(problem -> problem.severityLevel() == level)
-                .count();
+    private boolean hasErrorsOrWarnings(final long[] countsBySeverity) {
+        return countsBySeverity[SeverityLevel.Error.ordinal()] > 0
+                || countsBySeverity[SeverityLevel.Warning.ordinal()] > 0;
     }
 
     private int promptUser(final Project project,
-                           final long errorCount,
-                           final long warningCount,
+                           final long[] countsBySeverity,
+                           final CheckinScan checkinScan,
                            final CommitExecutor executor) {
+        final String[] buttons = new String[]{
+                message("handler.before.checkin.error.review"),
+                commitButtonText(executor),
+                CommonBundle.getCancelButtonText()};
+
+        final String messageKey = checkinScan.isChangedLinesOnly()
+                ? "handler.before.checkin.error.changed-lines.text"
+                : "handler.before.checkin.error.text";
+        return Messages.showDialog(project,
+                message(messageKey,
+                        countsBySeverity[SeverityLevel.Error.ordinal()],
+                        countsBySeverity[SeverityLevel.Warning.ordinal()])
+                        + "\n" + throughputOf(checkinScan),
+                message("handler.before.checkin.error.title"),
+                buttons, 0, UIUtil.getWarningIcon());
+    }
+
+    private String throughputOf(final CheckinScan checkinScan) {
+        return message("handler.before.checkin.scan.rate", checkinScan.filesScanned(), checkinScan.filesPerSecond());
+    }
+
+    private String commitButtonText(final CommitExecutor executor) {
         String commitButtonText;
         if (executor != null) {
             commitButtonText = executor.getActionText();
@@ -165,15 +271,7 @@ public class ScanFilesBeforeCheckinHandler extends CheckinHandler {
         if (commitButtonText.endsWith(DOT_SUFFIX)) {
             commitButtonText = commitButtonText.substring(0, commitButtonText.length() - DOT_SUFFIX.length());
         }
-
-        final String[] buttons = new String[]{
-                message("handler.before.checkin.error.review"),
-                commitButtonText,
-                CommonBundle.getCancelButtonText()};
-
-        return Messages.showDialog(project, message("handler.before.checkin.error.text", errorCount, warningCount),
-                message("handler.before.checkin.error.title"),
-                buttons, 0, UIUtil.getWarningIcon());
+        return commitButtonText;
     }
 
     private void showResultsInToolWindow(final List<ScanResult> scanResults,
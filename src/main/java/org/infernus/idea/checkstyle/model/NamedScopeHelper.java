@@ -6,8 +6,12 @@ import com.intellij.packageDependencies.DependencyValidationManager;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.search.scope.packageSet.NamedScope;
 import com.intellij.psi.search.scope.packageSet.NamedScopeManager;
+import com.intellij.psi.search.scope.packageSet.NamedScopesHolder;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.search.scope.packageSet.PackageSet;
+import com.intellij.psi.search.scope.packageSet.PackageSetBase;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Arrays;
 import java.util.stream.Stream;
@@ -44,6 +48,26 @@ public final class NamedScopeHelper {
                 Arrays.stream(DependencyValidationManager.getInstance(project).getScopes()));
     }
 
+    /**
+     * Returns the holder of the given scope, which is either the project's local scopes or its shared scopes.
+     * A local and a shared scope may have the same ID, and so a scope is identified by its holder and its ID.
+     *
+     * @return the holder, or null if the scope is held by neither.
+     */
+    @Nullable
+    public static NamedScopesHolder getHolderOf(@NotNull final Project project,
+                                                @NotNull final NamedScope namedScope) {
+        final NamedScopeManager localScopes = NamedScopeManager.getInstance(project);
+        if (localScopes.getScope(namedScope.getScopeId()) == namedScope) {
+            return localScopes;
+        }
+        final DependencyValidationManager sharedScopes = DependencyValidationManager.getInstance(project);
+        if (sharedScopes.getScope(namedScope.getScopeId()) == namedScope) {
+            return sharedScopes;
+        }
+        return null;
+    }
+
     public static NamedScope getDefaultScope(@NotNull final Project project) {
         return DependencyValidationManager.getInstance(project).getScope(DEFAULT_SCOPE_ID);
     }
@@ -60,4 +84,25 @@ public final class NamedScopeHelper {
                     DependencyValidationManager.getInstance(psiFile.getProject()));
         });
     }
+
+    /**
+     * Checks whether a file is in the given scope without needing its PSI. As not all scopes can be checked this
+     * way, a file is taken to be in any scope that cannot; {@link #isFileInScope(PsiFile, NamedScope)} should be
+     * used to decide those.
+     */
+    public static boolean mayFileBeInScope(@NotNull final VirtualFile file,
+                                           @NotNull final Project project,
+                                           @NotNull final NamedScope namedScope) {
+        return ReadAction.compute(() -> {
+            final PackageSet packageSet = namedScope.getValue();
+            if (!(packageSet instanceof PackageSetBase)) {
+                return true;
+            }
+
+            return ((PackageSetBase) packageSet).contains(
+                    file,
+                    project,
+                    DependencyValidationManager.getInstance(project));
+        });
+    }
 }
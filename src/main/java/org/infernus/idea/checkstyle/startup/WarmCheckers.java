@@ -0,0 +1,21 @@
+package org.infernus.idea.checkstyle.startup;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.startup.ProjectActivity;
+import kotlin.Unit;
+import kotlin.coroutines.Continuation;
+import org.infernus.idea.checkstyle.checker.CheckerWarmer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+public class WarmCheckers implements ProjectActivity {
+
+    @Nullable
+    @Override
+    public Object execute(@NotNull final Project project,
+                          @NotNull final Continuation<? super Unit> continuation) {
+        project.getService(CheckerWarmer.class).requestWarmUp();
+        return null;
+    }
+
+}
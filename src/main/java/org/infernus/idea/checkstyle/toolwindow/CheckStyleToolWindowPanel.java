@@ -585,6 +585,17 @@ public class CheckStyleToolWindowPanel extends JPanel implements ConfigurationLi
         }
     }
 
+    /**
+     * Add to the displayed results while a scan is in progress.
+     *
+     * @param fileResults the results of files scanned since the last update.
+     */
+    public void displayPartialResults(final List<ScanResult> fileResults) {
+        treeModel.addToModel(fileResults, getDisplayedSeverities());
+
+        expandTree(1);
+    }
+
     public boolean isDisplayingErrors() {
         return displayingErrors;
     }
@@ -43,6 +43,14 @@ abstract class GroupTreeInfo extends ResultTreeNode {
         }
     }
 
+    String getName() {
+        return name;
+    }
+
+    int getTotalProblems() {
+        return totalProblems;
+    }
+
     void setVisibleProblems(final int visibleProblems) {
         this.visibleProblems = visibleProblems;
 
@@ -1,7 +1,6 @@
 package org.infernus.idea.checkstyle.toolwindow;
 
 import com.intellij.openapi.module.Module;
-import com.intellij.psi.PsiElement;
 import org.infernus.idea.checkstyle.CheckStyleBundle;
 import org.infernus.idea.checkstyle.checker.ConfigurationLocationResult;
 import org.infernus.idea.checkstyle.checker.Problem;
@@ -12,7 +11,6 @@ import org.jetbrains.annotations.NotNull;
 record ResultProblem(
         ConfigurationLocationResult configurationLocationResult,
         Module module,
-        PsiElement target,
         SeverityLevel severityLevel,
         int line,
         int column,
@@ -24,7 +22,7 @@ record ResultProblem(
     ResultProblem(@NotNull final ConfigurationLocationResult configurationLocationResult,
                   @NotNull final Module module,
                   @NotNull final Problem csProblem) {
-        this(configurationLocationResult, module, csProblem.target(), csProblem.severityLevel(), csProblem.line(),
+        this(configurationLocationResult, module, csProblem.severityLevel(), csProblem.line(),
                 csProblem.column(), csProblem.sourceName(), csProblem.message(), csProblem.afterEndOfLine(),
                 csProblem.suppressErrors());
     }
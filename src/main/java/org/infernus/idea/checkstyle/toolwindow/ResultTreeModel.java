@@ -32,6 +32,12 @@ public class ResultTreeModel extends DefaultTreeModel {
     private ResultGrouping grouping = ResultGrouping.BY_FILE;
     private Map<PsiFile, List<ResultProblem>> lastResults;
 
+    // the nodes of a tree built a file at a time, as the results of a scan in progress arrive
+    private final Map<String, ToggleableTreeNode> appendedGroupNodes = new HashMap<>();
+    private final Map<List<Object>, ToggleableTreeNode> appendedFileNodes = new HashMap<>();
+    private boolean treeBuiltByAppending = true;
+    private int appendedProblemCount;
+
     public ResultTreeModel() {
         super(new DefaultMutableTreeNode());
 
@@ -42,10 +48,19 @@ public class ResultTreeModel extends DefaultTreeModel {
     }
 
     public void clear() {
-        visibleRootNode.removeAllChildren();
+        lastResults = null;
+        clearTree();
         nodeStructureChanged(visibleRootNode);
     }
 
+    private void clearTree() {
+        visibleRootNode.removeAllChildren();
+        appendedGroupNodes.clear();
+        appendedFileNodes.clear();
+        appendedProblemCount = 0;
+        treeBuiltByAppending = true;
+    }
+
     public TreeNode getVisibleRoot() {
         return visibleRootNode;
     }
@@ -83,7 +98,8 @@ public class ResultTreeModel extends DefaultTreeModel {
     }
 
     private void rebuildTree() {
-        visibleRootNode.removeAllChildren();
+        clearTree();
+        treeBuiltByAppending = false;
 
         switch (grouping) {
             case BY_PACKAGE -> groupResultsByPackage();
@@ -157,6 +173,140 @@ public class ResultTreeModel extends DefaultTreeModel {
         rebuildTree();
     }
 
+    /**
+     * Add to the displayed model, as results arrive from a scan in progress.
+     * <p>
+     * The new results are appended to the tree in place, rather than the tree being rebuilt, as results may
+     * arrive many times a second.
+     *
+     * @param scanResults the results to add.
+     * @param levels      the levels to display.
+     */
+    public void addToModel(@NotNull final List<ScanResult> scanResults,
+                           @NotNull final Set<SeverityLevel> levels) {
+        if (lastResults == null) {
+            lastResults = new HashMap<>();
+        }
+        final Map<PsiFile, List<ResultProblem>> newResults = flattenResults(scanResults);
+        newResults.forEach((file, problems) ->
+                lastResults.computeIfAbsent(file, psiFile -> new ArrayList<>()).addAll(problems));
+        this.displayedSeverities = levels;
+
+        if (treeBuiltByAppending) {
+            appendToTree(newResults);
+        } else {
+            // the tree has been rebuilt since the scan began, e.g. to change the grouping, and so is started afresh
+            clearTree();
+            appendToTree(lastResults);
+        }
+    }
+
+    private void appendToTree(final Map<PsiFile, List<ResultProblem>> results) {
+        final Map<ToggleableTreeNode, Boolean> changedNodes = new LinkedHashMap<>();
+        boolean topLevelChanged = false;
+
+        for (final var fileResults : results.entrySet()) {
+            final PsiFile file = fileResults.getKey();
+            final var problemsByGroup = new LinkedHashMap<String, List<ResultProblem>>();
+            for (final ResultProblem problem : fileResults.getValue()) {
+                if (problem.severityLevel() != SeverityLevel.Ignore) {
+                    problemsByGroup.computeIfAbsent(groupNameOf(file, problem), key -> new ArrayList<>()).add(problem);
+                }
+            }
+
+            for (final var groupProblems : problemsByGroup.entrySet()) {
+                final String groupName = groupProblems.getKey();
+                final List<ResultProblem> problems = groupProblems.getValue();
+
+                ToggleableTreeNode parentNode = visibleRootNode;
+                if (grouping != ResultGrouping.BY_FILE) {
+                    parentNode = appendedGroupNodes.get(groupName);
+                    if (parentNode == null) {
+                        parentNode = new ToggleableTreeNode(groupInfoOf(groupName, 0));
+                        insertSorted(visibleRootNode, parentNode, groupName, groupOrder());
+                        appendedGroupNodes.put(groupName, parentNode);
+                        topLevelChanged = true;
+                    }
+                    parentNode.setUserObject(groupInfoOf(groupName, problemCountOf(parentNode) + problems.size()));
+                }
+
+                ToggleableTreeNode fileNode = appendedFileNodes.get(List.of(groupName, file));
+                if (fileNode == null) {
+                    fileNode = new ToggleableTreeNode(new FileGroupTreeInfo(file.getName(), 0));
+                    insertSorted(parentNode, fileNode, file.getName(), naturalOrder());
+                    appendedFileNodes.put(List.of(groupName, file), fileNode);
+                    topLevelChanged |= parentNode == visibleRootNode;
+                }
+                for (final ResultProblem problem : problems) {
+                    fileNode.append(new ToggleableTreeNode(new ProblemResultTreeInfo(file, problem)));
+                }
+                fileNode.setUserObject(new FileGroupTreeInfo(file.getName(), problemCountOf(fileNode) + problems.size()));
+                appendedProblemCount += problems.size();
+
+                final ToggleableTreeNode topLevelNode = parentNode == visibleRootNode ? fileNode : parentNode;
+                changedNodes.putIfAbsent(topLevelNode, topLevelNode.isVisible());
+            }
+        }
+
+        for (final var changedNode : changedNodes.entrySet()) {
+            filterNodeAndChildren(changedNode.getKey());
+            topLevelChanged |= changedNode.getKey().isVisible() != changedNode.getValue();
+        }
+        if (topLevelChanged) {
+            nodeStructureChanged(visibleRootNode);
+        } else {
+            changedNodes.keySet().forEach(this::nodeStructureChanged);
+        }
+        setRootMessage(appendedProblemCount);
+    }
+
+    private String groupNameOf(final PsiFile file, final ResultProblem problem) {
+        return switch (grouping) {
+            case BY_PACKAGE -> packageNameOf(file);
+            case BY_SEVERITY -> problem.severityLevel().name();
+            case BY_CONFIGURATION_LOCATION -> problem.locationDescription();
+            case BY_SOURCE_CHECK -> problem.sourceCheck();
+            default -> "";
+        };
+    }
+
+    private GroupTreeInfo groupInfoOf(final String groupName, final int problemCount) {
+        return switch (grouping) {
+            case BY_PACKAGE -> new PackageGroupTreeInfo(groupName, problemCount);
+            case BY_SEVERITY -> new SeverityGroupTreeInfo(SeverityLevel.valueOf(groupName), problemCount);
+            default -> new ConfigurationLocationGroupTreeInfo(groupName, problemCount);
+        };
+    }
+
+    private Comparator<String> groupOrder() {
+        if (grouping == ResultGrouping.BY_SEVERITY) {
+            return comparing(severityName -> SeverityLevel.valueOf(severityName).ordinal());
+        }
+        return naturalOrder();
+    }
+
+    private static int problemCountOf(final ToggleableTreeNode groupNode) {
+        return ((GroupTreeInfo) groupNode.getUserObject()).getTotalProblems();
+    }
+
+    /**
+     * Insert a node in the order in which {@link #rebuildTree()} would have placed it.
+     */
+    private static void insertSorted(final ToggleableTreeNode parentNode,
+                                     final ToggleableTreeNode node,
+                                     final String name,
+                                     final Comparator<String> order) {
+        final List<ToggleableTreeNode> siblings = parentNode.getAllChildren();
+        for (int index = 0; index < siblings.size(); ++index) {
+            final String siblingName = ((GroupTreeInfo) siblings.get(index).getUserObject()).getName();
+            if (order.compare(name, siblingName) < 0) {
+                parentNode.insert(node, index);
+                return;
+            }
+        }
+        parentNode.append(node);
+    }
+
     private Map<PsiFile, List<ResultProblem>> flattenResults(final List<ScanResult> scanResult) {
         final var flattened = new HashMap<PsiFile, List<ResultProblem>>();
 
@@ -242,17 +392,20 @@ public class ResultTreeModel extends DefaultTreeModel {
         }
         var groupedByPackage = new TreeMap<String, List<PsiFile>>();
         for (var result : results.keySet()) {
-            var filePackage = CheckStyleBundle.message("plugin.results.unknown-package");
-            if (result instanceof PsiJavaFile javaFile) {
-                filePackage = javaFile.getPackageName();
+            groupedByPackage.computeIfAbsent(packageNameOf(result),  key -> new ArrayList<>()).add(result);
+        }
+        return groupedByPackage;
+    }
 
-                if (filePackage.trim().isEmpty()) {
-                    filePackage = CheckStyleBundle.message("plugin.results.root-package");
-                }
+    private String packageNameOf(final PsiFile file) {
+        if (file instanceof PsiJavaFile javaFile) {
+            final String filePackage = javaFile.getPackageName();
+            if (filePackage.trim().isEmpty()) {
+                return CheckStyleBundle.message("plugin.results.root-package");
             }
-            groupedByPackage.computeIfAbsent(filePackage,  key -> new ArrayList<>()).add(result);
+            return filePackage;
         }
-        return groupedByPackage;
+        return CheckStyleBundle.message("plugin.results.unknown-package");
     }
 
     private void groupResultsBySeverity() {
@@ -288,10 +441,17 @@ public class ResultTreeModel extends DefaultTreeModel {
         for (var resultFile : results.keySet()) {
             var problems = results.get(resultFile);
 
+            // a single pass over the problems, bucketed by severity
+            final List<List<ResultProblem>> problemsBySeverity = new ArrayList<>();
+            for (int i = 0; i < SeverityLevel.values().length; ++i) {
+                problemsBySeverity.add(new ArrayList<>());
+            }
+            for (ResultProblem problem : problems) {
+                problemsBySeverity.get(problem.severityLevel().ordinal()).add(problem);
+            }
+
             for (SeverityLevel severityLevel : severities) {
-                groupedBySeverity.get(severityLevel).put(
-                        resultFile,
-                        problems.stream().filter(item -> item.severityLevel() == severityLevel).toList());
+                groupedBySeverity.get(severityLevel).put(resultFile, problemsBySeverity.get(severityLevel.ordinal()));
             }
         }
         return groupedBySeverity;
@@ -323,14 +483,21 @@ public class ResultTreeModel extends DefaultTreeModel {
         if (results == null || results.isEmpty()) {
             return Collections.emptySortedMap();
         }
-        final var groupedProblems = new TreeMap<String, Map<PsiFile, List<ResultProblem>>>();
+        // there are few distinct keys, so each is numbered on first sight and problems are grouped by number
+        final var groupNumbers = new HashMap<String, Integer>();
+        final var groups = new ArrayList<Map<PsiFile, List<ResultProblem>>>();
         results.forEach((file, problems) -> {
             for (ResultProblem problem : problems) {
-                groupedProblems
-                        .computeIfAbsent(groupingKeyFunction.apply(problem), key -> new HashMap<>())
-                        .computeIfAbsent(file, keyFile -> new ArrayList<>()).add(problem);
+                final int groupNumber = groupNumbers.computeIfAbsent(groupingKeyFunction.apply(problem), key -> {
+                    groups.add(new HashMap<>());
+                    return groups.size() - 1;
+                });
+                groups.get(groupNumber).computeIfAbsent(file, keyFile -> new ArrayList<>()).add(problem);
             }
         });
+
+        final var groupedProblems = new TreeMap<String, Map<PsiFile, List<ResultProblem>>>();
+        groupNumbers.forEach((key, groupNumber) -> groupedProblems.put(key, groups.get(groupNumber)));
         return groupedProblems;
     }
 
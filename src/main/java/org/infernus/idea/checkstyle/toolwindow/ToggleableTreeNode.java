@@ -43,6 +43,15 @@ public class ToggleableTreeNode extends DefaultMutableTreeNode {
         return Collections.emptyList();
     }
 
+    /**
+     * Add a child after all others, visible or not.
+     *
+     * @param child the child to add.
+     */
+    void append(@NotNull final ToggleableTreeNode child) {
+        insert(child, children != null ? children.size() : 0);
+    }
+
     @Override
     public void removeAllChildren() {
         if (children != null) {
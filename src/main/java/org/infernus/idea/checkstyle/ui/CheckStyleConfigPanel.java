@@ -46,6 +46,11 @@ public class CheckStyleConfigPanel extends JPanel {
     private static final int DESC_COL_MIN_WIDTH = 100;
     private static final int DESC_COL_MAX_WIDTH = 200;
     private static final Dimension DECORATOR_DIMENSIONS = new Dimension(300, 50);
+    private static final int MAX_SCAN_THREADS = 64;
+    private static final int MAX_CHECKER_POOL_SIZE = 16;
+    private static final int MAX_CHECKER_IDLE_TIMEOUT = 24 * 60;
+    private static final int MAX_CHECKER_CACHE_SIZE = 1024;
+    private static final int MAX_CHECKIN_SCAN_TIME_LIMIT = 60 * 60;
 
     private final JList<String> pathList = new JBList<>(new DefaultListModel<>());
 
@@ -55,6 +60,16 @@ public class CheckStyleConfigPanel extends JPanel {
     private final ComboBox<ScanScope> scopeDropdown = new ComboBox<>(ScanScope.values());
     private final JCheckBox suppressErrorsCheckbox = new JCheckBox();
     private final JCheckBox copyLibsCheckbox = new JCheckBox();
+    private final JLabel scanThreadsLabel = new JLabel(CheckStyleBundle.message("config.scan-threads.labelText") + ":");
+    private final JSpinner scanThreadsSpinner = new JSpinner(new SpinnerNumberModel(1, 1, MAX_SCAN_THREADS, 1));
+    private final JLabel checkerPoolSizeLabel = new JLabel(CheckStyleBundle.message("config.checker-pool-size.labelText") + ":");
+    private final JSpinner checkerPoolSizeSpinner = new JSpinner(new SpinnerNumberModel(1, 1, MAX_CHECKER_POOL_SIZE, 1));
+    private final JLabel checkerIdleTimeoutLabel = new JLabel(CheckStyleBundle.message("config.checker-idle-timeout.labelText") + ":");
+    private final JSpinner checkerIdleTimeoutSpinner = new JSpinner(new SpinnerNumberModel(1, 1, MAX_CHECKER_IDLE_TIMEOUT, 1));
+    private final JLabel checkerCacheSizeLabel = new JLabel(CheckStyleBundle.message("config.checker-cache-size.labelText") + ":");
+    private final JSpinner checkerCacheSizeSpinner = new JSpinner(new SpinnerNumberModel(1, 1, MAX_CHECKER_CACHE_SIZE, 1));
+    private final JLabel checkinScanTimeLimitLabel = new JLabel(CheckStyleBundle.message("config.checkin-scan-time-limit.labelText") + ":");
+    private final JSpinner checkinScanTimeLimitSpinner = new JSpinner(new SpinnerNumberModel(0, 0, MAX_CHECKIN_SCAN_TIME_LIMIT, 5));
 
     private final LocationTableModel locationModel = new LocationTableModel();
     private final JBTable locationTable = new JBTable(locationModel);
@@ -104,6 +119,17 @@ public class CheckStyleConfigPanel extends JPanel {
         copyLibsCheckbox.setText(CheckStyleBundle.message("config.stabilize-classpath.text"));
         copyLibsCheckbox.setToolTipText(CheckStyleBundle.message("config.stabilize-classpath.tooltip"));
 
+        scanThreadsLabel.setToolTipText(CheckStyleBundle.message("config.scan-threads.tooltip"));
+        scanThreadsSpinner.setToolTipText(CheckStyleBundle.message("config.scan-threads.tooltip"));
+        checkerPoolSizeLabel.setToolTipText(CheckStyleBundle.message("config.checker-pool-size.tooltip"));
+        checkerPoolSizeSpinner.setToolTipText(CheckStyleBundle.message("config.checker-pool-size.tooltip"));
+        checkerIdleTimeoutLabel.setToolTipText(CheckStyleBundle.message("config.checker-idle-timeout.tooltip"));
+        checkerIdleTimeoutSpinner.setToolTipText(CheckStyleBundle.message("config.checker-idle-timeout.tooltip"));
+        checkerCacheSizeLabel.setToolTipText(CheckStyleBundle.message("config.checker-cache-size.tooltip"));
+        checkerCacheSizeSpinner.setToolTipText(CheckStyleBundle.message("config.checker-cache-size.tooltip"));
+        checkinScanTimeLimitLabel.setToolTipText(CheckStyleBundle.message("config.checkin-scan-time-limit.tooltip"));
+        checkinScanTimeLimitSpinner.setToolTipText(CheckStyleBundle.message("config.checkin-scan-time-limit.tooltip"));
+
         final JPanel configFilePanel = new JPanel(new GridBagLayout());
         configFilePanel.setOpaque(false);
 
@@ -125,11 +151,41 @@ public class CheckStyleConfigPanel extends JPanel {
         configFilePanel.add(copyLibsCheckbox, new GridBagConstraints(
                 2, 1, 2, 1, 1.0, 0.0, GridBagConstraints.WEST,
                 GridBagConstraints.HORIZONTAL, COMPONENT_INSETS, 0, 0));
+        configFilePanel.add(scanThreadsLabel, new GridBagConstraints(
+                0, 2, 1, 1, 0.0, 0.0, GridBagConstraints.WEST,
+                GridBagConstraints.NONE, COMPONENT_INSETS, 0, 0));
+        configFilePanel.add(scanThreadsSpinner, new GridBagConstraints(
+                1, 2, 1, 1, 0.0, 0.0, GridBagConstraints.WEST,
+                GridBagConstraints.NONE, COMPONENT_INSETS, 0, 0));
+        configFilePanel.add(checkerPoolSizeLabel, new GridBagConstraints(
+                2, 2, 1, 1, 0.0, 0.0, GridBagConstraints.WEST,
+                GridBagConstraints.NONE, COMPONENT_INSETS, 0, 0));
+        configFilePanel.add(checkerPoolSizeSpinner, new GridBagConstraints(
+                3, 2, 1, 1, 0.0, 0.0, GridBagConstraints.WEST,
+                GridBagConstraints.NONE, COMPONENT_INSETS, 0, 0));
+        configFilePanel.add(checkerIdleTimeoutLabel, new GridBagConstraints(
+                0, 3, 1, 1, 0.0, 0.0, GridBagConstraints.WEST,
+                GridBagConstraints.NONE, COMPONENT_INSETS, 0, 0));
+        configFilePanel.add(checkerIdleTimeoutSpinner, new GridBagConstraints(
+                1, 3, 1, 1, 0.0, 0.0, GridBagConstraints.WEST,
+                GridBagConstraints.NONE, COMPONENT_INSETS, 0, 0));
+        configFilePanel.add(checkerCacheSizeLabel, new GridBagConstraints(
+                2, 3, 1, 1, 0.0, 0.0, GridBagConstraints.WEST,
+                GridBagConstraints.NONE, COMPONENT_INSETS, 0, 0));
+        configFilePanel.add(checkerCacheSizeSpinner, new GridBagConstraints(
+                3, 3, 1, 1, 0.0, 0.0, GridBagConstraints.WEST,
+                GridBagConstraints.NONE, COMPONENT_INSETS, 0, 0));
+        configFilePanel.add(checkinScanTimeLimitLabel, new GridBagConstraints(
+                0, 4, 1, 1, 0.0, 0.0, GridBagConstraints.WEST,
+                GridBagConstraints.NONE, COMPONENT_INSETS, 0, 0));
+        configFilePanel.add(checkinScanTimeLimitSpinner, new GridBagConstraints(
+                1, 4, 1, 1, 0.0, 0.0, GridBagConstraints.WEST,
+                GridBagConstraints.NONE, COMPONENT_INSETS, 0, 0));
         configFilePanel.add(buildRuleFilePanel(), new GridBagConstraints(
-                0, 2, 4, 1, 1.0, 1.0, GridBagConstraints.WEST,
+                0, 5, 4, 1, 1.0, 1.0, GridBagConstraints.WEST,
                 GridBagConstraints.BOTH, COMPONENT_INSETS, 0, 0));
         configFilePanel.add(buildClassPathPanel(), new GridBagConstraints(
-                0, 3, 4, 1, 1.0, 1.0, GridBagConstraints.WEST,
+                0, 6, 4, 1, 1.0, 1.0, GridBagConstraints.WEST,
                 GridBagConstraints.BOTH, COMPONENT_INSETS, 0, 0));
 
         return configFilePanel;
@@ -232,6 +288,11 @@ public class CheckStyleConfigPanel extends JPanel {
         scopeDropdown.setSelectedItem(pluginConfig.getScanScope());
         suppressErrorsCheckbox.setSelected(pluginConfig.isSuppressErrors());
         copyLibsCheckbox.setSelected(pluginConfig.isCopyLibs());
+        scanThreadsSpinner.setValue(Math.min(pluginConfig.getScanThreads(), MAX_SCAN_THREADS));
+        checkerPoolSizeSpinner.setValue(Math.min(pluginConfig.getCheckerPoolSize(), MAX_CHECKER_POOL_SIZE));
+        checkerIdleTimeoutSpinner.setValue(Math.min(pluginConfig.getCheckerIdleTimeout(), MAX_CHECKER_IDLE_TIMEOUT));
+        checkerCacheSizeSpinner.setValue(Math.min(pluginConfig.getCheckerCacheSize(), MAX_CHECKER_CACHE_SIZE));
+        checkinScanTimeLimitSpinner.setValue(Math.min(pluginConfig.getCheckinScanTimeLimit(), MAX_CHECKIN_SCAN_TIME_LIMIT));
         locationModel.setLocations(new ArrayList<>(pluginConfig.getLocations()));
         setThirdPartyClasspath(pluginConfig.getThirdPartyClasspath());
         locationModel.setActiveLocations(pluginConfig.getActiveLocations());
@@ -246,12 +307,17 @@ public class CheckStyleConfigPanel extends JPanel {
             scanScope = ScanScope.getDefaultValue();
         }
 
-        // we don't know the scanBeforeCheckin flag at this point
+        // we don't know the scanBeforeCheckin or scanChangedLinesOnly flags at this point
         return PluginConfigurationBuilder.defaultConfiguration(project)
                 .withCheckstyleVersion(checkstyleVersion)
                 .withScanScope(scanScope)
                 .withSuppressErrors(suppressErrorsCheckbox.isSelected())
                 .withCopyLibraries(copyLibsCheckbox.isSelected())
+                .withScanThreads((Integer) scanThreadsSpinner.getValue())
+                .withCheckerPoolSize((Integer) checkerPoolSizeSpinner.getValue())
+                .withCheckerIdleTimeout((Integer) checkerIdleTimeoutSpinner.getValue())
+                .withCheckerCacheSize((Integer) checkerCacheSizeSpinner.getValue())
+                .withCheckinScanTimeLimit((Integer) checkinScanTimeLimitSpinner.getValue())
                 .withLocations(new TreeSet<>(locationModel.getLocations()))
                 .withThirdPartyClassPath(getThirdPartyClasspath())
                 .withActiveLocationIds(locationModel.getActiveLocations().stream()
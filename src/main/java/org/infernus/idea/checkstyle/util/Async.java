@@ -1,61 +1,126 @@
 package org.infernus.idea.checkstyle.util;
 
 import java.util.concurrent.Callable;
-import java.util.concurrent.Future;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
-import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
 import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
 public final class Async {
     private static final Logger LOG = Logger.getInstance(Async.class);
 
-    private static final int FIFTY_MS = 50;
+    /**
+     * How long to block on the future before checking whether the waiting thread has been cancelled.
+     * The wait ends as soon as the future completes.
+     */
+    private static final long CHECK_CANCELLED_INTERVAL = 20L;
 
     private Async() {
     }
 
-    @Nullable
-    public static <T> T asyncResultOf(@NotNull final Callable<T> callable,
-                                      @Nullable final T defaultValue,
-                                      final long timeoutInMs) {
+    /**
+     * Run a task on a pooled thread.
+     * <p>
+     * The task runs under its own progress indicator, which is cancelled if the returned future is cancelled
+     * or otherwise completes abnormally, so that the task is interrupted at its next
+     * {@link ProgressManager#checkCanceled()}.
+     *
+     * @param callable the task to run.
+     * @param <T>      the type of the result.
+     * @return a future for the result of the task.
+     */
+    public static <T> CompletableFuture<T> executeOnPooledThread(@NotNull final Callable<T> callable) {
+        final ProgressIndicator indicator = new EmptyProgressIndicator();
+        final CompletableFuture<T> future = CompletableFuture.supplyAsync(
+                () -> ProgressManager.getInstance().runProcess(() -> call(callable), indicator),
+                AppExecutorUtil.getAppExecutorService());
+        future.whenComplete((result, error) -> {
+            if (error != null) {
+                indicator.cancel();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Wait for a future to complete.
+     * <p>
+     * Cancellation of the calling thread's progress indicator is propagated to the future, as is
+     * exhaustion of the timeout, in which case a {@link ProcessCanceledException} is thrown. The timeout
+     * applies to this wait only, and is not imposed on other callers of the future.
+     *
+     * @param future      the future to wait for.
+     * @param timeoutInMs the maximum time to wait, or zero to wait indefinitely.
+     * @param <T>         the type of the result.
+     * @return the completed future.
+     */
+    public static <T> CompletableFuture<T> whenFinished(@NotNull final CompletableFuture<T> future,
+                                                        final long timeoutInMs) {
+        final CompletableFuture<T> awaitedFuture;
+        if (timeoutInMs > 0) {
+            awaitedFuture = future.copy().orTimeout(timeoutInMs, TimeUnit.MILLISECONDS);
+        } else {
+            awaitedFuture = future;
+        }
+
         try {
-            return whenFinished(executeOnPooledThread(callable), timeoutInMs).get();
+            while (!awaitedFuture.isDone()) {
+                ProgressManager.checkCanceled();
+                awaitCompletion(awaitedFuture);
+            }
+        } catch (ProcessCanceledException e) {
+            future.cancel(true);
+            throw e;
+        }
 
-        } catch (Exception e) {
-            return defaultValue;
+        if (timedOut(awaitedFuture)) {
+            LOG.debug("Async task exhausted timeout of " + timeoutInMs + "ms, cancelling.");
+            future.cancel(true);
+            throw new ProcessCanceledException();
         }
+        return future;
     }
 
-    public static <T> Future<T> executeOnPooledThread(final Callable<T> callable) {
-        return ApplicationManager.getApplication().executeOnPooledThread(callable);
+    private static <T> void awaitCompletion(final CompletableFuture<T> future) {
+        try {
+            future.get(CHECK_CANCELLED_INTERVAL, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException | CancellationException ignored) {
+            // the outcome is left on the future for the caller
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessCanceledException(e);
+        }
     }
 
-    public static <T> Future<T> whenFinished(final Future<T> future,
-                                             final long timeoutInMs) {
-        long elapsedTime = 0;
-        while (!future.isDone() && !future.isCancelled()) {
-            ProgressManager.checkCanceled();
-            elapsedTime += waitFor(FIFTY_MS);
-
-            if (timeoutInMs > 0 && elapsedTime >= timeoutInMs) {
-                LOG.debug("Async task exhausted timeout of " + timeoutInMs + "ms, cancelling.");
-                future.cancel(true);
-                throw new ProcessCanceledException();
-            }
+    private static boolean timedOut(final CompletableFuture<?> future) {
+        if (!future.isCompletedExceptionally() || future.isCancelled()) {
+            return false;
+        }
+        try {
+            future.join();
+            return false;
+        } catch (CompletionException e) {
+            return e.getCause() instanceof TimeoutException;
         }
-        return future;
     }
 
-    private static long waitFor(final int millis) {
+    private static <T> T call(final Callable<T> callable) {
         try {
-            Thread.sleep(millis);
-        } catch (InterruptedException ignored) {
-            Thread.currentThread().interrupt();
+            return callable.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompletionException(e);
         }
-        return millis;
     }
 }
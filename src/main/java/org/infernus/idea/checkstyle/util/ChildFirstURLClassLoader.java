@@ -1,48 +1,146 @@
 package org.infernus.idea.checkstyle.util;
 
+import com.intellij.openapi.diagnostic.Logger;
+
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.stream.Stream;
 
 /**
  * A child-first URL class loader, taken from <a href="https://stackoverflow.com/a/6424879">...</a>
+ * <p>
+ * The loader is parallel capable, locking per class name rather than on the loader as a whole. An index of the
+ * directories (and so packages) present on the classpath is built on first use, so that names in packages found
+ * locally are loaded locally without first asking the system class loader, and names which cannot be found
+ * locally are passed straight to the parent. Names which cannot be found anywhere are remembered, up to a limit,
+ * as Checkstyle looks up many candidate names for each module it creates. The directories of jars indexed when
+ * the plugin was built may be supplied, so that only the remaining jars need be opened to build the index.
  */
 public class ChildFirstURLClassLoader extends URLClassLoader {
 
+    private static final Logger LOG = Logger.getInstance(ChildFirstURLClassLoader.class);
+
+    private static final String VERSIONED_ENTRY_PREFIX = "META-INF/versions/";
+
+    private static final int MAX_MISSING_CLASSES = 10_000;
+
+    /**
+     * Packages which are always loaded by the system class loader first, even if a jar on the classpath has
+     * classes in them.
+     */
+    private static final List<String> PLATFORM_PACKAGE_PREFIXES = List.of(
+            "java.", "javax.", "jdk.", "sun.", "com.sun.", "org.w3c.", "org.xml.");
+
+    static {
+        registerAsParallelCapable();
+    }
+
     private final ClassLoader system;
 
+    private final Map<String, Set<String>> prebuiltIndex;
+    private final Set<String> missingClasses = ConcurrentHashMap.newKeySet();
+    private volatile Optional<Set<String>> localDirectories;
+
     public ChildFirstURLClassLoader(final URL[] classpath,
                                     final ClassLoader parent) {
+        this(classpath, parent, Map.of());
+    }
+
+    /**
+     * @param classpath     the classpath.
+     * @param parent        the parent class loader.
+     * @param prebuiltIndex the directories of classpath entries which need not be indexed when loaded, keyed by
+     *                      the external form of their URLs.
+     */
+    public ChildFirstURLClassLoader(final URL[] classpath,
+                                    final ClassLoader parent,
+                                    final Map<String, Set<String>> prebuiltIndex) {
         super(classpath, parent);
         system = getSystemClassLoader();
+        this.prebuiltIndex = Map.copyOf(prebuiltIndex);
     }
 
     @Override
-    protected synchronized Class<?> loadClass(final String name,
-                                              final boolean resolve)
+    protected Class<?> loadClass(final String name,
+                                 final boolean resolve)
             throws ClassNotFoundException {
-        Class<?> loadedClass = findLoadedClass(name);
-        if (loadedClass == null) {
-            if (system != null) {
-                try {
-                    loadedClass = system.loadClass(name);
-                } catch (ClassNotFoundException ignored) {
-                }
-            }
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> loadedClass = findLoadedClass(name);
             if (loadedClass == null) {
-                try {
-                    loadedClass = findClass(name);
-                } catch (ClassNotFoundException e) {
-                    loadedClass = super.loadClass(name, resolve);
+                if (missingClasses.contains(name)) {
+                    throw new ClassNotFoundException(name);
                 }
+                loadedClass = loadUnloadedClass(name, resolve);
+            }
+            if (resolve) {
+                resolveClass(loadedClass);
             }
+            return loadedClass;
         }
-        if (resolve) {
-            resolveClass(loadedClass);
+    }
+
+    private Class<?> loadUnloadedClass(final String name,
+                                       final boolean resolve) throws ClassNotFoundException {
+        final String classFileName = name.replace('.', '/') + ".class";
+        final boolean localFirst = isIndexedLocally(classFileName) && !isPlatformClass(name);
+        if (localFirst) {
+            final Class<?> localClass = findLocalClass(name);
+            if (localClass != null) {
+                return localClass;
+            }
+        }
+        if (system != null) {
+            try {
+                return system.loadClass(name);
+            } catch (ClassNotFoundException ignored) {
+            }
+        }
+        if (!localFirst && mayBeLocal(classFileName)) {
+            final Class<?> localClass = findLocalClass(name);
+            if (localClass != null) {
+                return localClass;
+            }
+        }
+        try {
+            return super.loadClass(name, resolve);
+        } catch (ClassNotFoundException e) {
+            if (missingClasses.size() >= MAX_MISSING_CLASSES) {
+                missingClasses.clear();
+            }
+            missingClasses.add(name);
+            throw e;
         }
-        return loadedClass;
+    }
+
+    private Class<?> findLocalClass(final String name) {
+        try {
+            return findClass(name);
+        } catch (ClassNotFoundException ignored) {
+            return null;
+        }
+    }
+
+    private static boolean isPlatformClass(final String name) {
+        return PLATFORM_PACKAGE_PREFIXES.stream().anyMatch(name::startsWith);
+    }
+
+    /**
+     * Forget the names which could not be found, should what may be found have changed.
+     */
+    public void forgetMissingClasses() {
+        missingClasses.clear();
     }
 
     @Override
@@ -52,7 +150,9 @@ public class ChildFirstURLClassLoader extends URLClassLoader {
             url = system.getResource(name);
         }
         if (url == null) {
-            url = findResource(name);
+            if (mayBeLocal(name)) {
+                url = findResource(name);
+            }
             if (url == null) {
                 url = super.getResource(name);
             }
@@ -110,6 +210,127 @@ public class ChildFirstURLClassLoader extends URLClassLoader {
         return null;
     }
 
+    /**
+     * @param resourceName the name of a resource, or of a class file.
+     * @return false if the resource's directory is known not to be on this loader's classpath.
+     */
+    private boolean mayBeLocal(final String resourceName) {
+        return localDirectories()
+                .map(directories -> directories.contains(directoryOf(resourceName)))
+                .orElse(true);
+    }
+
+    /**
+     * @param resourceName the name of a resource, or of a class file.
+     * @return true if the resource's directory is known to be on this loader's classpath.
+     */
+    private boolean isIndexedLocally(final String resourceName) {
+        return localDirectories()
+                .map(directories -> directories.contains(directoryOf(resourceName)))
+                .orElse(false);
+    }
+
+    private Optional<Set<String>> localDirectories() {
+        Optional<Set<String>> directories = localDirectories;
+        if (directories == null) {
+            synchronized (this) {
+                directories = localDirectories;
+                if (directories == null) {
+                    directories = indexClasspath(getURLs(), prebuiltIndex);
+                    localDirectories = directories;
+                }
+            }
+        }
+        return directories;
+    }
+
+    static Optional<Set<String>> indexClasspath(final URL[] classpath) {
+        return indexClasspath(classpath, Map.of());
+    }
+
+    /**
+     * Find the directories of all entries on the classpath.
+     *
+     * @param classpath     the classpath.
+     * @param prebuiltIndex the directories of classpath entries already indexed, keyed by URL.
+     * @return the directories, or empty if any part of the classpath could not be read.
+     */
+    static Optional<Set<String>> indexClasspath(final URL[] classpath,
+                                                final Map<String, Set<String>> prebuiltIndex) {
+        final Set<String> directories = new HashSet<>();
+        for (final URL url : classpath) {
+            final Set<String> prebuiltDirectories = prebuiltIndex.get(url.toExternalForm());
+            if (prebuiltDirectories != null) {
+                directories.addAll(prebuiltDirectories);
+                continue;
+            }
+            try {
+                if (!"file".equals(url.getProtocol())) {
+                    return Optional.empty();
+                }
+                final File file = new File(url.toURI());
+                if (file.isDirectory()) {
+                    indexDirectory(file.toPath(), directories);
+                } else if (file.isFile() && !indexJar(file, directories)) {
+                    return Optional.empty();
+                }
+            } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+                LOG.debug("Unable to index classpath entry, so the classpath will not be indexed: " + url, e);
+                return Optional.empty();
+            }
+        }
+        return Optional.of(directories);
+    }
+
+    private static void indexDirectory(final Path root, final Set<String> directories) throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(Files::isRegularFile)
+                    .map(file -> root.relativize(file).toString().replace(File.separatorChar, '/'))
+                    .map(ChildFirstURLClassLoader::directoryOf)
+                    .forEach(directories::add);
+        }
+    }
+
+    /**
+     * @return false if the jar refers to further jars, which the class loader will search but which are not indexed.
+     */
+    private static boolean indexJar(final File jar, final Set<String> directories) throws IOException {
+        try (JarFile jarFile = new JarFile(jar)) {
+            final Manifest manifest = jarFile.getManifest();
+            if (manifest != null && manifest.getMainAttributes().getValue(Attributes.Name.CLASS_PATH) != null) {
+                return false;
+            }
+
+            final Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                final JarEntry entry = entries.nextElement();
+                if (!entry.isDirectory()) {
+                    directories.add(directoryOf(withoutVersionPrefix(entry.getName())));
+                }
+            }
+        }
+        return true;
+    }
+
+    private static String withoutVersionPrefix(final String entryName) {
+        if (entryName.startsWith(VERSIONED_ENTRY_PREFIX)) {
+            final int endOfVersion = entryName.indexOf('/', VERSIONED_ENTRY_PREFIX.length());
+            if (endOfVersion > 0) {
+                return entryName.substring(endOfVersion + 1);
+            }
+        }
+        return entryName;
+    }
+
+    static String directoryOf(final String resourceName) {
+        final String name = resourceName.startsWith("/") ? resourceName.substring(1) : resourceName;
+        final int lastSlash = name.lastIndexOf('/');
+        if (lastSlash < 0) {
+            return "";
+        }
+        return name.substring(0, lastSlash);
+    }
+
     @Override
     public String toString() {
         return "ChildFirstURLClassLoader: URLs " + Arrays.toString(getURLs()) + "; Parent " + getParent();
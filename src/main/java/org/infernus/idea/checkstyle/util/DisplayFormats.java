@@ -1,16 +1,32 @@
 package org.infernus.idea.checkstyle.util;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 public final class DisplayFormats {
 
+    private static final String CHECK_SUFFIX = "Check";
+
+    /**
+     * Check names are shortened for every problem displayed, but there are few distinct checks, so we remember them.
+     */
+    private static final Map<String, String> SHORTENED_CLASS_NAMES = new ConcurrentHashMap<>();
+
     private DisplayFormats() {
     }
 
     public static String shortenClassName(final String className) {
+        return SHORTENED_CLASS_NAMES.computeIfAbsent(className, DisplayFormats::shorten);
+    }
+
+    private static String shorten(final String className) {
         final int lastPackageIndex = className.lastIndexOf(".");
         if (lastPackageIndex >= 0) {
-            return className
-                    .substring(lastPackageIndex + 1)
-                    .replaceFirst("Check$", "");
+            final String simpleName = className.substring(lastPackageIndex + 1);
+            if (simpleName.endsWith(CHECK_SUFFIX)) {
+                return simpleName.substring(0, simpleName.length() - CHECK_SUFFIX.length());
+            }
+            return simpleName;
         }
         return className;
     }
@@ -0,0 +1,37 @@
+package org.infernus.idea.checkstyle.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns the strings repeated across the results of a scan, such as messages and check names, so that each
+ * distinct value is held once however many problems refer to it.
+ * <p>
+ * Unlike {@link String#intern()}, the table lives only as long as its owner, and so is not a leak.
+ */
+public final class SymbolTable {
+
+    private final Map<String, String> symbols = new ConcurrentHashMap<>();
+
+    /**
+     * @param value the value to intern.
+     * @return the instance held in the table equal to the value.
+     */
+    @Nullable
+    public String intern(@Nullable final String value) {
+        if (value == null) {
+            return null;
+        }
+        final String existing = symbols.putIfAbsent(value, value);
+        if (existing != null) {
+            return existing;
+        }
+        return value;
+    }
+
+    public int size() {
+        return symbols.size();
+    }
+}
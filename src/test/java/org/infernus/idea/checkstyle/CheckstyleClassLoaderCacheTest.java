@@ -0,0 +1,98 @@
+package org.infernus.idea.checkstyle;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+
+public class CheckstyleClassLoaderCacheTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final CheckstyleClassLoaderCache underTest = new CheckstyleClassLoaderCache();
+    private final AtomicInteger classLoadersCreated = new AtomicInteger();
+
+    @Test
+    public void projectsWithTheSameVersionAndClassPathShareAClassLoader() {
+        final CheckstyleClassLoaderCache.Lease first = underTest.acquire("10.0", List.of(), newClassLoader());
+        final CheckstyleClassLoaderCache.Lease second = underTest.acquire("10.0", List.of(), newClassLoader());
+
+        assertSame(first.classLoader(), second.classLoader());
+        assertEquals(1, classLoadersCreated.get());
+        assertEquals(1, underTest.size());
+    }
+
+    @Test
+    public void projectsWithDifferentVersionsDoNotShareAClassLoader() {
+        final CheckstyleClassLoaderCache.Lease first = underTest.acquire("10.0", List.of(), newClassLoader());
+        final CheckstyleClassLoaderCache.Lease second = underTest.acquire("9.3", List.of(), newClassLoader());
+
+        assertNotSame(first.classLoader(), second.classLoader());
+        assertEquals(2, underTest.size());
+    }
+
+    @Test
+    public void aClassLoaderIsDroppedWhenItsLastLeaseIsReleased() {
+        final CheckstyleClassLoaderCache.Lease first = underTest.acquire("10.0", List.of(), newClassLoader());
+        final CheckstyleClassLoaderCache.Lease second = underTest.acquire("10.0", List.of(), newClassLoader());
+
+        first.release();
+        assertEquals(1, underTest.size());
+
+        second.release();
+        assertEquals(0, underTest.size());
+    }
+
+    @Test
+    public void releasingALeaseTwiceHasNoFurtherEffect() {
+        final CheckstyleClassLoaderCache.Lease first = underTest.acquire("10.0", List.of(), newClassLoader());
+        underTest.acquire("10.0", List.of(), newClassLoader());
+
+        first.release();
+        first.release();
+
+        assertEquals(1, underTest.size());
+    }
+
+    @Test
+    public void aLeaseIsNotHeldIfTheClassLoaderCannotBeCreated() {
+        assertThrows(IllegalStateException.class, () -> underTest.acquire("10.0", List.of(), () -> {
+            throw new IllegalStateException("failed");
+        }));
+
+        assertEquals(0, underTest.size());
+    }
+
+    @Test
+    public void theFingerprintOfAClassPathChangesWhenAJarChanges() throws IOException {
+        final File jar = temporaryFolder.newFile("third-party.jar");
+        final List<URL> classPath = List.of(jar.toURI().toURL());
+        final String before = CheckstyleClassLoaderCache.fingerprintOf(classPath);
+
+        Files.writeString(jar.toPath(), "altered");
+
+        assertNotEquals(before, CheckstyleClassLoaderCache.fingerprintOf(classPath));
+    }
+
+    private Supplier<ClassLoader> newClassLoader() {
+        return () -> {
+            classLoadersCreated.incrementAndGet();
+            return new URLClassLoader(new URL[0], getClass().getClassLoader());
+        };
+    }
+}
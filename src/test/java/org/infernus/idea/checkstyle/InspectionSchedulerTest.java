@@ -0,0 +1,198 @@
+package org.infernus.idea.checkstyle;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.Application;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.util.ThrowableComputable;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.FileViewProvider;
+import com.intellij.psi.PsiFile;
+import org.infernus.idea.checkstyle.checker.Problem;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+/**
+ * Unit tests of {@link InspectionScheduler}.
+ */
+public class InspectionSchedulerTest {
+
+    private static final long TIMEOUT = TimeUnit.SECONDS.toMillis(5);
+
+    // the progress manager is cached once created, and so is shared between the tests
+    private static final List<ProgressIndicator> SCAN_INDICATORS = new CopyOnWriteArrayList<>();
+    private static final ProgressManager PROGRESS_MANAGER = mockProgressManager();
+
+    private final AtomicLong modificationStamp = new AtomicLong(1);
+
+    private ExecutorService executor;
+    private PsiFile psiFile;
+    private InspectionScheduler underTest;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Throwable {
+        SCAN_INDICATORS.clear();
+
+        final Application application = mock(Application.class);
+        when(application.isUnitTestMode()).thenReturn(true);
+        when(application.getService(ProgressManager.class)).thenReturn(PROGRESS_MANAGER);
+        when(application.runReadAction(any(ThrowableComputable.class)))
+                .thenAnswer(invocation -> ((ThrowableComputable<?, ?>) invocation.getArgument(0)).compute());
+        when(application.runReadAction(any(Computable.class)))
+                .thenAnswer(invocation -> ((Computable<?>) invocation.getArgument(0)).compute());
+        ApplicationManager.setApplication(application, mock(Disposable.class));
+
+        final FileViewProvider viewProvider = mock(FileViewProvider.class);
+        when(viewProvider.getVirtualFile()).thenReturn(mock(VirtualFile.class));
+        psiFile = mock(PsiFile.class);
+        when(psiFile.getViewProvider()).thenReturn(viewProvider);
+        when(psiFile.isValid()).thenReturn(true);
+        when(psiFile.getModificationStamp()).thenAnswer(invocation -> modificationStamp.get());
+
+        executor = Executors.newCachedThreadPool();
+        underTest = new InspectionScheduler(mock(Project.class), executor);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void theResultOfARevisionIsReusedForLaterRequestsForTheSameRevision() {
+        final AtomicInteger scans = new AtomicInteger();
+        final List<Problem> problems = List.of(validProblem());
+
+        underTest.inspect(psiFile, () -> {
+            scans.incrementAndGet();
+            return problems;
+        }, TIMEOUT);
+        final List<Problem> secondResult = underTest.inspect(psiFile, () -> {
+            scans.incrementAndGet();
+            return List.of();
+        }, TIMEOUT);
+
+        assertThat(secondResult, is(sameInstance(problems)));
+        assertThat(scans.get(), is(1));
+        assertThat(underTest.getCoalescedScanCount(), is(1L));
+    }
+
+    @Test
+    public void aScanOfANewerRevisionCancelsARunningScan() throws Exception {
+        final CountDownLatch firstScanStarted = new CountDownLatch(1);
+        final CountDownLatch firstScanReleased = new CountDownLatch(1);
+        final CompletableFuture<List<Problem>> firstInspection = CompletableFuture.supplyAsync(() ->
+                underTest.inspect(psiFile, () -> {
+                    firstScanStarted.countDown();
+                    awaitQuietly(firstScanReleased);
+                    return List.of();
+                }, TIMEOUT));
+        assertThat(firstScanStarted.await(TIMEOUT, TimeUnit.MILLISECONDS), is(true));
+
+        modificationStamp.incrementAndGet();
+        final CompletableFuture<List<Problem>> secondInspection = CompletableFuture.supplyAsync(() ->
+                underTest.inspect(psiFile, List::of, TIMEOUT));
+
+        assertThat(secondInspection.get(TIMEOUT, TimeUnit.MILLISECONDS), is(empty()));
+        assertThat(SCAN_INDICATORS.get(0).isCanceled(), is(true));
+
+        firstScanReleased.countDown();
+        firstInspection.handle((result, error) -> null).get(TIMEOUT, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void aCancelledScanIsNotKeptAsTheResultOfItsRevision() {
+        final AtomicInteger scans = new AtomicInteger();
+
+        assertThrows(ProcessCanceledException.class, () -> underTest.inspect(psiFile, () -> {
+            scans.incrementAndGet();
+            throw new ProcessCanceledException();
+        }, TIMEOUT));
+        underTest.inspect(psiFile, () -> {
+            scans.incrementAndGet();
+            return List.of(validProblem());
+        }, TIMEOUT);
+
+        assertThat(scans.get(), is(2));
+    }
+
+    @Test
+    public void aScanReturningAfterItsCancellationIsNotKeptAsTheResultOfItsRevision() {
+        final List<Problem> problems = List.of(validProblem());
+
+        assertThrows(ProcessCanceledException.class, () -> underTest.inspect(psiFile, () -> {
+            SCAN_INDICATORS.get(SCAN_INDICATORS.size() - 1).cancel();
+            return List.of();
+        }, TIMEOUT));
+
+        assertThat(underTest.inspect(psiFile, () -> problems, TIMEOUT), is(sameInstance(problems)));
+    }
+
+    @Test
+    public void aScanExceedingTheTimeoutReturnsNoProblemsRatherThanThoseOfAnEarlierRevision() {
+        underTest.inspect(psiFile, () -> List.of(validProblem()), TIMEOUT);
+
+        modificationStamp.incrementAndGet();
+        final CountDownLatch slowScanReleased = new CountDownLatch(1);
+        try {
+            final List<Problem> result = underTest.inspect(psiFile, () -> {
+                awaitQuietly(slowScanReleased);
+                return List.of(validProblem());
+            }, 100);
+
+            assertThat(result, is(empty()));
+        } finally {
+            slowScanReleased.countDown();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ProgressManager mockProgressManager() {
+        final ProgressManager progressManager = mock(ProgressManager.class);
+        when(progressManager.runProcess(any(Computable.class), any(ProgressIndicator.class))).thenAnswer(invocation -> {
+            SCAN_INDICATORS.add(invocation.getArgument(1));
+            return ((Computable<?>) invocation.getArgument(0)).compute();
+        });
+        return progressManager;
+    }
+
+    private static Problem validProblem() {
+        final Problem problem = mock(Problem.class);
+        when(problem.isValid()).thenReturn(true);
+        return problem;
+    }
+
+    private static void awaitQuietly(final CountDownLatch latch) {
+        try {
+            latch.await(TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
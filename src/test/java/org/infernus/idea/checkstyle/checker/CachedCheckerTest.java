@@ -0,0 +1,115 @@
+package org.infernus.idea.checkstyle.checker;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+
+/**
+ * Unit tests of {@link CachedChecker}.
+ */
+public class CachedCheckerTest {
+
+    private static final long IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(1);
+
+    @Test
+    public void theInitialCheckerIsCheckedOutFirst() {
+        final CheckStyleChecker initialChecker = mock(CheckStyleChecker.class);
+        final CachedChecker pool = new CachedChecker(initialChecker, 2, IDLE_TIMEOUT, () -> mock(CheckStyleChecker.class));
+
+        assertThat(pool.checkout(), is(sameInstance(initialChecker)));
+        assertThat(pool.size(), is(1));
+    }
+
+    @Test
+    public void checkersAreCreatedOnDemandUpToTheMaximumSize() {
+        final CheckStyleChecker createdChecker = mock(CheckStyleChecker.class);
+        final CachedChecker pool = new CachedChecker(mock(CheckStyleChecker.class), 2, IDLE_TIMEOUT, () -> createdChecker);
+
+        pool.checkout();
+
+        assertThat(pool.checkout(), is(sameInstance(createdChecker)));
+        assertThat(pool.size(), is(2));
+    }
+
+    @Test
+    public void aCheckoutFromAFullPoolWaitsForACheckerToBeReturned() throws Exception {
+        final CheckStyleChecker initialChecker = mock(CheckStyleChecker.class);
+        final CachedChecker pool = new CachedChecker(initialChecker, 1, IDLE_TIMEOUT, () -> mock(CheckStyleChecker.class));
+        final CheckStyleChecker checkedOutChecker = pool.checkout();
+
+        final CompletableFuture<CheckStyleChecker> waitingCheckout = CompletableFuture.supplyAsync(pool::checkout);
+        Thread.sleep(200);
+        assertThat(waitingCheckout.isDone(), is(false));
+
+        pool.checkin(checkedOutChecker);
+
+        assertThat(waitingCheckout.get(5, TimeUnit.SECONDS), is(sameInstance(initialChecker)));
+        assertThat(pool.size(), is(1));
+    }
+
+    @Test
+    public void checkersInUseAreOnlyDestroyedOnceTheyAreReturned() {
+        final CheckStyleChecker initialChecker = mock(CheckStyleChecker.class);
+        final CheckStyleChecker createdChecker = mock(CheckStyleChecker.class);
+        final CachedChecker pool = new CachedChecker(initialChecker, 2, IDLE_TIMEOUT, () -> createdChecker);
+        pool.checkin(pool.checkout());
+        final CheckStyleChecker checkedOutChecker = pool.checkout();
+        pool.checkin(pool.checkout());
+
+        pool.destroy();
+
+        verify(createdChecker).destroy();
+        verify(checkedOutChecker, never()).destroy();
+
+        pool.checkin(checkedOutChecker);
+
+        verify(checkedOutChecker).destroy();
+    }
+
+    @Test
+    public void aCheckerBuiltWhileThePoolIsDestroyedIsDestroyedRatherThanCheckedOut() {
+        final CheckStyleChecker createdChecker = mock(CheckStyleChecker.class);
+        final AtomicReference<CachedChecker> poolRef = new AtomicReference<>();
+        final CachedChecker pool = new CachedChecker(mock(CheckStyleChecker.class), 2, IDLE_TIMEOUT, () -> {
+            poolRef.get().destroy();
+            return createdChecker;
+        });
+        poolRef.set(pool);
+        pool.checkout();
+
+        assertThat(pool.checkout(), is(nullValue()));
+        verify(createdChecker).destroy();
+    }
+
+    @Test
+    public void aCheckoutFromADestroyedPoolReturnsNoChecker() {
+        final CachedChecker pool = new CachedChecker(mock(CheckStyleChecker.class), 1, IDLE_TIMEOUT, () -> mock(CheckStyleChecker.class));
+
+        pool.destroy();
+
+        assertThat(pool.checkout(), is(nullValue()));
+    }
+
+    @Test
+    public void aCheckoutWaitingWhenThePoolIsDestroyedReturnsNoChecker() throws Exception {
+        final CachedChecker pool = new CachedChecker(mock(CheckStyleChecker.class), 1, IDLE_TIMEOUT, () -> mock(CheckStyleChecker.class));
+        pool.checkout();
+
+        final CompletableFuture<CheckStyleChecker> waitingCheckout = CompletableFuture.supplyAsync(pool::checkout);
+        Thread.sleep(200);
+        pool.destroy();
+
+        assertThat(waitingCheckout.get(5, TimeUnit.SECONDS), is(nullValue()));
+    }
+}
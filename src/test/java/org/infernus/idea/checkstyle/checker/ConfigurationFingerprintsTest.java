@@ -0,0 +1,81 @@
+package org.infernus.idea.checkstyle.checker;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import com.intellij.openapi.project.Project;
+import org.infernus.idea.checkstyle.checker.ConfigurationFingerprints.Fingerprint;
+import org.infernus.idea.checkstyle.model.ConfigurationLocation;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+/**
+ * Unit tests of {@link ConfigurationFingerprints}.
+ */
+public class ConfigurationFingerprintsTest {
+
+    private static final String CONFIGURATION = """
+            <?xml version="1.0"?>
+            <!DOCTYPE module PUBLIC "-//Checkstyle//DTD Checkstyle Configuration 1.3//EN"
+                    "https://checkstyle.org/dtds/configuration_1_3.dtd" [
+                <!ENTITY included SYSTEM "included.xml">
+            ]>
+            <module name="Checker">
+                <module name="SuppressionFilter">
+                    <property name="file" value="${suppressionsFile}"/>
+                </module>
+                &included;
+            </module>
+            """;
+
+    private static final String INCLUDED = """
+            <module name="RegexpHeader">
+                <property name="headerFile" value="${headerDir}/header.txt"/>
+            </module>
+            """;
+
+    @Rule
+    public final TemporaryFolder configurationFolder = new TemporaryFolder();
+
+    private final ConfigurationFingerprints underTest = ConfigurationFingerprints.of(mock(Project.class));
+
+    private ConfigurationLocation location;
+
+    @Before
+    public void setUp() throws IOException {
+        final File baseDir = configurationFolder.getRoot();
+        Files.writeString(new File(baseDir, "included.xml").toPath(), INCLUDED);
+
+        location = mock(ConfigurationLocation.class);
+        when(location.getBaseDir()).thenReturn(baseDir);
+        when(location.resolve(any(ClassLoader.class))).thenAnswer(invocation ->
+                new ByteArrayInputStream(CONFIGURATION.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void thePropertiesReferencedByAnIncludedEntityArePartOfTheFingerprint() throws IOException {
+        final Fingerprint fingerprint = underTest.fingerprintOf(location, getClass().getClassLoader());
+
+        assertThat(fingerprint.referencedProperties(), containsInAnyOrder("suppressionsFile", "headerDir"));
+    }
+
+    @Test
+    public void theAssociatedFilesNamedByAnIncludedEntityArePartOfTheFingerprint() throws IOException {
+        final Fingerprint fingerprint = underTest.fingerprintOf(location, getClass().getClassLoader());
+
+        assertThat(fingerprint.associatedFileNames(),
+                containsInAnyOrder("${suppressionsFile}", "${headerDir}/header.txt"));
+    }
+}
@@ -0,0 +1,100 @@
+package org.infernus.idea.checkstyle.checker;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.intellij.openapi.vfs.VirtualFile;
+import org.infernus.idea.checkstyle.checker.FileValidationCache.Validation;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+
+
+/**
+ * Unit tests of {@link FileValidationCache}.
+ */
+public class FileValidationCacheTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private final AtomicInteger validations = new AtomicInteger();
+
+    @Test
+    public void aFileIsValidatedOnce() {
+        final FileValidationCache underTest = new FileValidationCache(FileValidationCache.MAX_ENTRIES);
+        final VirtualFile file = mock(VirtualFile.class);
+
+        final Validation validation = underTest.get(file, this::validate);
+
+        assertThat(underTest.get(file, this::validate), is(sameInstance(validation)));
+        assertThat(validations.get(), is(1));
+    }
+
+    @Test
+    public void aFileIsValidatedAgainOnceTheCacheIsInvalidated() {
+        final FileValidationCache underTest = new FileValidationCache(FileValidationCache.MAX_ENTRIES);
+        final VirtualFile file = mock(VirtualFile.class);
+        underTest.get(file, this::validate);
+
+        underTest.invalidate();
+        underTest.get(file, this::validate);
+
+        assertThat(validations.get(), is(2));
+    }
+
+    @Test
+    public void theValidationsAreForgottenOnceTheCacheIsFull() {
+        final FileValidationCache underTest = new FileValidationCache(2);
+        final VirtualFile file = mock(VirtualFile.class);
+        underTest.get(file, this::validate);
+        underTest.get(mock(VirtualFile.class), this::validate);
+        underTest.get(mock(VirtualFile.class), this::validate);
+
+        underTest.get(file, this::validate);
+
+        assertThat(validations.get(), is(4));
+    }
+
+    @Test
+    public void aFileBeingValidatedDoesNotBlockOtherRequestsForTheFile() throws Exception {
+        final FileValidationCache underTest = new FileValidationCache(FileValidationCache.MAX_ENTRIES);
+        final VirtualFile file = mock(VirtualFile.class);
+        final CountDownLatch slowValidationStarted = new CountDownLatch(1);
+        final CountDownLatch slowValidationReleased = new CountDownLatch(1);
+        final CompletableFuture<Validation> slowValidation = CompletableFuture.supplyAsync(() ->
+                underTest.get(file, () -> {
+                    slowValidationStarted.countDown();
+                    awaitQuietly(slowValidationReleased);
+                    return validate();
+                }));
+        assertThat(slowValidationStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), is(true));
+
+        try {
+            final Validation validation = CompletableFuture.supplyAsync(() -> underTest.get(file, this::validate))
+                    .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+            slowValidationReleased.countDown();
+            assertThat(slowValidation.get(TIMEOUT_SECONDS, TimeUnit.SECONDS), is(sameInstance(validation)));
+        } finally {
+            slowValidationReleased.countDown();
+        }
+    }
+
+    private Validation validate() {
+        validations.incrementAndGet();
+        return new Validation(true, null);
+    }
+
+    private static void awaitQuietly(final CountDownLatch latch) {
+        try {
+            latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
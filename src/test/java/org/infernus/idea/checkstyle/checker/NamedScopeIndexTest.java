@@ -0,0 +1,100 @@
+package org.infernus.idea.checkstyle.checker;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.Application;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.util.ThrowableComputable;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.packageDependencies.DependencyValidationManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.search.scope.packageSet.NamedScope;
+import com.intellij.psi.search.scope.packageSet.NamedScopeManager;
+import com.intellij.psi.search.scope.packageSet.PackageSet;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+
+/**
+ * Unit tests of {@link NamedScopeIndex}.
+ */
+public class NamedScopeIndexTest {
+
+    private static final String SCOPE_ID = "aScope";
+
+    private final NamedScopeIndex underTest = new NamedScopeIndex();
+
+    private NamedScopeManager localScopes;
+    private DependencyValidationManager sharedScopes;
+    private PsiFile psiFile;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Throwable {
+        final Application application = mock(Application.class);
+        when(application.runReadAction(any(ThrowableComputable.class)))
+                .thenAnswer(invocation -> ((ThrowableComputable<?, ?>) invocation.getArgument(0)).compute());
+        when(application.runReadAction(any(Computable.class)))
+                .thenAnswer(invocation -> ((Computable<?>) invocation.getArgument(0)).compute());
+        ApplicationManager.setApplication(application, mock(Disposable.class));
+
+        localScopes = mock(NamedScopeManager.class);
+        sharedScopes = mock(DependencyValidationManager.class);
+        final Project project = mock(Project.class);
+        when(project.getService(NamedScopeManager.class)).thenReturn(localScopes);
+        when(project.getService(DependencyValidationManager.class)).thenReturn(sharedScopes);
+
+        psiFile = mock(PsiFile.class);
+        when(psiFile.getProject()).thenReturn(project);
+        when(psiFile.getVirtualFile()).thenReturn(mock(VirtualFile.class));
+    }
+
+    @Test
+    public void localAndSharedScopesWithTheSameIdAreIndexedSeparately() {
+        final NamedScope localScope = new NamedScope(SCOPE_ID, packageSetContainingFile(true));
+        final NamedScope sharedScope = new NamedScope(SCOPE_ID, packageSetContainingFile(false));
+        when(localScopes.getScope(SCOPE_ID)).thenReturn(localScope);
+        when(sharedScopes.getScope(SCOPE_ID)).thenReturn(sharedScope);
+
+        assertThat(underTest.contains(psiFile, localScope), is(true));
+        assertThat(underTest.contains(psiFile, sharedScope), is(false));
+    }
+
+    @Test
+    public void aFileIsMatchedAgainstAHeldScopeOnce() {
+        final PackageSet packageSet = packageSetContainingFile(true);
+        final NamedScope sharedScope = new NamedScope(SCOPE_ID, packageSet);
+        when(sharedScopes.getScope(SCOPE_ID)).thenReturn(sharedScope);
+
+        underTest.contains(psiFile, sharedScope);
+        underTest.contains(psiFile, sharedScope);
+
+        verify(packageSet, times(1)).contains(any(PsiFile.class), any());
+    }
+
+    @Test
+    public void aFileIsMatchedAgainstAScopeHeldByNeitherHolderEachTime() {
+        final PackageSet packageSet = packageSetContainingFile(true);
+        final NamedScope unheldScope = new NamedScope(SCOPE_ID, packageSet);
+
+        underTest.contains(psiFile, unheldScope);
+        underTest.contains(psiFile, unheldScope);
+
+        verify(packageSet, times(2)).contains(any(PsiFile.class), any());
+    }
+
+    private PackageSet packageSetContainingFile(final boolean containsFile) {
+        final PackageSet packageSet = mock(PackageSet.class);
+        when(packageSet.contains(any(PsiFile.class), any())).thenReturn(containsFile);
+        return packageSet;
+    }
+}
@@ -0,0 +1,80 @@
+package org.infernus.idea.checkstyle.checker;
+
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import org.infernus.idea.checkstyle.csapi.SeverityLevel;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+/**
+ * Unit tests of {@link Problem}.
+ */
+public class ProblemTest {
+
+    private static final long SCANNED_STAMP = 1L;
+    private static final int TAB_WIDTH = 4;
+
+    private PsiFile psiFile;
+    private Document document;
+
+    @Before
+    public void setUp() {
+        document = mock(Document.class);
+        final PsiDocumentManager psiDocumentManager = mock(PsiDocumentManager.class);
+        final Project project = mock(Project.class);
+        when(project.getService(PsiDocumentManager.class)).thenReturn(psiDocumentManager);
+
+        psiFile = mock(PsiFile.class);
+        when(psiFile.getProject()).thenReturn(project);
+        when(psiDocumentManager.getDocument(psiFile)).thenReturn(document);
+    }
+
+    @Test
+    public void theTargetOfAnUnmodifiedFileIsFoundAtTheScannedOffset() {
+        final PsiElement element = mock(PsiElement.class);
+        when(psiFile.getModificationStamp()).thenReturn(SCANNED_STAMP);
+        when(psiFile.findElementAt(7)).thenReturn(element);
+
+        assertThat(problemAt(7, 1, 5).target(), is(sameInstance(element)));
+    }
+
+    @Test
+    public void theTargetOfAModifiedFileIsEstimatedWithTabsExpanded() {
+        final PsiElement element = mock(PsiElement.class);
+        when(psiFile.getModificationStamp()).thenReturn(SCANNED_STAMP + 1);
+        documentOf("class A {\n\t\tint b;\n}\n", 10, 18);
+        when(psiFile.findElementAt(12)).thenReturn(element);
+
+        assertThat(problemAt(0, 2, 8).target(), is(sameInstance(element)));
+    }
+
+    @Test
+    public void theTargetOfAModifiedFileIsTheFileWhenTheLineNoLongerExists() {
+        when(psiFile.getModificationStamp()).thenReturn(SCANNED_STAMP + 1);
+        when(document.getLineCount()).thenReturn(1);
+
+        assertThat(problemAt(0, 2, 8).target(), is(sameInstance(psiFile)));
+    }
+
+    private void documentOf(final String text, final int secondLineStart, final int secondLineEnd) {
+        when(document.getCharsSequence()).thenReturn(text);
+        when(document.getLineCount()).thenReturn(3);
+        when(document.getLineStartOffset(1)).thenReturn(secondLineStart);
+        when(document.getLineEndOffset(1)).thenReturn(secondLineEnd);
+    }
+
+    private Problem problemAt(final int offset, final int line, final int column) {
+        return new Problem(psiFile, offset, SCANNED_STAMP, "aMessage", SeverityLevel.Error,
+                line, column, TAB_WIDTH, "aSource", false, false);
+    }
+}
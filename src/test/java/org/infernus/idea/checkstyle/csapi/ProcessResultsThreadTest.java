@@ -1,6 +1,5 @@
 package org.infernus.idea.checkstyle.csapi;
 
-import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
 import org.infernus.idea.checkstyle.checker.Problem;
 import org.junit.Test;
@@ -9,8 +8,11 @@ import java.util.*;
 
 import static java.util.Collections.singletonList;
 import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class ProcessResultsThreadTest {
@@ -47,6 +49,87 @@ public class ProcessResultsThreadTest {
                 hasEntry(expectedFile, singletonList(aProblemFor(expectedFile))));
     }
 
+    @Test
+    public void issuesForFilesAfterAnUnmappedFileAreLinked() {
+        PsiFile expectedFile = aPsiFile();
+
+        ProcessResultsThread underTest = underTest(Map.of("aFileName", expectedFile),
+                List.of(anIssueFor("anUnmappedFileName"), anIssueFor("aFileName")));
+        underTest.run();
+
+        assertThat(underTest.getProblems(),
+                hasEntry(expectedFile, singletonList(aProblemFor(expectedFile))));
+    }
+
+    @Test
+    public void theTextOfAFileIsOnlyReadOnceForMultipleIssues() {
+        PsiFile psiFile = aPsiFile();
+
+        ProcessResultsThread underTest = underTest(Map.of("aFileName", psiFile),
+                List.of(anIssueFor("aFileName"), anIssueFor("aFileName"), anIssueFor("aFileName")));
+        underTest.run();
+
+        verify(psiFile, times(1)).textToCharArray();
+    }
+
+    @Test
+    public void issuesForAnInvalidatedFileAreDiscarded() {
+        PsiFile invalidatedFile = aPsiFile();
+        when(invalidatedFile.isValid()).thenReturn(false);
+
+        ProcessResultsThread underTest = underTest(Map.of("aFileName", invalidatedFile),
+                singletonList(anIssueFor("aFileName")));
+        underTest.run();
+
+        assertThat(underTest.getProblems().isEmpty(), is(true));
+    }
+
+    @Test
+    public void columnsAreMappedToOffsetsWithinTheirLine() {
+        ProcessResultsThread.LineIndex underTest = new ProcessResultsThread.LineIndex(
+                "line one\nline two\r\nline three\rfour".toCharArray(), 4);
+
+        assertThat(underTest.offsetOf(1, 0), is(0));
+        assertThat(underTest.offsetOf(1, 3), is(3));
+        assertThat(underTest.offsetOf(2, 3), is(12));
+        assertThat(underTest.offsetOf(3, 5), is(24));
+        assertThat(underTest.offsetOf(4, 1), is(31));
+    }
+
+    @Test
+    public void columnsBeyondTheEndOfALineAreMappedToTheEndOfTheLine() {
+        ProcessResultsThread.LineIndex underTest = new ProcessResultsThread.LineIndex(
+                "short\r\nlines\n".toCharArray(), 4);
+
+        assertThat(underTest.offsetOf(1, 80), is(5));
+        assertThat(underTest.offsetOf(2, 80), is(12));
+    }
+
+    @Test
+    public void linesBeyondTheEndOfTheFileAreMappedToTheEndOfTheFile() {
+        ProcessResultsThread.LineIndex underTest = new ProcessResultsThread.LineIndex("one\ntwo".toCharArray(), 4);
+
+        assertThat(underTest.offsetOf(3, 1), is(7));
+    }
+
+    @Test
+    public void tabsAreExpandedToTheNextTabStop() {
+        ProcessResultsThread.LineIndex underTest = new ProcessResultsThread.LineIndex("a\tb\t\tc".toCharArray(), 4);
+
+        assertThat(underTest.offsetOf(1, 5), is(3));
+        assertThat(underTest.offsetOf(1, 13), is(6));
+    }
+
+    @Test
+    public void issuesForAWholeLineBeginningWithWhitespaceAreAfterTheEndOfTheLine() {
+        ProcessResultsThread.LineIndex underTest = new ProcessResultsThread.LineIndex(
+                "class A {\n    int b;\n}\n".toCharArray(), 4);
+
+        assertThat(underTest.isAfterEndOfLine(2, 0), is(true));
+        assertThat(underTest.isAfterEndOfLine(2, 5), is(false));
+        assertThat(underTest.isAfterEndOfLine(3, 0), is(false));
+    }
+
     private ProcessResultsThread underTest(final Map<String, PsiFile> fileNamesToPsiFiles, final List<Issue> events) {
         return new ProcessResultsThread(
                 false, Collections.emptyList(), 4, Optional.empty(), events, fileNamesToPsiFiles);
@@ -54,8 +137,8 @@ public class ProcessResultsThreadTest {
 
     private PsiFile aPsiFile() {
         PsiFile expectedFile = mock(PsiFile.class);
+        when(expectedFile.isValid()).thenReturn(true);
         when(expectedFile.textToCharArray()).thenReturn("import boo.*;".toCharArray());
-        when(expectedFile.findElementAt(6)).thenReturn(mock(PsiElement.class));
         return expectedFile;
     }
 
@@ -64,7 +147,7 @@ public class ProcessResultsThreadTest {
     }
 
     private Problem aProblemFor(final PsiFile expectedFile) {
-        return new Problem(expectedFile, "aMessage", SeverityLevel.Error, 1, 7, "com.checkstyle.rules.aCheck", false, false);
+        return new Problem(expectedFile, 7, 0, "aMessage", SeverityLevel.Error, 1, 7, 4, "com.checkstyle.rules.aCheck", false, false);
     }
 
 }
@@ -0,0 +1,100 @@
+package org.infernus.idea.checkstyle.handlers;
+
+import com.intellij.diff.fragments.LineFragment;
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ChangedLinesTest {
+
+    @Test
+    public void onlyProblemsOnChangedLinesAreReported() {
+        ChangedLines underTest = new ChangedLines(linesFrom(3, 5), false, true);
+
+        assertThat(underTest.contains(2), is(false));
+        assertThat(underTest.contains(3), is(true));
+        assertThat(underTest.contains(4), is(true));
+        assertThat(underTest.contains(5), is(false));
+    }
+
+    @Test
+    public void problemsForTheWholeFileAreReportedForSignificantChanges() {
+        assertThat(new ChangedLines(linesFrom(3, 5), false, true).contains(0), is(true));
+        assertThat(new ChangedLines(linesFrom(3, 5), false, false).contains(0), is(false));
+    }
+
+    @Test
+    public void changesToOnlyCommentsAndWhitespaceAreNotSignificant() {
+        assertThat(new ChangedLines(linesFrom(3, 5), false, false).isSignificant(), is(false));
+        assertThat(new ChangedLines(new BitSet(), false, false).isSignificant(), is(false));
+    }
+
+    @Test
+    public void allProblemsAreReportedForAWholeFileChange() {
+        assertThat(ChangedLines.WHOLE_FILE.isSignificant(), is(true));
+        assertThat(ChangedLines.WHOLE_FILE.contains(0), is(true));
+        assertThat(ChangedLines.WHOLE_FILE.contains(1000), is(true));
+    }
+
+    @Test
+    public void linesOfAFragmentAreChanged() {
+        final ChangedLines underTest = ChangedLines.fromFragments(
+                List.of(fragment(2, 4, 20, 40)), (startOffset, endOffset) -> true);
+
+        assertThat(underTest.contains(2), is(false));
+        assertThat(underTest.contains(3), is(true));
+        assertThat(underTest.contains(4), is(true));
+        assertThat(underTest.contains(5), is(false));
+        assertThat(underTest.isSignificant(), is(true));
+    }
+
+    @Test
+    public void fragmentsWithoutCodeAreNotSignificant() {
+        final ChangedLines underTest = ChangedLines.fromFragments(
+                List.of(fragment(2, 4, 20, 40)), (startOffset, endOffset) -> false);
+
+        assertThat(underTest.isSignificant(), is(false));
+    }
+
+    @Test
+    public void aDeletionIsASignificantChangeToTheLinesEitherSideOfIt() {
+        final ChangedLines underTest = ChangedLines.fromFragments(
+                List.of(fragment(5, 5, 50, 50)), (startOffset, endOffset) -> false);
+
+        assertThat(underTest.isSignificant(), is(true));
+        assertThat(underTest.contains(4), is(false));
+        assertThat(underTest.contains(5), is(true));
+        assertThat(underTest.contains(6), is(true));
+        assertThat(underTest.contains(7), is(false));
+    }
+
+    @Test
+    public void aDeletionAtTheStartOfAFileChangesTheFirstLine() {
+        final ChangedLines underTest = ChangedLines.fromFragments(
+                List.of(fragment(0, 0, 0, 0)), (startOffset, endOffset) -> false);
+
+        assertThat(underTest.contains(1), is(true));
+        assertThat(underTest.contains(2), is(false));
+    }
+
+    private LineFragment fragment(final int startLine, final int endLine, final int startOffset, final int endOffset) {
+        final LineFragment fragment = mock(LineFragment.class);
+        when(fragment.getStartLine2()).thenReturn(startLine);
+        when(fragment.getEndLine2()).thenReturn(endLine);
+        when(fragment.getStartOffset2()).thenReturn(startOffset);
+        when(fragment.getEndOffset2()).thenReturn(endOffset);
+        return fragment;
+    }
+
+    private BitSet linesFrom(final int fromInclusive, final int toExclusive) {
+        final BitSet lines = new BitSet();
+        lines.set(fromInclusive, toExclusive);
+        return lines;
+    }
+}
@@ -0,0 +1,171 @@
+package org.infernus.idea.checkstyle.handlers;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.Application;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import org.infernus.idea.checkstyle.StaticScanner;
+import org.infernus.idea.checkstyle.checker.Problem;
+import org.infernus.idea.checkstyle.checker.ScanFiles;
+import org.infernus.idea.checkstyle.csapi.SeverityLevel;
+import org.infernus.idea.checkstyle.model.ScanResult;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CheckinScanTest {
+
+    private final List<List<VirtualFile>> batches = new ArrayList<>();
+    private final Map<VirtualFile, List<Problem>> problemsByFile = new HashMap<>();
+
+    private StaticScanner staticScanner;
+    private ScanFiles scanContext;
+
+    @Before
+    public void setUp() {
+        ApplicationManager.setApplication(mock(Application.class), mock(Disposable.class));
+
+        scanContext = mock(ScanFiles.class);
+        when(scanContext.withFiles(anyList())).thenAnswer(invocation -> {
+            batches.add(invocation.getArgument(0));
+            return mock(ScanFiles.class);
+        });
+
+        staticScanner = mock(StaticScanner.class);
+        when(staticScanner.scanFiles(any(ScanFiles.class), any())).thenAnswer(invocation -> {
+            final Map<PsiFile, List<Problem>> problems = new HashMap<>();
+            for (final VirtualFile file : batches.get(batches.size() - 1)) {
+                final List<Problem> fileProblems = problemsByFile.get(file);
+                if (fileProblems != null) {
+                    problems.put(fileProblems.get(0).file(), fileProblems);
+                }
+            }
+            return List.of(new ScanResult(null, null, problems));
+        });
+    }
+
+    @Test
+    public void withoutATimeLimitAllFilesAreScannedInASingleBatch() {
+        final CheckinScan underTest = scanOf(files(45), Map.of(), false, System.nanoTime());
+
+        assertThat(underTest.scan(CheckinScan.NO_TIME_LIMIT, mock(ProgressIndicator.class)), is(true));
+
+        assertThat(batches.size(), is(1));
+        assertThat(batches.get(0).size(), is(45));
+        assertThat(underTest.filesScanned(), is(45));
+        assertThat(underTest.isComplete(), is(true));
+    }
+
+    @Test
+    public void withATimeLimitFilesAreScannedInBatchesSharingTheScanContext() {
+        final CheckinScan underTest = scanOf(files(45), Map.of(), false, System.nanoTime());
+
+        assertThat(underTest.scan(60, mock(ProgressIndicator.class)), is(true));
+
+        assertThat(batches.stream().map(List::size).toList(), contains(20, 20, 5));
+        assertThat(underTest.filesScanned(), is(45));
+    }
+
+    @Test
+    public void timeTakenToPrepareTheScanCountsTowardsItsTimeLimit() {
+        final long preparedTwoMinutesAgo = System.nanoTime() - TimeUnit.MINUTES.toNanos(2);
+        final CheckinScan underTest = scanOf(files(5), Map.of(), false, preparedTwoMinutesAgo);
+
+        assertThat(underTest.scan(60, mock(ProgressIndicator.class)), is(false));
+
+        assertThat(batches, is(empty()));
+        assertThat(underTest.filesScanned(), is(0));
+        assertThat(underTest.isComplete(), is(false));
+    }
+
+    @Test
+    public void aResumedScanIsAllowedTheTimeLimitInFull() {
+        final long preparedTwoMinutesAgo = System.nanoTime() - TimeUnit.MINUTES.toNanos(2);
+        final CheckinScan underTest = scanOf(files(5), Map.of(), false, preparedTwoMinutesAgo);
+        underTest.scan(60, mock(ProgressIndicator.class));
+
+        assertThat(underTest.scan(60, mock(ProgressIndicator.class)), is(true));
+
+        assertThat(underTest.filesScanned(), is(5));
+        assertThat(underTest.isComplete(), is(true));
+    }
+
+    @Test
+    public void filesWithOnlyInsignificantChangesAreNotScannedWhenOnlyChangedLinesAreReported() {
+        final List<VirtualFile> files = files(2);
+        final CheckinScan underTest = scanOf(files, Map.of(
+                files.get(0), new ChangedLines(linesFrom(3, 5), false, false),
+                files.get(1), new ChangedLines(linesFrom(3, 5), false, true)), true, System.nanoTime());
+
+        underTest.scan(CheckinScan.NO_TIME_LIMIT, mock(ProgressIndicator.class));
+
+        assertThat(batches, contains(List.of(files.get(1))));
+        assertThat(underTest.filesScanned(), is(2));
+        assertThat(underTest.isComplete(), is(true));
+    }
+
+    @Test
+    public void onlyProblemsOnChangedLinesAreReportedWhenOnlyChangedLinesAreReported() {
+        final List<VirtualFile> files = files(1);
+        final PsiFile psiFile = mock(PsiFile.class);
+        when(psiFile.getVirtualFile()).thenReturn(files.get(0));
+        final Problem problemOnChangedLine = problemIn(psiFile, 3);
+        problemsByFile.put(files.get(0), List.of(problemOnChangedLine, problemIn(psiFile, 10)));
+        final CheckinScan underTest = scanOf(files, Map.of(
+                files.get(0), new ChangedLines(linesFrom(3, 5), false, true)), true, System.nanoTime());
+
+        underTest.scan(CheckinScan.NO_TIME_LIMIT, mock(ProgressIndicator.class));
+
+        assertThat(underTest.results().size(), is(1));
+        assertThat(underTest.results().get(0).problems().values().iterator().next(), contains(problemOnChangedLine));
+        assertThat(underTest.countsBySeverity()[SeverityLevel.Error.ordinal()], is(1L));
+    }
+
+    private CheckinScan scanOf(final List<VirtualFile> files,
+                               final Map<VirtualFile, ChangedLines> changedLinesByFile,
+                               final boolean changedLinesOnly,
+                               final long preparationStartTime) {
+        return new CheckinScan(mock(Project.class), staticScanner, scanContext, changedLinesOnly,
+                Map.of(), changedLinesByFile, files, preparationStartTime);
+    }
+
+    private List<VirtualFile> files(final int count) {
+        return IntStream.range(0, count)
+                .mapToObj(index -> {
+                    final VirtualFile file = mock(VirtualFile.class);
+                    when(file.getPath()).thenReturn("/project/File" + index + ".java");
+                    return file;
+                })
+                .toList();
+    }
+
+    private Problem problemIn(final PsiFile psiFile, final int line) {
+        return new Problem(psiFile, Problem.NO_OFFSET, 0L, "a problem", SeverityLevel.Error,
+                line, 0, 4, "aSource", false, false);
+    }
+
+    private BitSet linesFrom(final int fromInclusive, final int toExclusive) {
+        final BitSet lines = new BitSet();
+        lines.set(fromInclusive, toExclusive);
+        return lines;
+    }
+}
@@ -0,0 +1,158 @@
+package org.infernus.idea.checkstyle.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class ChildFirstURLClassLoaderTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void theDirectoriesOfJarEntriesAreIndexed() throws IOException {
+        final File jar = jarOf(null,
+                "root.properties",
+                "org/example/messages.properties",
+                "META-INF/versions/11/org/example/versioned/Versioned.class");
+
+        final Optional<Set<String>> index = ChildFirstURLClassLoader.indexClasspath(new URL[]{jar.toURI().toURL()});
+
+        assertTrue(index.isPresent());
+        assertTrue(index.get().contains(""));
+        assertTrue(index.get().contains("org/example"));
+        assertTrue(index.get().contains("org/example/versioned"));
+    }
+
+    @Test
+    public void theDirectoriesOfDirectoryEntriesAreIndexed() throws IOException {
+        final File directory = temporaryFolder.newFolder("classes");
+        final File resource = new File(directory, "org/example/messages.properties");
+        Files.createDirectories(resource.getParentFile().toPath());
+        Files.writeString(resource.toPath(), "key=value");
+
+        final Optional<Set<String>> index = ChildFirstURLClassLoader.indexClasspath(
+                new URL[]{directory.toURI().toURL()});
+
+        assertEquals(Optional.of(Set.of("org/example")), index);
+    }
+
+    @Test
+    public void prebuiltDirectoriesAreUsedInPlaceOfReadingTheJar() throws IOException {
+        final URL unreadableJar = new File(temporaryFolder.getRoot(), "absent.jar").toURI().toURL();
+        final File jar = jarOf(null, "org/example/messages.properties");
+
+        final Optional<Set<String>> index = ChildFirstURLClassLoader.indexClasspath(
+                new URL[]{unreadableJar, jar.toURI().toURL()},
+                Map.of(unreadableJar.toExternalForm(), Set.of("", "org/prebuilt")));
+
+        assertEquals(Optional.of(Set.of("", "org/prebuilt", "org/example")), index);
+    }
+
+    @Test
+    public void aJarReferringToFurtherJarsDisablesTheIndex() throws IOException {
+        final Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.CLASS_PATH, "other.jar");
+        final File jar = jarOf(manifest, "org/example/messages.properties");
+
+        assertEquals(Optional.empty(), ChildFirstURLClassLoader.indexClasspath(new URL[]{jar.toURI().toURL()}));
+    }
+
+    @Test
+    public void resourcesAreFoundOnTheClasspath() throws IOException {
+        final File jar = jarOf(null, "org/example/messages.properties");
+
+        try (ChildFirstURLClassLoader underTest = new ChildFirstURLClassLoader(
+                new URL[]{jar.toURI().toURL()}, getClass().getClassLoader())) {
+            assertNotNull(underTest.getResource("org/example/messages.properties"));
+            assertNull(underTest.getResource("org/example/missing.properties"));
+            assertNull(underTest.getResource("org/elsewhere/messages.properties"));
+        }
+    }
+
+    @Test
+    public void missingClassesAreReportedOnEveryLookup() throws IOException {
+        final File jar = jarOf(null, "org/example/messages.properties");
+
+        try (ChildFirstURLClassLoader underTest = new ChildFirstURLClassLoader(
+                new URL[]{jar.toURI().toURL()}, getClass().getClassLoader())) {
+            assertThrows(ClassNotFoundException.class, () -> underTest.loadClass("org.example.Missing"));
+            assertThrows(ClassNotFoundException.class, () -> underTest.loadClass("org.example.Missing"));
+        }
+    }
+
+    @Test
+    public void classesAreLoadedFromTheParentWhenNotOnTheClasspath() throws Exception {
+        final File jar = jarOf(null, "org/example/messages.properties");
+
+        try (ChildFirstURLClassLoader underTest = new ChildFirstURLClassLoader(
+                new URL[]{jar.toURI().toURL()}, getClass().getClassLoader())) {
+            assertEquals(getClass(), underTest.loadClass(getClass().getName()));
+        }
+    }
+
+    @Test
+    public void classesInPackagesOnTheClasspathAreLoadedFromTheClasspathFirst() throws Exception {
+        final String classFileName = Fixture.class.getName().replace('.', '/') + ".class";
+        final File jar = temporaryFolder.newFile();
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar));
+             InputStream classFile = getClass().getClassLoader().getResourceAsStream(classFileName)) {
+            assertNotNull(classFile);
+            out.putNextEntry(new JarEntry(classFileName));
+            classFile.transferTo(out);
+            out.closeEntry();
+        }
+
+        try (ChildFirstURLClassLoader underTest = new ChildFirstURLClassLoader(
+                new URL[]{jar.toURI().toURL()}, getClass().getClassLoader())) {
+            assertEquals(underTest, underTest.loadClass(Fixture.class.getName()).getClassLoader());
+            assertEquals(Object.class, underTest.loadClass(Object.class.getName()));
+        }
+    }
+
+    @Test
+    public void theDirectoryOfAResourceIsFoundWithOrWithoutALeadingSlash() {
+        assertEquals("org/example", ChildFirstURLClassLoader.directoryOf("org/example/Example.class"));
+        assertEquals("org/example", ChildFirstURLClassLoader.directoryOf("/org/example/Example.class"));
+        assertEquals("", ChildFirstURLClassLoader.directoryOf("root.properties"));
+    }
+
+    static final class Fixture {
+    }
+
+    private File jarOf(final Manifest manifest, final String... entryNames) throws IOException {
+        final File jar = temporaryFolder.newFile();
+        try (JarOutputStream out = manifest != null
+                ? new JarOutputStream(new FileOutputStream(jar), manifest)
+                : new JarOutputStream(new FileOutputStream(jar))) {
+            for (final String entryName : entryNames) {
+                out.putNextEntry(new JarEntry(entryName));
+                out.write("content".getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+        return jar;
+    }
+}
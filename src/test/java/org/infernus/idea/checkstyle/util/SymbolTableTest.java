@@ -0,0 +1,36 @@
+package org.infernus.idea.checkstyle.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class SymbolTableTest {
+
+    private final SymbolTable underTest = new SymbolTable();
+
+    @Test
+    public void equalValuesAreReturnedAsTheFirstInstanceInterned() {
+        final String first = new String("WhitespaceAroundCheck");
+        final String second = new String("WhitespaceAroundCheck");
+
+        assertSame(first, underTest.intern(first));
+        assertSame(first, underTest.intern(second));
+        assertEquals(1, underTest.size());
+    }
+
+    @Test
+    public void distinctValuesAreHeldSeparately() {
+        underTest.intern("'{' is not preceded with whitespace.");
+        underTest.intern("'}' is not followed by whitespace.");
+
+        assertEquals(2, underTest.size());
+    }
+
+    @Test
+    public void nullIsNotInterned() {
+        assertNull(underTest.intern(null));
+        assertEquals(0, underTest.size());
+    }
+}